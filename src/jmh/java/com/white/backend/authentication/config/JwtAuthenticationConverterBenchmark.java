@@ -0,0 +1,52 @@
+package com.white.backend.authentication.config;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.service.JwtService;
+import com.white.backend.authentication.service.UserLookupService;
+import com.white.backend.shared.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a decoded access token into an authentication with its ROLE_ authorities, as done on every authenticated
+ * request. Uses the converter exactly as {@link SecurityConfig} configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationConverterBenchmark {
+
+    private JwtAuthenticationConverter converter;
+
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new SecurityConfig(null, null, null).jwtAuthenticationConverter();
+
+        JwtService jwtService = new JwtService(new UserLookupService(null), new SimpleMeterRegistry(), null);
+        ReflectionTestUtils.setField(jwtService, "signerKey", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+
+        UserAccountDto admin = UserAccountDto.builder().username("admin").name("Admin").email("admin@example.com").role(Role.ADMIN).build();
+        jwt = jwtService.decodeJwt(jwtService.generateToken(admin, 1, JwtService.TokenType.ACCESS_TOKEN), MacAlgorithm.HS256);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.white.backend.authentication.service;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.shared.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minting and verifying access (HS256) and refresh (HS512) tokens, including the Micrometer timer around each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    @Param({"ACCESS_TOKEN", "REFRESH_TOKEN"})
+    public JwtService.TokenType tokenType;
+
+    private JwtService jwtService;
+
+    private UserAccountDto user;
+
+    private String token;
+
+    private MacAlgorithm algorithm;
+
+    @Setup
+    public void setUp() {
+        // Minting and verifying never look a user up or audit, so neither a repository nor an audit log is needed
+        jwtService = new JwtService(new UserLookupService(null), new SimpleMeterRegistry(), null);
+        ReflectionTestUtils.setField(jwtService, "signerKey", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+
+        user = UserAccountDto.builder().username("alice").name("Alice").email("alice@example.com").avatar("https://example.com/alice.png")
+                .role(Role.USER).build();
+
+        token = jwtService.generateToken(user, 1, tokenType);
+        algorithm = tokenType == JwtService.TokenType.ACCESS_TOKEN ? MacAlgorithm.HS256 : MacAlgorithm.HS512;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, 1, tokenType);
+    }
+
+    @Benchmark
+    public Jwt decodeJwt() {
+        return jwtService.decodeJwt(token, algorithm);
+    }
+
+}
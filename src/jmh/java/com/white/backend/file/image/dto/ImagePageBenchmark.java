@@ -0,0 +1,83 @@
+package com.white.backend.file.image.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.file.image.entity.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of GET /api/v1/file/image: mapping a page of entities to {@link ImageResponseDto} and writing it with
+ * the application's Jackson setup. The database query is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImagePageBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Page<Image> entities;
+
+    private Page<ImageResponseDto> page;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JacksonAutoConfiguration.class)) {
+            objectMapper = context.getBean(ObjectMapper.class);
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Image> images = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            images.add(Image.builder()
+                    .id("id-" + i)
+                    .publicId("public-" + i)
+                    .name("photo-" + i + ".jpg")
+                    .url("https://res.cloudinary.com/demo/image/upload/public-" + i)
+                    .size(250_000L + i)
+                    .extension("jpg")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .isDeleted(false)
+                    .build());
+        }
+
+        entities = new PageImpl<>(images, PageRequest.of(0, pageSize), 10_000);
+        page = entities.map(ImageResponseDto::from);
+    }
+
+    @Benchmark
+    public Page<ImageResponseDto> mapPage() {
+        return entities.map(ImageResponseDto::from);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(entities.map(ImageResponseDto::from));
+    }
+
+}
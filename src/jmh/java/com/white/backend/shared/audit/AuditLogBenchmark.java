@@ -0,0 +1,65 @@
+package com.white.backend.shared.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What auditing adds to a login: {@link AuditLog#record} from four request threads at once, with the writer thread
+ * appending to a real segment in a temporary directory. Records dropped because the writer fell behind are printed
+ * at the end; they cost the caller even less than a queued one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class AuditLogBenchmark {
+
+    private Path directory;
+
+    private AuditLog auditLog;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        auditLog = new AuditLog(new AuditProperties(directory, DataSize.ofMegabytes(256), Duration.ofDays(1), Duration.ofDays(1), 65536,
+                Duration.ofSeconds(1)), Clock.systemUTC());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLog.destroy();
+        System.out.printf("%nwritten %d, dropped %d%n", auditLog.getWritten(), auditLog.getDropped());
+        try (var paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public boolean recordLogin() {
+        return auditLog.record(AuditEventType.LOGIN, true, "alice@example.com", null);
+    }
+
+    @Benchmark
+    public boolean recordFailedLogin() {
+        return auditLog.record(AuditEventType.LOGIN, false, "alice@example.com", "UNAUTHORIZED");
+    }
+
+}
@@ -3,18 +3,25 @@ package com.white.backend;
 import com.white.backend.authentication.entity.User;
 import com.white.backend.authentication.repository.UserRepository;
 import com.white.backend.shared.enums.Role;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @SpringBootApplication
-@RequiredArgsConstructor
 public class BackendApplication implements CommandLineRunner {
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final boolean seedEnabled;
+
+    public BackendApplication(PasswordEncoder passwordEncoder, UserRepository userRepository,
+                              @Value("${app.seed.enabled}") boolean seedEnabled) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.seedEnabled = seedEnabled;
+    }
 
     public static void main(String[] args) {
         SpringApplication.run(BackendApplication.class, args);
@@ -22,6 +29,9 @@ public class BackendApplication implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        if (!seedEnabled || userRepository.existsByUsername("user")) {
+            return;
+        }
         userRepository.save(User.builder()
                 .username("user")
                 .password(passwordEncoder.encode("password"))
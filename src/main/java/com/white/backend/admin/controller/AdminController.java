@@ -0,0 +1,112 @@
+package com.white.backend.admin.controller;
+
+import com.white.backend.admin.dto.AuthAnalyticsResponseDto;
+import com.white.backend.admin.dto.CacheStatsResponseDto;
+import com.white.backend.admin.dto.ConcurrencyLimitStatsResponseDto;
+import com.white.backend.admin.dto.ConnectionPoolStatsResponseDto;
+import com.white.backend.admin.dto.DependencyStatsResponseDto;
+import com.white.backend.admin.service.AdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin - API", description = "Runtime statistics for administrators")
+public class AdminController {
+
+    private final AdminService adminService;
+
+    @GetMapping("/cache")
+    @Operation(
+            summary = "Cache statistics",
+            description = "Returns size, hit, miss and eviction counts and the hit ratio of every cache region since startup.")
+    public List<CacheStatsResponseDto> getCacheStats() {
+
+        return adminService.getCacheStats();
+
+    }
+
+    @GetMapping("/dependencies")
+    @Operation(
+            summary = "Remote dependency health",
+            description = "Returns the circuit breaker state, failure and slow call rates, and bulkhead usage and " +
+                    "rejection counts for Cloudinary and Google.")
+    public List<DependencyStatsResponseDto> getDependencyStats() {
+
+        return adminService.getDependencyStats();
+
+    }
+
+    @GetMapping("/connection-pools")
+    @Operation(
+            summary = "Outbound connection pools",
+            description = "Returns the leased, available and pending connections and the size of the Cloudinary " +
+                    "HTTP connection pool.")
+    public List<ConnectionPoolStatsResponseDto> getConnectionPoolStats() {
+
+        return adminService.getConnectionPoolStats();
+
+    }
+
+    @GetMapping("/concurrency-limits")
+    @Operation(
+            summary = "Adaptive concurrency limits",
+            description = "Returns the current concurrency limit, the requests in flight and the number of requests " +
+                    "shed with 503 since startup, per route group.")
+    public List<ConcurrencyLimitStatsResponseDto> getConcurrencyLimitStats() {
+
+        return adminService.getConcurrencyLimitStats();
+
+    }
+
+    @GetMapping("/analytics")
+    @Operation(
+            summary = "Authentication analytics",
+            description = "Returns estimated daily and monthly active users, password and Google logins per day and " +
+                    "the most failed usernames, counted by this node.")
+    public AuthAnalyticsResponseDto getAuthAnalytics(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "3") int months,
+            @RequestParam(defaultValue = "10") int top) {
+
+        return adminService.getAuthAnalytics(days, months, top, List.of());
+
+    }
+
+    @PostMapping("/analytics")
+    @Operation(
+            summary = "Cluster authentication analytics",
+            description = "Merges the posted exports of the other nodes, as base64 strings, with this node's " +
+                    "analytics and returns the estimates for the whole cluster.")
+    public AuthAnalyticsResponseDto getClusterAuthAnalytics(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "3") int months,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestBody List<byte[]> peers) {
+
+        return adminService.getAuthAnalytics(days, months, top, peers);
+
+    }
+
+    @GetMapping(value = "/analytics/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Export authentication analytics",
+            description = "Returns this node's analytics sketches to be merged by another node.")
+    public byte[] exportAuthAnalytics() {
+
+        return adminService.exportAuthAnalytics();
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.white.backend.admin.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Estimated active users, logins per provider and most failed usernames. Active user counts are within
+ * {@code activeUsersError} of the truth (one standard error, relative); failure counts never undercount and
+ * overcount by at most {@code failuresOverestimate}.
+ * <p>
+ * Users are told apart by the first {@value com.white.backend.shared.audit.AuditRecord#SUBJECT_BYTES} bytes of
+ * their UTF-8 username: longer usernames sharing those bytes count as one user and are listed cut to that length.
+ */
+@Builder
+public record AuthAnalyticsResponseDto(
+
+        List<Day> days,
+
+        Long activeUsers,
+
+        List<Month> months,
+
+        Double activeUsersError,
+
+        List<FailingUsername> failingUsernames,
+
+        Long failures,
+
+        Long failuresOverestimate,
+
+        Integer nodes
+
+) implements Serializable {
+
+    public record Day(LocalDate date, Long activeUsers, Long passwordLogins, Long googleLogins) implements Serializable {
+    }
+
+    public record Month(YearMonth month, Long activeUsers) implements Serializable {
+    }
+
+    public record FailingUsername(String username, Long failures) implements Serializable {
+    }
+
+}
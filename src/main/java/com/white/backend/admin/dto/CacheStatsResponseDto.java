@@ -0,0 +1,26 @@
+package com.white.backend.admin.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+
+/**
+ * Hit and eviction statistics of one cache region.
+ */
+@Builder
+public record CacheStatsResponseDto(
+
+        String region,
+
+        Long size,
+
+        Long hitCount,
+
+        Long missCount,
+
+        Double hitRatio,
+
+        Long evictionCount
+
+) implements Serializable {
+}
@@ -0,0 +1,22 @@
+package com.white.backend.admin.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+
+/**
+ * Adaptive concurrency limit of one route group.
+ */
+@Builder
+public record ConcurrencyLimitStatsResponseDto(
+
+        String group,
+
+        Integer limit,
+
+        Integer inFlight,
+
+        Long shedRequests
+
+) implements Serializable {
+}
@@ -0,0 +1,24 @@
+package com.white.backend.admin.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+
+/**
+ * Usage of one outbound HTTP connection pool.
+ */
+@Builder
+public record ConnectionPoolStatsResponseDto(
+
+        String pool,
+
+        Integer leased,
+
+        Integer available,
+
+        Integer pending,
+
+        Integer max
+
+) implements Serializable {
+}
@@ -0,0 +1,30 @@
+package com.white.backend.admin.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+
+/**
+ * Circuit breaker and bulkhead state of one remote dependency.
+ */
+@Builder
+public record DependencyStatsResponseDto(
+
+        String dependency,
+
+        String circuitState,
+
+        Float failureRate,
+
+        Float slowCallRate,
+
+        Long notPermittedCalls,
+
+        Integer availableConcurrentCalls,
+
+        Integer maxConcurrentCalls,
+
+        Long rejectedCalls
+
+) implements Serializable {
+}
@@ -0,0 +1,35 @@
+package com.white.backend.admin.error;
+
+import com.white.backend.shared.base.Error;
+import org.springframework.http.HttpStatus;
+
+public enum AdminError implements Error {
+
+    INVALID_ANALYTICS_EXPORT(HttpStatus.BAD_REQUEST, "Invalid analytics export");
+
+    AdminError(HttpStatus code, String message) {
+
+        this.code = code;
+
+        this.message = message;
+
+    }
+
+    public final HttpStatus code;
+
+    public final String message;
+
+    @Override
+    public HttpStatus getCode() {
+
+        return code;
+
+    }
+
+    @Override
+    public String getMessage() {
+
+        return message;
+
+    }
+}
@@ -0,0 +1,210 @@
+package com.white.backend.admin.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.white.backend.admin.dto.AuthAnalyticsResponseDto;
+import com.white.backend.admin.dto.CacheStatsResponseDto;
+import com.white.backend.admin.dto.ConcurrencyLimitStatsResponseDto;
+import com.white.backend.admin.dto.ConnectionPoolStatsResponseDto;
+import com.white.backend.admin.dto.DependencyStatsResponseDto;
+import com.white.backend.admin.error.AdminError;
+import com.white.backend.shared.analytics.AuthAnalytics;
+import com.white.backend.shared.concurrency.AdaptiveConcurrencyFilter;
+import com.white.backend.shared.resilience.RemoteCallGuard;
+import com.white.backend.shared.resilience.RemoteDependencies;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Service class exposing runtime statistics of the application's infrastructure to administrators.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminService {
+
+    private final CacheManager cacheManager;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final RemoteCallGuard remoteCallGuard;
+
+    private final PoolingHttpClientConnectionManager cloudinaryConnectionManager;
+
+    private final AdaptiveConcurrencyFilter adaptiveConcurrencyFilter;
+
+    private final AuthAnalytics authAnalytics;
+
+    /**
+     * Collects the statistics of every cache region since startup.
+     *
+     * @return one entry per cache region, ordered by region name
+     */
+    public List<CacheStatsResponseDto> getCacheStats() {
+
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(cache -> {
+
+                    // The manager hands out transaction-aware decorators around the Caffeine caches
+                    Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) target).getNativeCache();
+
+                    CacheStats stats = nativeCache.stats();
+
+                    return CacheStatsResponseDto.builder()
+                            .region(cache.getName())
+                            .size(nativeCache.estimatedSize())
+                            .hitCount(stats.hitCount())
+                            .missCount(stats.missCount())
+                            .hitRatio(stats.hitRate())
+                            .evictionCount(stats.evictionCount())
+                            .build();
+
+                })
+                .toList();
+
+    }
+
+    /**
+     * Collects the circuit breaker and bulkhead state of every remote dependency.
+     *
+     * @return one entry per remote dependency
+     */
+    public List<DependencyStatsResponseDto> getDependencyStats() {
+
+        return Stream.of(RemoteDependencies.CLOUDINARY, RemoteDependencies.GOOGLE)
+                .map(dependency -> {
+
+                    CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(dependency);
+
+                    Bulkhead bulkhead = bulkheadRegistry.bulkhead(dependency);
+
+                    return DependencyStatsResponseDto.builder()
+                            .dependency(dependency)
+                            .circuitState(circuitBreaker.getState().name())
+                            .failureRate(circuitBreaker.getMetrics().getFailureRate())
+                            .slowCallRate(circuitBreaker.getMetrics().getSlowCallRate())
+                            .notPermittedCalls(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls())
+                            .availableConcurrentCalls(bulkhead.getMetrics().getAvailableConcurrentCalls())
+                            .maxConcurrentCalls(bulkhead.getMetrics().getMaxAllowedConcurrentCalls())
+                            .rejectedCalls(remoteCallGuard.getRejectedCalls(dependency))
+                            .build();
+
+                })
+                .toList();
+
+    }
+
+    /**
+     * Collects the usage of the outbound HTTP connection pools.
+     * <p>
+     * A steadily non-zero {@code pending} count means requests wait for a connection, and the pool is smaller than
+     * the concurrency the dependency is allowed.
+     *
+     * @return one entry per connection pool
+     */
+    public List<ConnectionPoolStatsResponseDto> getConnectionPoolStats() {
+
+        PoolStats stats = cloudinaryConnectionManager.getTotalStats();
+
+        return List.of(ConnectionPoolStatsResponseDto.builder()
+                .pool(RemoteDependencies.CLOUDINARY)
+                .leased(stats.getLeased())
+                .available(stats.getAvailable())
+                .pending(stats.getPending())
+                .max(stats.getMax())
+                .build());
+
+    }
+
+    /**
+     * Collects the current adaptive concurrency limit of every route group.
+     *
+     * @return one entry per route group
+     */
+    public List<ConcurrencyLimitStatsResponseDto> getConcurrencyLimitStats() {
+
+        return adaptiveConcurrencyFilter.getLimits().entrySet().stream()
+                .map(entry -> ConcurrencyLimitStatsResponseDto.builder()
+                        .group(entry.getKey())
+                        .limit(entry.getValue().getLimit())
+                        .inFlight(entry.getValue().getInFlight())
+                        .shedRequests(entry.getValue().getShedRequests())
+                        .build())
+                .toList();
+
+    }
+
+    /**
+     * Reports authentication activity of this node, merged with the exports of other nodes to cover the cluster.
+     *
+     * @param days   the number of days up to today to report, at most the retained days
+     * @param months the number of months up to this one to report, at most the retained months
+     * @param top    the number of most failed usernames to list
+     * @param peers  {@link #exportAuthAnalytics() exports} of the other nodes; empty for this node alone
+     * @return the merged estimates
+     */
+    public AuthAnalyticsResponseDto getAuthAnalytics(int days, int months, int top, List<byte[]> peers) {
+
+        AuthAnalytics.Report report;
+
+        try {
+
+            report = authAnalytics.report(days, months, top, peers);
+
+        } catch (IllegalArgumentException e) {
+            log.error("{}, Rejected analytics export: {}", this.getClass().getSimpleName(), e.getMessage());
+
+            throw AdminError.INVALID_ANALYTICS_EXPORT.exception();
+        }
+
+        return AuthAnalyticsResponseDto.builder()
+                .days(report.days().stream()
+                        .map(day -> new AuthAnalyticsResponseDto.Day(day.date(), day.activeUsers(),
+                                day.logins().get(AuthAnalytics.Provider.PASSWORD), day.logins().get(AuthAnalytics.Provider.GOOGLE)))
+                        .toList())
+                .activeUsers(report.activeUsers())
+                .months(report.months().stream()
+                        .map(month -> new AuthAnalyticsResponseDto.Month(month.month(), month.activeUsers()))
+                        .toList())
+                .activeUsersError(report.activeUsersError())
+                .failingUsernames(report.failingUsernames().stream()
+                        .map(entry -> new AuthAnalyticsResponseDto.FailingUsername(entry.key(), entry.estimate()))
+                        .toList())
+                .failures(report.failures())
+                .failuresOverestimate(report.failuresOverestimate())
+                .nodes(report.nodes())
+                .build();
+
+    }
+
+    /**
+     * Exports this node's authentication analytics sketches for {@link #getAuthAnalytics} on another node.
+     */
+    public byte[] exportAuthAnalytics() {
+
+        return authAnalytics.export();
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.white.backend.authentication.config;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.service.JwtService;
+import com.white.backend.authentication.service.UserLookupService;
+import com.white.backend.shared.enums.Role;
+import com.white.backend.shared.warmup.WarmUpTask;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Warm-up tasks for the authentication hot paths, run before the application reports ready.
+ * Their calls are recorded by the {@code auth.jwt} and {@code auth.password} timers like any other.
+ */
+@Configuration
+public class AuthWarmUpConfig {
+
+    private static final String USERNAME = "warm-up";
+
+    private static final String PASSWORD = "warm-up-password";
+
+    /**
+     * Mints and verifies an access and a refresh token for a synthetic user, and converts the access token into an
+     * authentication the way every authenticated request does.
+     */
+    @Bean
+    WarmUpTask jwtWarmUp(JwtService jwtService, JwtAuthenticationConverter jwtAuthenticationConverter) {
+
+        UserAccountDto user = UserAccountDto.builder()
+                .id(USERNAME)
+                .username(USERNAME)
+                .email(USERNAME + "@localhost")
+                .name(USERNAME)
+                .role(Role.USER)
+                .build();
+
+        return () -> {
+
+            String accessToken = jwtService.generateToken(user, 1, JwtService.TokenType.ACCESS_TOKEN);
+
+            String refreshToken = jwtService.generateToken(user, 7, JwtService.TokenType.REFRESH_TOKEN);
+
+            jwtAuthenticationConverter.convert(jwtService.decodeJwt(accessToken, MacAlgorithm.HS256));
+
+            jwtService.decodeJwt(refreshToken, MacAlgorithm.HS512);
+
+        };
+
+    }
+
+    /**
+     * Checks a password against a BCrypt hash. The hash is computed on the first run, so start-up only pays for it
+     * when the warm-up is enabled.
+     */
+    @Bean
+    WarmUpTask passwordWarmUp(PasswordEncoder passwordEncoder) {
+
+        SingletonSupplier<String> encoded = SingletonSupplier.of(() -> passwordEncoder.encode(PASSWORD));
+
+        return () -> passwordEncoder.matches(PASSWORD, encoded.obtain());
+
+    }
+
+    /**
+     * Looks up a username that does not exist, which plans and runs the login query without loading a user.
+     */
+    @Bean
+    WarmUpTask userLookupWarmUp(UserLookupService userLookupService) {
+
+        return () -> userLookupService.findByUsername(USERNAME);
+
+    }
+
+}
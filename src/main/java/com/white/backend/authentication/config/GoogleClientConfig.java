@@ -0,0 +1,43 @@
+package com.white.backend.authentication.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class GoogleClientConfig {
+
+    @Value("${app.google.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${app.google.read-timeout}")
+    private Duration readTimeout;
+
+    /**
+     * Shared client for the Google token and user info endpoints. It is backed by the JDK {@link HttpClient},
+     * which keeps connections alive across calls and blocks without pinning when called from a virtual thread.
+     */
+    @Bean
+    RestTemplate googleRestTemplate(RestTemplateBuilder restTemplateBuilder) {
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+
+        requestFactory.setReadTimeout(readTimeout);
+
+        return restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .build();
+
+    }
+
+}
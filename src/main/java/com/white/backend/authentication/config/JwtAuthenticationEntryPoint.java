@@ -1,33 +1,28 @@
 package com.white.backend.authentication.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.white.backend.shared.exception.ErrorResponse;
+import com.white.backend.authentication.error.AuthError;
+import com.white.backend.shared.exception.ErrorBodies;
+import com.white.backend.shared.metrics.ErrorMetrics;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 
 import java.io.IOException;
 
+@RequiredArgsConstructor
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private final ErrorMetrics errorMetrics;
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
             throws IOException {
 
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized");
-
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        errorMetrics.record(AuthError.UNAUTHORIZED);
 
-        response.flushBuffer();
+        ErrorBodies.write(response, AuthError.UNAUTHORIZED);
 
     }
 
@@ -1,6 +1,12 @@
 package com.white.backend.authentication.config;
 
+import com.white.backend.shared.metrics.ErrorMetrics;
+import com.white.backend.shared.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -13,6 +19,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -22,6 +29,10 @@ public class SecurityConfig {
 
     private final JwtDecoder jwtDecoder;
 
+    private final RateLimitFilter rateLimitFilter;
+
+    private final ErrorMetrics errorMetrics;
+
     @Bean
     WebSecurityCustomizer webSecurityCustomizer() {
 
@@ -41,13 +52,25 @@ public class SecurityConfig {
                                 "/api/v1/auth/login/oauth2/callback"
                         ).permitAll()
 
+                        // Probes and the Prometheus scrape, served on the management port only
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+
+                        .requestMatchers(
+                                "/api/v1/admin/**",
+                                "/api/v1/file/image/import",
+                                "/api/v1/user/import"
+                        ).hasRole("ADMIN")
+
                         .anyRequest().authenticated());
 
         http.oauth2ResourceServer(oauth2 ->
                 oauth2.jwt(jwtConfigurer ->
-                        jwtConfigurer.decoder(jwtDecoder).jwtAuthenticationConverter(jwtAuthenticationConverter())).authenticationEntryPoint(new JwtAuthenticationEntryPoint())
+                        jwtConfigurer.decoder(jwtDecoder).jwtAuthenticationConverter(jwtAuthenticationConverter())).authenticationEntryPoint(new JwtAuthenticationEntryPoint(errorMetrics))
         );
 
+        // Rate limits apply once the bearer token is resolved, so authenticated requests are also limited per user
+        http.addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class);
+
         http.csrf(AbstractHttpConfigurer::disable);
 
         http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -74,9 +97,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
 
-        return new BCryptPasswordEncoder(10);
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(10), meterRegistry);
 
     }
 
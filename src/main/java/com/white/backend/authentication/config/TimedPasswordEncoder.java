@@ -0,0 +1,56 @@
+package com.white.backend.authentication.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times every hash and every password check of the wrapped encoder, as {@code auth.password}.
+ * BCrypt is deliberately slow, so these timers show how much of a login's latency is the hash itself.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+
+        this.delegate = delegate;
+
+        this.encodeTimer = Timer.builder("auth.password")
+                .description("Password hashing and checks")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+
+        this.matchTimer = Timer.builder("auth.password")
+                .description("Password hashing and checks")
+                .tag("operation", "match")
+                .register(meterRegistry);
+
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+
+        return Boolean.TRUE.equals(matchTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+
+        return delegate.upgradeEncoding(encodedPassword);
+
+    }
+
+}
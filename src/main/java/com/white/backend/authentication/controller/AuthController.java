@@ -4,16 +4,20 @@ import com.white.backend.authentication.dto.request.UserLoginRequestDto;
 import com.white.backend.authentication.dto.response.TokenResponseDto;
 import com.white.backend.authentication.service.AuthService;
 import com.white.backend.authentication.service.GoogleOauth2Service;
+import com.white.backend.shared.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -24,16 +28,25 @@ public class AuthController {
 
     private final GoogleOauth2Service googleOauth2Service;
 
+    private final IdempotencyService idempotencyService;
+
     @PostMapping("/login")
     @Operation(
             summary = "User Login Endpoint",
             description = "Verifies the user's credentials (username and password). If valid, returns an " +
                     "access token and a refresh token for the authenticated session. The access token " +
                     "is used to authorize further requests, while the refresh token is used to obtain a new " +
-                    "access token when the current one expires.")
-    public TokenResponseDto login(@RequestBody UserLoginRequestDto userLoginRequestDto) {
+                    "access token when the current one expires. Retries carrying the same Idempotency-Key " +
+                    "header and credentials get the first response without checking the password again.")
+    public TokenResponseDto login(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                  @RequestBody UserLoginRequestDto userLoginRequestDto) {
+
+        String fingerprint = idempotencyKey == null ? null : idempotencyService.fingerprint(
+                String.valueOf(userLoginRequestDto.username()).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(userLoginRequestDto.password()).getBytes(StandardCharsets.UTF_8));
 
-        return authService.authenticated(userLoginRequestDto);
+        return idempotencyService.execute("login", String.valueOf(userLoginRequestDto.username()), idempotencyKey, fingerprint,
+                () -> authService.authenticated(userLoginRequestDto));
 
     }
 
@@ -0,0 +1,58 @@
+package com.white.backend.authentication.dto;
+
+import com.white.backend.authentication.entity.User;
+import com.white.backend.shared.enums.Role;
+import lombok.Builder;
+
+import java.io.Serializable;
+
+/**
+ * The columns of a user needed to check a login and sign its tokens.
+ * <p>
+ * Loaded as a projection rather than as a managed {@link User}, so one lookup can be handed to every request
+ * thread waiting on it without sharing a mutable entity between them.
+ */
+@Builder
+public record UserAccountDto(
+
+        String id,
+
+        String username,
+
+        String password,
+
+        String email,
+
+        String name,
+
+        String avatar,
+
+        Role role
+
+) implements Serializable {
+
+    public static UserAccountDto from(User user) {
+
+        return UserAccountDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .email(user.getEmail())
+                .name(user.getName())
+                .avatar(user.getAvatar())
+                .role(user.getRole())
+                .build();
+
+    }
+
+    /**
+     * Leaves the password hash out, so logging an account never writes it.
+     */
+    @Override
+    public String toString() {
+
+        return "UserAccountDto[id=" + id + ", username=" + username + ", role=" + role + "]";
+
+    }
+
+}
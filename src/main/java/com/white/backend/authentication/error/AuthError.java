@@ -9,7 +9,9 @@ public enum AuthError implements Error {
 
     INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid token"),
 
-    UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "Unauthorized");
+    UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "Unauthorized"),
+
+    OAUTH2_PROVIDER_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Google sign-in is temporarily unavailable");
 
     AuthError(HttpStatus code, String message) {
 
@@ -1,14 +1,49 @@
 package com.white.backend.authentication.repository;
 
+import com.white.backend.authentication.dto.UserAccountDto;
 import com.white.backend.authentication.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String> {
 
-    Optional<User> findByUsername(String username);
+    /**
+     * Runs in its own read-only transaction, so callers can check the password and sign tokens without holding a
+     * connection. Returns an immutable projection instead of a managed entity.
+     */
+    @Transactional(readOnly = true)
+    Optional<UserAccountDto> findAccountByUsername(String username);
 
     boolean existsByUsername(String username);
 
-}
\ No newline at end of file
+    /**
+     * Inserts a user in a single statement unless a row with the same username already exists.
+     * <p>
+     * Unlike a find-then-save, the existence check and the insert are evaluated by the database together,
+     * and the unique index on {@code username} rejects whatever a concurrent writer could still slip in.
+     *
+     * @return the number of inserted rows, {@code 0} when the username was already taken.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            merge into users u
+            using (select cast(:username as varchar(255)) as username) s
+            on u.username = s.username
+            when not matched then
+                insert (id, created_at, username, email, name, avatar, role)
+                values (:id, current_timestamp, :username, :email, :name, :avatar, :role)
+            """)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("username") String username,
+                       @Param("email") String email,
+                       @Param("name") String name,
+                       @Param("avatar") String avatar,
+                       @Param("role") String role);
+
+}
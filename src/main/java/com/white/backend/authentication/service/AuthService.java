@@ -1,10 +1,14 @@
 package com.white.backend.authentication.service;
 
+import com.white.backend.authentication.dto.UserAccountDto;
 import com.white.backend.authentication.dto.request.UserLoginRequestDto;
 import com.white.backend.authentication.dto.response.TokenResponseDto;
 import com.white.backend.authentication.error.AuthError;
-import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.audit.AuditEventType;
+import com.white.backend.shared.audit.AuditLog;
 import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.logging.Redacted;
+import com.white.backend.shared.profiling.PasswordCheckEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,7 +18,7 @@ import org.springframework.stereotype.Service;
  * AuthService handles user authentication processes, including verifying login credentials,
  * generating access and refresh tokens, and refreshing access tokens when necessary.
  * <p>
- * This service relies on the {@link UserRepository} to retrieve user data, the {@link PasswordEncoder}
+ * This service relies on the {@link UserLookupService} to retrieve user data, the {@link PasswordEncoder}
  * to verify passwords, and the {@link JwtService} to manage token generation and validation.
  * <p>
  * Key operations include:
@@ -22,25 +26,31 @@ import org.springframework.stereotype.Service;
  *   <li>Authenticating a user with username and password, returning an access and refresh token.</li>
  *   <li>Refreshing access tokens based on a valid refresh token.</li>
  * </ul>
- * Each method logs important steps and outcomes to assist with debugging and monitoring.
+ * Each method logs important steps and outcomes to assist with debugging and monitoring, and every login attempt
+ * is recorded in the {@link AuditLog}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
     private final PasswordEncoder passwordEncoder;
 
     private final JwtService jwtService;
 
+    private final AuditLog auditLog;
+
     /**
      * Authenticates a user based on provided login details and generates access and refresh tokens upon successful verification.
      * <p>
      * This method checks the username in the database, verifies the password, and then uses the {@link JwtService} to create
      * a new access token (valid for 1 day) and a refresh token (valid for 30 days). If authentication fails, a custom
      * {@link HttpResponseException} with error code UNAUTHORIZED is thrown.
+     * <p>
+     * Only the user lookup runs in a transaction, so no pooled connection is held while the password hash is
+     * checked and the tokens are signed.
      *
      * @param userLoginRequestDto DTO containing the user's login credentials, specifically username and password.
      * @return {@link TokenResponseDto} object with an access token (valid for 1 day) and a refresh token (valid for 30 days).
@@ -50,17 +60,21 @@ public class AuthService {
 
         try {
 
-            log.info("{}, Authenticating user: {}", this.getClass().getSimpleName(), userLoginRequestDto.username());
+            log.atInfo().addKeyValue("username", userLoginRequestDto.username()).log("{}, Authenticating user", this.getClass().getSimpleName());
 
             // Retrieve user by username, or throw if not found
-            var user = userRepository.findByUsername(userLoginRequestDto.username())
-                    .orElseThrow(AuthError.INVALID_USERNAME_OR_PASSWORD::exception);
+            UserAccountDto user = userLookupService.findByUsername(userLoginRequestDto.username())
+                    .orElseThrow(AuthError.UNAUTHORIZED::exception);
 
             // Verify password matches stored hash
-            boolean authenticated = passwordEncoder.matches(userLoginRequestDto.password(), user.getPassword());
+            PasswordCheckEvent passwordCheck = PasswordCheckEvent.start("bcrypt");
+
+            boolean authenticated = passwordEncoder.matches(userLoginRequestDto.password(), user.password());
+
+            passwordCheck.finish(authenticated ? "match" : "mismatch");
 
             if (!authenticated) {
-                throw AuthError.INVALID_USERNAME_OR_PASSWORD.exception();
+                throw AuthError.UNAUTHORIZED.exception();
             }
 
             // Generate tokens upon successful authentication
@@ -68,7 +82,9 @@ public class AuthService {
 
             String refreshToken = jwtService.generateToken(user, 30, JwtService.TokenType.REFRESH_TOKEN);
 
-            log.info("{}, User authenticated: {}", this.getClass().getSimpleName(), userLoginRequestDto.username());
+            log.atInfo().addKeyValue("username", userLoginRequestDto.username()).log("{}, User authenticated", this.getClass().getSimpleName());
+
+            auditLog.record(AuditEventType.LOGIN, true, userLoginRequestDto.username(), null);
 
             return TokenResponseDto.builder()
                     .accessToken(token)
@@ -77,9 +93,16 @@ public class AuthService {
 
         } catch (Exception e) {
 
-            log.error("{}, Error authenticating user: {}", this.getClass().getSimpleName(), userLoginRequestDto.username());
+            log.atError().addKeyValue("username", userLoginRequestDto.username()).log("{}, Error authenticating user", this.getClass().getSimpleName());
+
+            HttpResponseException rejection = e instanceof HttpResponseException httpResponseException ? httpResponseException : null;
+
+            auditLog.record(AuditEventType.LOGIN, false, userLoginRequestDto.username(),
+                    rejection != null ? rejection.getError().toString() : e.getClass().getSimpleName());
+
+            // Unknown users and wrong passwords are already UNAUTHORIZED, so the common rejection is not wrapped again
+            throw rejection != null && rejection.getError() == AuthError.UNAUTHORIZED ? rejection : AuthError.UNAUTHORIZED.exception();
 
-            throw AuthError.UNAUTHORIZED.exception();
         }
 
     }
@@ -99,18 +122,19 @@ public class AuthService {
 
         try {
 
-            log.info("{}, Refreshing token: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atInfo().addKeyValue("refreshToken", Redacted.of(refreshToken)).log("{}, Refreshing token", this.getClass().getSimpleName());
 
             // Refresh token generation through JwtService
             TokenResponseDto tokenResponseDto = jwtService.refreshToken(refreshToken);
 
-            log.info("{}, Token refreshed: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atInfo().addKeyValue("refreshToken", Redacted.of(refreshToken)).log("{}, Token refreshed", this.getClass().getSimpleName());
 
             return tokenResponseDto;
 
         } catch (Exception e) {
 
-            log.error("{}, Error refreshing token: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atError().addKeyValue("refreshToken", Redacted.of(refreshToken)).addKeyValue("cause", e.getClass().getSimpleName())
+                    .log("{}, Error refreshing token", this.getClass().getSimpleName());
 
             throw AuthError.UNAUTHORIZED.exception();
 
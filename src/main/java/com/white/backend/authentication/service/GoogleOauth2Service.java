@@ -1,5 +1,6 @@
 package com.white.backend.authentication.service;
 
+import com.white.backend.authentication.dto.UserAccountDto;
 import com.white.backend.authentication.dto.request.GoogleTokenRequestDto;
 import com.white.backend.authentication.dto.response.GoogleTokenResponseDto;
 import com.white.backend.authentication.dto.response.GoogleUserInfoDto;
@@ -7,10 +8,17 @@ import com.white.backend.authentication.dto.response.TokenResponseDto;
 import com.white.backend.authentication.entity.User;
 import com.white.backend.authentication.error.AuthError;
 import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.audit.AuditEventType;
+import com.white.backend.shared.audit.AuditLog;
 import com.white.backend.shared.enums.Role;
+import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.logging.Redacted;
+import com.white.backend.shared.resilience.RemoteCallGuard;
+import com.white.backend.shared.resilience.RemoteDependencies;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -19,6 +27,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * The GoogleOauth2Service class manages Google OAuth2 authentication, including:
@@ -54,6 +63,12 @@ public class GoogleOauth2Service {
 
     private final UserRepository userRepository;
 
+    private final RestTemplate googleRestTemplate;
+
+    private final RemoteCallGuard remoteCallGuard;
+
+    private final AuditLog auditLog;
+
     /**
      * Generates an internal JWT access and refresh token by first exchanging the authorization code
      * with Google for a Google access token, then retrieving user information from Google using that access token.
@@ -69,9 +84,7 @@ public class GoogleOauth2Service {
 
         try {
 
-            log.info("{}, Creating token from Google code: {}", this.getClass().getSimpleName(), code);
-
-            RestTemplate restTemplate = new RestTemplate();
+            log.atInfo().addKeyValue("code", Redacted.of(code)).log("{}, Creating token from Google code", this.getClass().getSimpleName());
 
             // Prepare request to exchange authorization code for Google tokens
             GoogleTokenRequestDto googleTokenRequest = GoogleTokenRequestDto.builder()
@@ -85,8 +98,9 @@ public class GoogleOauth2Service {
             HttpEntity<GoogleTokenRequestDto> requestEntity = new HttpEntity<>(googleTokenRequest, new HttpHeaders());
 
             // Send request to Google's token endpoint
-            ResponseEntity<GoogleTokenResponseDto> googleTokenResponse = restTemplate.exchange(
-                    tokenEndpoint, HttpMethod.POST, requestEntity, GoogleTokenResponseDto.class);
+            ResponseEntity<GoogleTokenResponseDto> googleTokenResponse = remoteCallGuard.execute(
+                    RemoteDependencies.GOOGLE, AuthError.OAUTH2_PROVIDER_UNAVAILABLE, () -> googleRestTemplate.exchange(
+                            tokenEndpoint, HttpMethod.POST, requestEntity, GoogleTokenResponseDto.class));
 
             // Check if Google responded successfully and access token is present
             if (googleTokenResponse.getStatusCode().is2xxSuccessful()
@@ -99,8 +113,9 @@ public class GoogleOauth2Service {
 
                 HttpEntity<Void> userInfoRequest = new HttpEntity<>(userInfoHeaders);
 
-                ResponseEntity<GoogleUserInfoDto> userResponse = restTemplate.exchange(
-                        userInfoEndpoint, HttpMethod.GET, userInfoRequest, GoogleUserInfoDto.class);
+                ResponseEntity<GoogleUserInfoDto> userResponse = remoteCallGuard.execute(
+                        RemoteDependencies.GOOGLE, AuthError.OAUTH2_PROVIDER_UNAVAILABLE, () -> googleRestTemplate.exchange(
+                                userInfoEndpoint, HttpMethod.GET, userInfoRequest, GoogleUserInfoDto.class));
 
                 if (userResponse.getStatusCode().is2xxSuccessful()) {
                     GoogleUserInfoDto userBody = Objects.requireNonNull(userResponse.getBody());
@@ -108,20 +123,21 @@ public class GoogleOauth2Service {
                     // Create a new user entity from Google user information
                     User user = createUser(userBody);
 
-                    userRepository.findByUsername(user.getUsername())
-                            .ifPresentOrElse(
-                                    existingUser -> user.setId(existingUser.getId()),
-                                    () -> userRepository.save(user));
+                    saveIfAbsent(user);
 
                     // Generate JWT tokens for the authenticated user
+                    UserAccountDto account = UserAccountDto.from(user);
+
                     String accessToken = jwtService.generateToken(
-                            user, 1, JwtService.TokenType.ACCESS_TOKEN);
+                            account, 1, JwtService.TokenType.ACCESS_TOKEN);
 
                     String refreshToken = jwtService.generateToken(
-                            user, 30, JwtService.TokenType.REFRESH_TOKEN);
+                            account, 30, JwtService.TokenType.REFRESH_TOKEN);
 
                     log.info("{}, Token created for Google user: {}", this.getClass().getSimpleName(), userBody.name());
 
+                    auditLog.record(AuditEventType.OAUTH2_CALLBACK, true, user.getUsername(), "google");
+
                     return TokenResponseDto.builder()
                             .accessToken(accessToken)
                             .refreshToken(refreshToken)
@@ -137,16 +153,54 @@ public class GoogleOauth2Service {
                 throw AuthError.UNAUTHORIZED.exception();
 
             }
+        } catch (HttpResponseException e) {
+
+            log.error("{}, Error creating token: {}", this.getClass().getSimpleName(), e.getMessage());
+
+            auditLog.record(AuditEventType.OAUTH2_CALLBACK, false, null, e.getError().toString());
+
+            throw e;
+
         } catch (Exception e) {
 
             log.error("{}, Error creating token: {}", this.getClass().getSimpleName(), e.getMessage());
 
+            auditLog.record(AuditEventType.OAUTH2_CALLBACK, false, null, e.getClass().getSimpleName());
+
             throw AuthError.UNAUTHORIZED.exception();
 
         }
 
     }
 
+    /**
+     * Stores a Google user on first login with a single atomic upsert keyed by username.
+     * <p>
+     * Two callbacks for the same account racing each other can both pass the {@code when not matched} branch;
+     * the unique index on {@code username} then rejects the second insert, which simply means the user exists.
+     *
+     * @param user the user built from Google user information.
+     */
+    private void saveIfAbsent(User user) {
+
+        try {
+
+            userRepository.insertIfAbsent(
+                    UUID.randomUUID().toString(),
+                    user.getUsername(),
+                    user.getEmail(),
+                    user.getName(),
+                    user.getAvatar(),
+                    user.getRole().name());
+
+        } catch (DataIntegrityViolationException e) {
+
+            log.debug("{}, Google user already stored concurrently: {}", this.getClass().getSimpleName(), user.getUsername());
+
+        }
+
+    }
+
     /**
      * Creates a {@link User} entity from Google user information.
      *
@@ -7,11 +7,18 @@ import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.Payload;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.white.backend.authentication.dto.UserAccountDto;
 import com.white.backend.authentication.dto.response.TokenResponseDto;
-import com.white.backend.authentication.entity.User;
 import com.white.backend.authentication.error.AuthError;
-import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.audit.AuditEventType;
+import com.white.backend.shared.audit.AuditLog;
+import com.white.backend.shared.concurrency.SingleFlight;
 import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.logging.Redacted;
+import com.white.backend.shared.profiling.TokenEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,9 +28,13 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.StringJoiner;
 import java.util.UUID;
 
@@ -31,30 +42,60 @@ import java.util.UUID;
  * JwtService for generating and handling JWT tokens.
  * Provides functionality for generating access and refresh tokens, verifying tokens,
  * and refreshing tokens based on user information and security requirements.
- * This service relies on the {@link UserRepository} to retrieve user data
+ * This service relies on the {@link UserLookupService} to retrieve user data
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class JwtService {
+public class JwtService implements MeterBinder {
 
     @Value("${jwt.signer-key}")
     private String signerKey;
 
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AuditLog auditLog;
+
+    // Concurrent refreshes of the same token, keyed by its digest, share one decode, lookup and signature
+    private final SingleFlight<String, TokenResponseDto> refreshes = new SingleFlight<>();
 
     /**
      * Generates a JWT for a given user. Supports creation of either an access or refresh token,
      * each with different expiration policies.
      *
-     * @param user          The {@link User} entity for whom the token is generated.
+     * @param user          The account for whom the token is generated.
      * @param expirationDay The duration (in days) until the token expires.
      * @param tokenType     The type of token to create, either ACCESS_TOKEN or REFRESH_TOKEN.
      *                      Access tokens are signed with HS256, and refresh tokens with HS512.
      * @return A String representation of the generated JWT.
      * @throws HttpResponseException Exception if there is an error during token creation.
      */
-    public String generateToken(User user, int expirationDay, TokenType tokenType) {
+    public String generateToken(UserAccountDto user, int expirationDay, TokenType tokenType) {
+
+        String algorithm = tokenType == TokenType.ACCESS_TOKEN ? "HS256" : "HS512";
+
+        TokenEvent event = TokenEvent.start("mint", algorithm, tokenType.name());
+
+        String token = null;
+
+        try {
+
+            token = meterRegistry.timer("auth.jwt", "operation", "generate", "type", tokenType.name())
+                    .record(() -> signToken(user, expirationDay, tokenType));
+
+            return token;
+
+        } finally {
+
+            event.finish(token == null ? 0 : token.length(), token == null ? "failure" : "success");
+
+        }
+
+    }
+
+    private String signToken(UserAccountDto user, int expirationDay, TokenType tokenType) {
 
         Date now = new Date();
 
@@ -77,16 +118,16 @@ public class JwtService {
         }
 
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getUsername())
+                .subject(user.username())
                 .issuer("dev-white2077")
                 .issueTime(now)
-                .claim("avatar", user.getAvatar())
-                .claim("name", user.getName())
-                .claim("email", user.getEmail())
+                .claim("avatar", user.avatar())
+                .claim("name", user.name())
+                .claim("email", user.email())
                 .expirationTime(expirationTime)
                 .jwtID(UUID.randomUUID().toString())
-                .subject(user.getUsername())
-                .audience(user.getUsername())
+                .subject(user.username())
+                .audience(user.username())
                 .claim("scope", buildScope(user))
                 .build();
 
@@ -112,6 +153,9 @@ public class JwtService {
     /**
      * Refreshes an access token using a valid refresh token. Extracts user information
      * from the provided refresh token and, if valid, issues a new access token.
+     * <p>
+     * Concurrent refreshes with the same token, e.g. from several tabs of one client, are computed once and
+     * all receive the same new access token, and are audited as one refresh.
      *
      * @param refreshToken The refresh token used for renewing access.
      * @return {@link TokenResponseDto} containing the new access token and the original refresh token.
@@ -119,23 +163,38 @@ public class JwtService {
      */
     public TokenResponseDto refreshToken(String refreshToken) {
 
+        return refreshes.execute(digest(refreshToken), () -> issueRefreshedToken(refreshToken));
+
+    }
+
+    private TokenResponseDto issueRefreshedToken(String refreshToken) {
+
+        String username = null;
+
         try {
 
-            log.info("{}, refresh token: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atInfo().addKeyValue("refreshToken", Redacted.of(refreshToken)).log("{}, refresh token", this.getClass().getSimpleName());
 
-            String username = decodeJwt(refreshToken, MacAlgorithm.HS512).getSubject();
+            username = decodeJwt(refreshToken, MacAlgorithm.HS512).getSubject();
 
-            User user = userRepository.findByUsername(username).orElseThrow((AuthError.INVALID_USERNAME_OR_PASSWORD::exception));
+            UserAccountDto user = userLookupService.findByUsername(username).orElseThrow((AuthError.INVALID_USERNAME_OR_PASSWORD::exception));
 
             TokenResponseDto tokenResponseDto = new TokenResponseDto(generateToken(user, 1, TokenType.ACCESS_TOKEN), refreshToken);
 
-            log.info("{}, token refreshed: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atInfo().addKeyValue("refreshToken", Redacted.of(refreshToken)).addKeyValue("username", username)
+                    .log("{}, token refreshed", this.getClass().getSimpleName());
+
+            auditLog.record(AuditEventType.TOKEN_REFRESH, true, username, null);
 
             return tokenResponseDto;
 
         } catch (Exception e) {
 
-            log.error("{}, Error while refresh token: {}", this.getClass().getSimpleName(), refreshToken);
+            log.atError().addKeyValue("refreshToken", Redacted.of(refreshToken)).log("{}, Error while refresh token", this.getClass().getSimpleName());
+
+            auditLog.record(AuditEventType.TOKEN_REFRESH, false, username, e instanceof HttpResponseException httpResponseException
+                    ? httpResponseException.getError().toString()
+                    : e.getClass().getSimpleName());
 
             throw e;
 
@@ -152,6 +211,31 @@ public class JwtService {
      */
     public Jwt decodeJwt(String token, MacAlgorithm algorithm) {
 
+        String tokenType = algorithm == MacAlgorithm.HS256 ? TokenType.ACCESS_TOKEN.name() : TokenType.REFRESH_TOKEN.name();
+
+        TokenEvent event = TokenEvent.start("verify", algorithm.getName(), tokenType);
+
+        boolean verified = false;
+
+        try {
+
+            Jwt jwt = meterRegistry.timer("auth.jwt", "operation", "decode", "type", algorithm.getName())
+                    .record(() -> decode(token, algorithm));
+
+            verified = true;
+
+            return jwt;
+
+        } finally {
+
+            event.finish(token == null ? 0 : token.length(), verified ? "success" : "failure");
+
+        }
+
+    }
+
+    private Jwt decode(String token, MacAlgorithm algorithm) {
+
         SecretKeySpec secretKeySpec = new SecretKeySpec(signerKey.getBytes(), algorithm.getName());
 
         return NimbusJwtDecoder
@@ -162,19 +246,46 @@ public class JwtService {
 
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        FunctionCounter.builder("app.single-flight.coalesced", refreshes, SingleFlight::getCoalescedCalls)
+                .description("Calls answered by a concurrent identical call")
+                .tag("operation", "token-refresh")
+                .register(registry);
+
+    }
+
+    /**
+     * Digests a token so in-flight refreshes are not keyed by the bearer credential itself.
+     */
+    private static String digest(String token) {
+
+        try {
+
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+
+        } catch (NoSuchAlgorithmException e) {
+
+            throw new IllegalStateException(e);
+
+        }
+
+    }
+
     /**
      * Constructs the scope (roles or permissions) for the JWT token based on the user's role.
      *
      * @param user the user.
      * @return a space-separated string representing the user's scope.
      */
-    private String buildScope(User user) {
+    private String buildScope(UserAccountDto user) {
 
         StringJoiner stringJoiner = new StringJoiner(" ");
 
-        if (user.getRole() != null) {
+        if (user.role() != null) {
 
-            stringJoiner.add(user.getRole().name());
+            stringJoiner.add(user.role().name());
 
         }
 
@@ -0,0 +1,60 @@
+package com.white.backend.authentication.service;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.concurrency.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Looks users up by username, collapsing concurrent lookups of the same username into one query.
+ * <p>
+ * A client opening many tabs, or retrying a login, sends a burst of requests for one user at once. Each of them
+ * would otherwise run the same query. Only the thread running the query opens a transaction; the others wait
+ * without holding a connection and share its immutable {@link UserAccountDto}.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserLookupService implements MeterBinder {
+
+    private final UserRepository userRepository;
+
+    private final SingleFlight<String, Optional<UserAccountDto>> lookups = new SingleFlight<>();
+
+    /**
+     * Finds a user by username.
+     *
+     * @param username the username
+     * @return the user's account, or empty if no user has this username
+     */
+    public Optional<UserAccountDto> findByUsername(String username) {
+
+        return lookups.execute(username, () -> userRepository.findAccountByUsername(username));
+
+    }
+
+    /**
+     * Returns how many lookups were answered by a concurrent lookup of the same username since startup.
+     */
+    public long getCoalescedLookups() {
+
+        return lookups.getCoalescedCalls();
+
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        FunctionCounter.builder("app.single-flight.coalesced", lookups, SingleFlight::getCoalescedCalls)
+                .description("Calls answered by a concurrent identical call")
+                .tag("operation", "user-lookup")
+                .register(registry);
+
+    }
+
+}
@@ -1,13 +1,34 @@
 package com.white.backend.file.image.config;
 
 import com.cloudinary.Cloudinary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds the Cloudinary client on top of one shared, bounded HTTP connection pool.
+ * <p>
+ * The SDK creates a new Apache HTTP client for every {@code cloudinary.uploader()} call. Without a shared
+ * connection manager each of those clients opens its own connections, so nothing is kept alive between uploads
+ * and every upload pays a fresh TCP and TLS handshake. Handing the SDK a single pooled manager makes all of
+ * them borrow from the same keep-alive pool, sized by {@link CloudinaryHttpProperties}.
+ */
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(CloudinaryHttpProperties.class)
 public class CloudinaryConfig {
 
     @Value("${cloud.cloudinary.cloud-name}")
@@ -16,18 +37,95 @@ public class CloudinaryConfig {
     private String apiKey;
     @Value("${cloud.cloudinary.api-secret}")
     private String apiSecret;
+    @Value("${cloud.cloudinary.upload-prefix}")
+    private String uploadPrefix;
+
+    @Bean(destroyMethod = "shutdown")
+    PoolingHttpClientConnectionManager cloudinaryConnectionManager(CloudinaryHttpProperties properties) {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+        connectionManager.setMaxTotal(properties.maxConnections());
+
+        connectionManager.setDefaultMaxPerRoute(properties.maxConnectionsPerRoute());
+
+        // Re-check connections that sat idle for a while, the server may have closed them in the meantime
+        connectionManager.setValidateAfterInactivity((int) properties.validateAfterInactivity().toMillis());
+
+        return connectionManager;
+
+    }
+
+    /**
+     * Periodically closes expired connections and connections idle for longer than the configured idle timeout,
+     * so the pool does not hand out sockets the server has already dropped.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ScheduledExecutorService cloudinaryConnectionEvictor(PoolingHttpClientConnectionManager cloudinaryConnectionManager,
+                                                         CloudinaryHttpProperties properties) {
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+            Thread thread = new Thread(runnable, "cloudinary-connection-evictor");
+
+            thread.setDaemon(true);
+
+            return thread;
+
+        });
+
+        long period = Math.max(properties.idleTimeout().toMillis() / 2, 1000);
+
+        evictor.scheduleWithFixedDelay(() -> {
+
+            cloudinaryConnectionManager.closeExpiredConnections();
+
+            cloudinaryConnectionManager.closeIdleConnections(properties.idleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        }, period, period, TimeUnit.MILLISECONDS);
+
+        return evictor;
+
+    }
 
     @Bean
-    Cloudinary cloudinary() {
+    Cloudinary cloudinary(PoolingHttpClientConnectionManager cloudinaryConnectionManager) {
 
-        Map<String, String> config = Map.of(
+        Map<String, Object> config = new HashMap<>(Map.of(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
-                "api_secret", apiSecret
-        );
+                "api_secret", apiSecret,
+                // Read by the SDK's HTTP strategy and shared by every client it builds
+                "properties", Map.of("connectionManager", cloudinaryConnectionManager)
+        ));
+
+        if (!uploadPrefix.isBlank()) {
+
+            config.put("upload_prefix", uploadPrefix);
+
+        }
+
+        log.info("{}, Cloudinary connection pool: max {} connections, {} per route", this.getClass().getSimpleName(),
+                cloudinaryConnectionManager.getMaxTotal(), cloudinaryConnectionManager.getDefaultMaxPerRoute());
 
         return new Cloudinary(config);
 
     }
 
+    @Bean
+    MeterBinder cloudinaryConnectionPoolMetrics(PoolingHttpClientConnectionManager cloudinaryConnectionManager) {
+
+        return registry -> Map.<String, ToIntFunction<PoolStats>>of(
+                "leased", PoolStats::getLeased,
+                "available", PoolStats::getAvailable,
+                "pending", PoolStats::getPending,
+                "max", PoolStats::getMax
+        ).forEach((state, value) -> Gauge.builder("cloudinary.http.pool.connections", cloudinaryConnectionManager,
+                        manager -> value.applyAsInt(manager.getTotalStats()))
+                .description("Connections of the Cloudinary HTTP pool")
+                .tag("state", state)
+                .register(registry));
+
+    }
+
 }
@@ -0,0 +1,46 @@
+package com.white.backend.file.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Connection pool and timeouts of the HTTP client used by the Cloudinary SDK.
+ * <p>
+ * {@code maxConnectionsPerRoute} bounds how many uploads can be in flight against the Cloudinary API host,
+ * so it should be at least the {@code cloudinary} bulkhead's {@code max-concurrent-calls}.
+ */
+@ConfigurationProperties(prefix = "cloud.cloudinary.http")
+public record CloudinaryHttpProperties(
+
+        int maxConnections,
+
+        int maxConnectionsPerRoute,
+
+        Duration idleTimeout,
+
+        Duration validateAfterInactivity,
+
+        Duration connectTimeout,
+
+        Duration socketTimeout,
+
+        Duration connectionRequestTimeout
+
+) {
+
+    /**
+     * Returns the timeouts as Cloudinary per-request options, which the SDK expects in milliseconds.
+     */
+    public Map<String, Object> requestOptions() {
+
+        return Map.of(
+                "connect_timeout", (int) connectTimeout.toMillis(),
+                "timeout", (int) socketTimeout.toMillis(),
+                "connection_request_timeout", (int) connectionRequestTimeout.toMillis()
+        );
+
+    }
+
+}
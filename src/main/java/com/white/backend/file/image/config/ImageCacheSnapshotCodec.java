@@ -0,0 +1,105 @@
+package com.white.backend.file.image.config;
+
+import com.white.backend.file.image.dto.ImageResponseDto;
+import com.white.backend.shared.cache.CacheRegions;
+import com.white.backend.shared.cache.CacheSnapshotCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * Snapshot form of the {@link CacheRegions#IMAGES} region: a presence bitmap for the nullable fields, followed by
+ * the fields that are present, in declaration order. Strings are modified UTF-8, timestamps epoch millis plus the
+ * nanosecond part.
+ */
+@Component
+public class ImageCacheSnapshotCodec implements CacheSnapshotCodec<ImageResponseDto> {
+
+    @Override
+    public String region() {
+
+        return CacheRegions.IMAGES;
+
+    }
+
+    @Override
+    public Class<ImageResponseDto> type() {
+
+        return ImageResponseDto.class;
+
+    }
+
+    @Override
+    public void write(ImageResponseDto image, DataOutput out) throws IOException {
+
+        Object[] fields = {image.publicId(), image.name(), image.url(), image.size(), image.extension(),
+                image.createdAt(), image.updatedAt(), image.deletedAt(), image.isDeleted()};
+
+        int present = 0;
+
+        for (int i = 0; i < fields.length; i++) {
+
+            if (fields[i] != null) {
+                present |= 1 << i;
+            }
+
+        }
+
+        out.writeShort(present);
+
+        for (Object field : fields) {
+
+            if (field instanceof String string) {
+                out.writeUTF(string);
+            } else if (field instanceof Long number) {
+                out.writeLong(number);
+            } else if (field instanceof Timestamp timestamp) {
+                out.writeLong(timestamp.getTime());
+                out.writeInt(timestamp.getNanos());
+            } else if (field instanceof Boolean flag) {
+                out.writeBoolean(flag);
+            }
+
+        }
+
+    }
+
+    @Override
+    public ImageResponseDto read(DataInput in) throws IOException {
+
+        int present = in.readUnsignedShort();
+
+        return ImageResponseDto.builder()
+                .publicId(isPresent(present, 0) ? in.readUTF() : null)
+                .name(isPresent(present, 1) ? in.readUTF() : null)
+                .url(isPresent(present, 2) ? in.readUTF() : null)
+                .size(isPresent(present, 3) ? in.readLong() : null)
+                .extension(isPresent(present, 4) ? in.readUTF() : null)
+                .createdAt(isPresent(present, 5) ? readTimestamp(in) : null)
+                .updatedAt(isPresent(present, 6) ? readTimestamp(in) : null)
+                .deletedAt(isPresent(present, 7) ? readTimestamp(in) : null)
+                .isDeleted(isPresent(present, 8) ? in.readBoolean() : null)
+                .build();
+
+    }
+
+    private static boolean isPresent(int present, int field) {
+
+        return (present & 1 << field) != 0;
+
+    }
+
+    private static Timestamp readTimestamp(DataInput in) throws IOException {
+
+        Timestamp timestamp = new Timestamp(in.readLong());
+
+        timestamp.setNanos(in.readInt());
+
+        return timestamp;
+
+    }
+
+}
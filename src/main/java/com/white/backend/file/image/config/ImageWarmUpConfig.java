@@ -0,0 +1,65 @@
+package com.white.backend.file.image.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.file.image.dto.ImageResponseDto;
+import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.shared.warmup.WarmUpTask;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warm-up tasks for the image listing, run before the application reports ready.
+ */
+@Configuration
+public class ImageWarmUpConfig {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Plans and runs the page query of GET /api/v1/file/image, then writes a full synthetic page with the
+     * application's {@link ObjectMapper}, since the stored page may be empty on a fresh database.
+     */
+    @Bean
+    WarmUpTask imagePageWarmUp(ImageRepository imageRepository, ObjectMapper objectMapper) {
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        List<ImageResponseDto> images = new ArrayList<>(PAGE_SIZE);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+
+            images.add(ImageResponseDto.builder()
+                    .publicId("warm-up-" + i)
+                    .name("warm-up-" + i + ".jpg")
+                    .url("https://res.cloudinary.com/warm-up/image/upload/warm-up-" + i)
+                    .size(250_000L + i)
+                    .extension("jpg")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .isDeleted(false)
+                    .build());
+
+        }
+
+        Page<ImageResponseDto> syntheticPage = new PageImpl<>(images, PageRequest.of(0, PAGE_SIZE), 10_000);
+
+        return () -> {
+
+            Page<ImageResponseDto> storedPage = imageRepository.findAll(PageRequest.of(0, PAGE_SIZE)).map(ImageResponseDto::from);
+
+            objectMapper.writeValueAsBytes(storedPage);
+
+            objectMapper.writeValueAsBytes(syntheticPage);
+
+        };
+
+    }
+
+}
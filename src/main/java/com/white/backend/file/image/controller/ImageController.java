@@ -1,23 +1,36 @@
 package com.white.backend.file.image.controller;
 
+import com.white.backend.file.image.dto.ImageExportFormat;
 import com.white.backend.file.image.dto.ImageResponseDto;
+import com.white.backend.file.image.dto.ImageUploadConfirmRequestDto;
+import com.white.backend.file.image.dto.ImageUploadSignatureResponseDto;
+import com.white.backend.file.image.service.ImageDirectUploadService;
 import com.white.backend.file.image.service.ImageService;
+import com.white.backend.shared.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/v1/file/image")
@@ -27,6 +40,10 @@ public class ImageController {
 
     private final ImageService imageService;
 
+    private final ImageDirectUploadService imageDirectUploadService;
+
+    private final IdempotencyService idempotencyService;
+
     @GetMapping
     @Operation(
             summary = "Retrieve paginated list of images",
@@ -38,13 +55,81 @@ public class ImageController {
 
     }
 
+    @GetMapping("/{publicId}")
+    @Operation(
+            summary = "Retrieve a single image",
+            description = "Returns the metadata of the image with the given public ID. Lookups are cached and " +
+                    "the cached entry is invalidated when the image is deleted.")
+    public ImageResponseDto getImage(@PathVariable("publicId") String publicId) {
+
+        return imageService.getImage(publicId);
+
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export all image metadata",
+            description = "Streams the metadata of every image in a single response, as NDJSON (default) or CSV. " +
+                    "Rows are written as they are read from the database, so the export has no page or size limit.")
+    public void exportImages(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+
+        ImageExportFormat exportFormat = ImageExportFormat.from(format);
+
+        response.setContentType(exportFormat.mediaType.toString());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=images." + exportFormat.extension);
+
+        imageService.exportImages(response.getOutputStream(), exportFormat);
+
+    }
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
             summary = "Upload an image file",
-            description = "Uploads an image file to the cloud storage. Only images with valid formats (e.g., JPG, PNG) are allowed.")
-    public String uploadFile(@RequestPart("image") MultipartFile image) throws IOException {
+            description = "Uploads an image file to the cloud storage. Only images with valid formats (e.g., JPG, PNG) are allowed. " +
+                    "Retries carrying the same Idempotency-Key header and file get the first response instead of a second upload.")
+    public String uploadFile(Authentication authentication,
+                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                             @RequestPart("image") MultipartFile image) throws IOException {
+
+        String fingerprint = idempotencyKey == null ? null : idempotencyService.fingerprint(
+                String.valueOf(image.getOriginalFilename()).getBytes(StandardCharsets.UTF_8), image.getBytes());
+
+        return idempotencyService.execute("image-upload", authentication.getName(), idempotencyKey, fingerprint,
+                () -> imageService.uploadImageFile(image));
+
+    }
+
+    @PostMapping("/upload-signature")
+    @Operation(
+            summary = "Sign a direct upload",
+            description = "Returns short-lived signed parameters for uploading one image straight to cloud storage, " +
+                    "so the file does not pass through this server. Confirm the upload afterwards.")
+    public ImageUploadSignatureResponseDto signUpload(Authentication authentication) {
+
+        return imageDirectUploadService.signUpload(authentication.getName());
+
+    }
+
+    @PostMapping("/upload-confirm")
+    @Operation(
+            summary = "Confirm a direct upload",
+            description = "Takes the cloud storage response of a signed direct upload, verifies its signature and " +
+                    "records the image. Each signed upload can be confirmed once, by the user it was signed for.")
+    public ImageResponseDto confirmUpload(Authentication authentication, @RequestBody ImageUploadConfirmRequestDto request) {
+
+        return imageDirectUploadService.confirmUpload(authentication.getName(), request);
+
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(
+            summary = "Import image metadata",
+            description = "Streams newline-delimited JSON image metadata records into the database using batched inserts. " +
+                    "Intended for migration and backfill jobs; requires the ADMIN role.")
+    public String importImages(InputStream body) {
 
-        return imageService.uploadImageFile(image);
+        return "Images imported " + imageService.importImages(body);
 
     }
 
@@ -0,0 +1,38 @@
+package com.white.backend.file.image.dto;
+
+import com.white.backend.file.image.error.FileError;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * Output formats supported by the image metadata export.
+ */
+public enum ImageExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    CSV("text/csv", "csv");
+
+    ImageExportFormat(String mediaType, String extension) {
+
+        this.mediaType = MediaType.parseMediaType(mediaType);
+
+        this.extension = extension;
+
+    }
+
+    public final MediaType mediaType;
+
+    public final String extension;
+
+    public static ImageExportFormat from(String format) {
+
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(FileError.UNSUPPORTED_EXPORT_FORMAT::exception);
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.white.backend.file.image.dto;
+
+import com.white.backend.file.image.entity.Image;
+
+import java.io.Serializable;
+
+/**
+ * One line of an image metadata import, for {@link com.white.backend.file.image.entity.Image}
+ */
+public record ImageImportRequestDto(
+
+        String publicId,
+
+        String name,
+
+        String url,
+
+        Long size,
+
+        String extension
+
+) implements Serializable {
+
+    public Image toImage() {
+
+        return Image.builder()
+
+                .publicId(publicId)
+
+                .name(name)
+
+                .url(url)
+
+                .size(size)
+
+                .extension(extension)
+
+                .build();
+
+    }
+
+}
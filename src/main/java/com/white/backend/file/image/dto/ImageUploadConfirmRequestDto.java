@@ -0,0 +1,29 @@
+package com.white.backend.file.image.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * Cloudinary's response to a direct upload, forwarded unchanged by the client to confirm it.
+ * Only {@code public_id} and {@code version} are covered by Cloudinary's {@code signature}; {@code format},
+ * {@code bytes} and {@code original_filename} are taken as the client sends them.
+ */
+public record ImageUploadConfirmRequestDto(
+
+        @JsonProperty("public_id")
+        String publicId,
+
+        String version,
+
+        String signature,
+
+        String format,
+
+        Long bytes,
+
+        @JsonProperty("original_filename")
+        String originalFilename
+
+) implements Serializable {
+}
@@ -0,0 +1,32 @@
+package com.white.backend.file.image.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Signed parameters for uploading one image straight to Cloudinary.
+ * <p>
+ * The client posts the file to {@code uploadUrl} as the {@code file} field, together with {@code api_key},
+ * {@code public_id}, {@code timestamp}, {@code allowed_formats} and {@code signature} set to these values.
+ */
+@Builder
+public record ImageUploadSignatureResponseDto(
+
+        String uploadUrl,
+
+        String apiKey,
+
+        String publicId,
+
+        Long timestamp,
+
+        String allowedFormats,
+
+        String signature,
+
+        Instant expiresAt
+
+) implements Serializable {
+}
@@ -3,6 +3,8 @@ package com.white.backend.file.image.entity;
 import com.white.backend.shared.base.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,7 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
 @Entity(name = "images")
+@Table(indexes = @Index(name = "ux_images_public_id", columnList = "public_id", unique = true))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -9,7 +9,25 @@ public enum FileError implements Error {
 
     HAVE_ERROR_WHILE_DELETING_FILE(HttpStatus.INTERNAL_SERVER_ERROR, "Have error while deleting file"),
 
-    FILE_IS_NOT_IMAGE(HttpStatus.BAD_REQUEST, "File is not an image");
+    STORAGE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Image storage is temporarily unavailable"),
+
+    FILE_IS_NOT_IMAGE(HttpStatus.BAD_REQUEST, "File is not an image"),
+
+    IMAGE_NOT_FOUND(HttpStatus.NOT_FOUND, "Image not found"),
+
+    INVALID_IMPORT_RECORD(HttpStatus.BAD_REQUEST, "Invalid import record"),
+
+    DUPLICATE_IMPORT_RECORD(HttpStatus.CONFLICT, "Import contains an image that already exists"),
+
+    UNSUPPORTED_EXPORT_FORMAT(HttpStatus.BAD_REQUEST, "Unsupported export format"),
+
+    HAVE_ERROR_WHILE_EXPORTING_FILE(HttpStatus.INTERNAL_SERVER_ERROR, "Have error while exporting file"),
+
+    UPLOAD_NOT_PENDING(HttpStatus.BAD_REQUEST, "Upload was not requested or has expired"),
+
+    UPLOAD_ALREADY_CONFIRMED(HttpStatus.CONFLICT, "Upload has already been confirmed"),
+
+    INVALID_UPLOAD_SIGNATURE(HttpStatus.FORBIDDEN, "Invalid upload signature");
 
     FileError(HttpStatus code, String message) {
 
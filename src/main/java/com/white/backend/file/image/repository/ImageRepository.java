@@ -1,11 +1,33 @@
 package com.white.backend.file.image.repository;
 
 import com.white.backend.file.image.entity.Image;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface ImageRepository extends JpaRepository<Image, String> {
 
+    Optional<Image> findByPublicId(@NonNull String publicId);
+
     void deleteByPublicId(@NonNull String publicId);
 
-}
\ No newline at end of file
+    /**
+     * Streams every image through a forward-only cursor, fetching {@code 1000} rows per round trip.
+     * Must be consumed inside a transaction, and callers should detach each entity once written
+     * so the persistence context does not grow with the table.
+     */
+    @Query("select i from images i")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Image> streamAll();
+
+}
@@ -0,0 +1,252 @@
+package com.white.backend.file.image.service;
+
+import com.cloudinary.Cloudinary;
+import com.white.backend.file.image.dto.ImageResponseDto;
+import com.white.backend.file.image.dto.ImageUploadConfirmRequestDto;
+import com.white.backend.file.image.dto.ImageUploadSignatureResponseDto;
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.error.FileError;
+import com.white.backend.file.image.repository.ImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Lets clients upload images straight to Cloudinary instead of streaming them through the backend.
+ * <p>
+ * The backend only signs the upload parameters, including a public ID it chooses. After uploading, the client
+ * forwards Cloudinary's response to {@link #confirmUpload}, which checks Cloudinary's response signature and records
+ * the {@link Image} row. The image bytes never pass through a request thread of ours.
+ * <p>
+ * Nothing is remembered between signing and confirming, so any replica can confirm an upload signed by another.
+ * Instead, the public ID carries its own ticket: a random part, the expiry and an HMAC over both and the requesting
+ * user's name. Cloudinary's response signature covers the public ID, so neither can be altered by the client, and
+ * the unique index on the public ID lets each upload be recorded once. The expiry is checked against the upload's
+ * {@code version}, the time Cloudinary stored it, which its signature covers too; an upload stored in time can be
+ * confirmed however late the client gets to it.
+ * <p>
+ * The size, format and original file name are recorded as the client forwards them. Cloudinary does not sign them,
+ * so they describe the image for display only and must not be relied on, e.g. for quotas.
+ * <p>
+ * Uploads are only recorded through the client's confirmation. A Cloudinary {@code notification_url} would also
+ * record uploads whose client never confirms, but needs an unauthenticated callback reachable from Cloudinary; an
+ * unconfirmed upload leaves only an orphaned file in storage, never a row pointing at a missing one.
+ */
+@Slf4j
+@Service
+public class ImageDirectUploadService {
+
+    static final String ALLOWED_FORMATS = "jpg,jpeg,png,gif,webp";
+
+    private static final String TICKET_ALGORITHM = "HmacSHA256";
+
+    // Truncated to 128 bits to keep the public ID, and so every image URL, short
+    private static final int TICKET_MAC_BYTES = 16;
+
+    private final Cloudinary cloudinary;
+
+    private final ImageRepository imageRepository;
+
+    private final Duration signatureTtl;
+
+    public ImageDirectUploadService(Cloudinary cloudinary, ImageRepository imageRepository,
+                                    @Value("${cloud.cloudinary.direct-upload.signature-ttl}") Duration signatureTtl) {
+
+        this.cloudinary = cloudinary;
+
+        this.imageRepository = imageRepository;
+
+        this.signatureTtl = signatureTtl;
+
+    }
+
+    /**
+     * Signs the parameters for one direct upload to Cloudinary.
+     *
+     * @param username the user requesting the upload; only this user can confirm it
+     * @return the upload URL and the signed parameters to post along with the file
+     */
+    public ImageUploadSignatureResponseDto signUpload(String username) {
+
+        long timestamp = Instant.now().getEpochSecond();
+
+        Instant expiresAt = Instant.ofEpochSecond(timestamp).plus(signatureTtl);
+
+        String nonce = UUID.randomUUID().toString();
+
+        String publicId = nonce + "_" + expiresAt.getEpochSecond() + "_" + ticket(nonce, expiresAt.getEpochSecond(), username);
+
+        // Every parameter the client sends, except the file and the API key, has to be covered by the signature
+        String signature = cloudinary.apiSignRequest(Map.of(
+                "public_id", publicId,
+                "timestamp", timestamp,
+                "allowed_formats", ALLOWED_FORMATS
+        ), cloudinary.config.apiSecret);
+
+        log.info("{}, Signed direct upload {} for {}", this.getClass().getSimpleName(), publicId, username);
+
+        return ImageUploadSignatureResponseDto.builder()
+                .uploadUrl(cloudinary.cloudinaryApiUrl("upload", Map.of("resource_type", "image")))
+                .apiKey(cloudinary.config.apiKey)
+                .publicId(publicId)
+                .timestamp(timestamp)
+                .allowedFormats(ALLOWED_FORMATS)
+                .signature(signature)
+                .expiresAt(expiresAt)
+                .build();
+
+    }
+
+    /**
+     * Records a direct upload once Cloudinary has accepted it.
+     *
+     * @param username the user confirming the upload
+     * @param request  Cloudinary's upload response, as received by the client
+     * @return the metadata of the recorded image
+     * @throws com.white.backend.shared.exception.HttpResponseException with {@link FileError#UPLOAD_NOT_PENDING}
+     *                                                                  if the upload was not signed for this user or
+     *                                                                  was stored after it expired, with
+     *                                                                  {@link FileError#INVALID_UPLOAD_SIGNATURE} if the
+     *                                                                  response was not signed by Cloudinary, or with
+     *                                                                  {@link FileError#UPLOAD_ALREADY_CONFIRMED} if it
+     *                                                                  was confirmed before
+     */
+    public ImageResponseDto confirmUpload(String username, ImageUploadConfirmRequestDto request) {
+
+        OptionalLong expiresAt = request.publicId() == null ? OptionalLong.empty() : ticketExpiry(request.publicId(), username);
+
+        if (expiresAt.isEmpty()) {
+
+            throw FileError.UPLOAD_NOT_PENDING.exception();
+
+        }
+
+        if (request.version() == null || request.signature() == null
+                || !cloudinary.verifyApiResponseSignature(request.publicId(), request.version(), request.signature())) {
+
+            throw FileError.INVALID_UPLOAD_SIGNATURE.exception();
+
+        }
+
+        if (!storedBy(request.version(), expiresAt.getAsLong())) {
+
+            throw FileError.UPLOAD_NOT_PENDING.exception();
+
+        }
+
+        // The URL is derived from the public ID rather than taken from the client
+        Image image = Image.builder()
+                .publicId(request.publicId())
+                .name(Objects.requireNonNullElse(request.originalFilename(), request.publicId()))
+                .url(cloudinary.url().generate(request.publicId()))
+                .size(Objects.requireNonNullElse(request.bytes(), 0L))
+                .extension(Objects.requireNonNullElse(request.format(), ""))
+                .build();
+
+        try {
+
+            imageRepository.save(image);
+
+        } catch (DataIntegrityViolationException e) {
+
+            // A replayed confirmation, on this replica or another, runs into the unique index on the public ID
+            throw FileError.UPLOAD_ALREADY_CONFIRMED.exception();
+
+        }
+
+        log.info("{}, Direct upload confirmed: {}", this.getClass().getSimpleName(), request.publicId());
+
+        return ImageResponseDto.from(image);
+
+    }
+
+    /**
+     * Checks the ticket carried by a public ID against the confirming user.
+     *
+     * @return the expiry of the ticket in epoch seconds, or empty if it was not issued to this user
+     */
+    private OptionalLong ticketExpiry(String publicId, String username) {
+
+        String[] parts = publicId.split("_");
+
+        if (parts.length != 3) {
+
+            return OptionalLong.empty();
+
+        }
+
+        long expiresAt;
+
+        try {
+
+            expiresAt = Long.parseLong(parts[1]);
+
+        } catch (NumberFormatException e) {
+
+            return OptionalLong.empty();
+
+        }
+
+        boolean issued = MessageDigest.isEqual(
+                ticket(parts[0], expiresAt, username).getBytes(StandardCharsets.US_ASCII),
+                parts[2].getBytes(StandardCharsets.US_ASCII));
+
+        return issued ? OptionalLong.of(expiresAt) : OptionalLong.empty();
+
+    }
+
+    /**
+     * Checks that Cloudinary stored the upload before its ticket expired. The version is the upload time in epoch
+     * seconds.
+     */
+    private static boolean storedBy(String version, long expiresAt) {
+
+        try {
+
+            return Long.parseLong(version) <= expiresAt;
+
+        } catch (NumberFormatException e) {
+
+            return false;
+
+        }
+
+    }
+
+    private String ticket(String nonce, long expiresAt, String username) {
+
+        try {
+
+            Mac mac = Mac.getInstance(TICKET_ALGORITHM);
+
+            // The API secret already signs every upload; a client that knew it could forge those signatures anyway
+            mac.init(new SecretKeySpec(cloudinary.config.apiSecret.getBytes(StandardCharsets.UTF_8), TICKET_ALGORITHM));
+
+            // The separator cannot occur in the nonce or the expiry, so no two inputs share an encoding
+            byte[] digest = mac.doFinal((nonce + "_" + expiresAt + "_" + username).getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest, 0, TICKET_MAC_BYTES);
+
+        } catch (GeneralSecurityException e) {
+
+            throw new IllegalStateException(e);
+
+        }
+
+    }
+
+}
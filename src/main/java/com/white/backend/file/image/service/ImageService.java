@@ -1,23 +1,51 @@
 package com.white.backend.file.image.service;
 
 import com.cloudinary.Cloudinary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.white.backend.file.image.config.CloudinaryHttpProperties;
+import com.white.backend.file.image.dto.ImageExportFormat;
+import com.white.backend.file.image.dto.ImageImportRequestDto;
 import com.white.backend.file.image.dto.ImageResponseDto;
 import com.white.backend.file.image.entity.Image;
 import com.white.backend.file.image.error.FileError;
 import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.shared.cache.CacheRegions;
 import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.persistence.BulkInsertService;
+import com.white.backend.shared.profiling.ImageOperationEvent;
+import com.white.backend.shared.resilience.RemoteCallGuard;
+import com.white.backend.shared.resilience.RemoteDependencies;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing image-related operations.
@@ -31,6 +59,13 @@ public class ImageService {
 
     private final Cloudinary cloudinary;  // Cloudinary instance for uploading and deleting images
     private final ImageRepository imageRepository;  // Repository for managing image records in the database
+    private final BulkInsertService bulkInsertService;  // Batched inserts for imports and backfills
+    private final ObjectMapper objectMapper;  // Reads import records one line at a time
+    private final EntityManager entityManager;  // Detaches exported rows so the persistence context stays empty
+    private final RemoteCallGuard remoteCallGuard;  // Bulkhead and circuit breaker around Cloudinary calls
+    private final CloudinaryHttpProperties cloudinaryHttpProperties;  // Connect, socket and pool wait timeouts of Cloudinary calls
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;  // Rows written between flushes, matching the export fetch size
 
     /**
      * Retrieves a paginated list of images.
@@ -38,21 +73,51 @@ public class ImageService {
      * @param pageable contains pagination and sorting information (page number, size, sorting)
      * @return a page of ImageResponseDto objects containing image metadata
      */
+    @Transactional(readOnly = true)
     public Page<ImageResponseDto> getImagePage(Pageable pageable) {
+
+        ImageOperationEvent event = ImageOperationEvent.start("list");
+
+        Page<ImageResponseDto> page = null;
+
         try {
             log.info("{}, Fetching images - page: {}, size: {}", this.getClass().getSimpleName(), pageable.getPageNumber(), pageable.getPageSize());
 
             // Retrieve all images from the database according to the pagination settings and map each Image entity to an ImageResponseDto
-            return imageRepository.findAll(pageable).map(ImageResponseDto::from);
+            page = imageRepository.findAll(pageable).map(ImageResponseDto::from);
+
+            return page;
 
         } catch (HttpResponseException e) {
             log.error("Error fetching images: {}", e.getMessage());
 
             // Propagate the custom HttpResponseException for further handling by calling code
             throw e;
+        } finally {
+            event.finish(page == null ? 0 : page.getNumberOfElements(), page == null ? "failure" : "success");
         }
     }
 
+    /**
+     * Retrieves the metadata of a single image.
+     * Results are served from the {@link CacheRegions#IMAGES} cache region and loaded from the database on a miss.
+     *
+     * @param publicId the unique public ID of the image
+     * @return the image metadata
+     * @throws HttpResponseException if no image has this public ID
+     */
+    @Cacheable(cacheNames = CacheRegions.IMAGES, key = "#publicId")
+    @Transactional(readOnly = true)
+    public ImageResponseDto getImage(String publicId) {
+
+        log.info("{}, Fetching image with public ID: {}", this.getClass().getSimpleName(), publicId);
+
+        return imageRepository.findByPublicId(publicId)
+                .map(ImageResponseDto::from)
+                .orElseThrow(FileError.IMAGE_NOT_FOUND::exception);
+
+    }
+
     /**
      * Uploads an image file to Cloudinary and saves its metadata in the database.
      *
@@ -62,6 +127,10 @@ public class ImageService {
      */
     public String uploadImageFile(MultipartFile file) throws IOException {
 
+        ImageOperationEvent event = ImageOperationEvent.start("upload");
+
+        String outcome = "failure";
+
         try {
 
             log.info("{}, Uploading image file: {}", this.getClass().getSimpleName(), file.getName());
@@ -72,10 +141,18 @@ public class ImageService {
             }
 
             // Generate a unique public ID for the image file using UUID and upload it to Cloudinary
-            String imageId = cloudinary.uploader()
-                    .upload(file.getBytes(), Map.of("public_id", UUID.randomUUID().toString())) // Convert file to bytes for upload
-                    .get("public_id")
-                    .toString();
+            byte[] bytes = file.getBytes();  // Convert file to bytes for upload
+
+            // The public ID is fixed before the call, so a retried upload overwrites the same asset instead of adding one
+            Map<String, Object> uploadOptions = new HashMap<>(cloudinaryHttpProperties.requestOptions());
+
+            uploadOptions.put("public_id", UUID.randomUUID().toString());
+
+            String imageId = remoteCallGuard.execute(RemoteDependencies.CLOUDINARY, FileError.STORAGE_UNAVAILABLE, () ->
+                    cloudinary.uploader()
+                            .upload(bytes, uploadOptions)
+                            .get("public_id")
+                            .toString());
 
             // Generate a URL for the uploaded image in Cloudinary using the image ID
             String url = cloudinary.url().generate(imageId);
@@ -97,6 +174,8 @@ public class ImageService {
 
             log.info("{}, Image successfully uploaded: {}", this.getClass().getSimpleName(), url);
 
+            outcome = "success";
+
             // Return the URL of the uploaded image
             return url;
 
@@ -106,6 +185,10 @@ public class ImageService {
             // Propagate HttpResponseException to handle the error in calling code
             throw e;
 
+        } finally {
+
+            event.finish(file.getSize(), outcome);
+
         }
 
     }
@@ -117,25 +200,38 @@ public class ImageService {
      * @return a string indicating the result of the deletion from Cloudinary
      * @throws FileError custom error thrown if there are issues during image deletion
      */
+    @CacheEvict(cacheNames = CacheRegions.IMAGES, key = "#publicId")
     @Transactional
     // Marks the operation as transactional to ensure data consistency between Cloudinary and the database
     public String deleteImageFile(String publicId) {
 
+        ImageOperationEvent event = ImageOperationEvent.start("delete");
+
+        String outcome = "failure";
+
         try {
 
             log.info("{}, Deleting image with public ID: {}", this.getClass().getSimpleName(), publicId);
 
             // Send request to Cloudinary to delete the image and invalidate any cached versions
-            String deletedId = cloudinary.uploader()
-                    .destroy(publicId, Map.of("invalidate", true))
-                    .get("result")
-                    .toString();
+            Map<String, Object> destroyOptions = new HashMap<>(cloudinaryHttpProperties.requestOptions());
+
+            destroyOptions.put("invalidate", true);
+
+            String deletedId = remoteCallGuard.execute(RemoteDependencies.CLOUDINARY, FileError.STORAGE_UNAVAILABLE, () ->
+                    cloudinary.uploader()
+                            .destroy(publicId, destroyOptions)
+                            .get("result")
+                            .toString());
 
             // Remove the image record from the database by public ID
             imageRepository.deleteByPublicId(publicId);
 
             log.info("{}, Image successfully deleted: {}", this.getClass().getSimpleName(), publicId);
 
+            // Cloudinary answers "not found" for an image it did not have, which is recorded as a failure
+            outcome = "ok".equals(deletedId) ? "success" : "failure";
+
             // Return the result from Cloudinary deletion request
             return deletedId;
 
@@ -150,8 +246,160 @@ public class ImageService {
 
             // Throw custom error defined in FileError for issues during deletion
             throw FileError.HAVE_ERROR_WHILE_DELETING_FILE.exception();
+        } finally {
+            event.finish(0, outcome);
         }
 
     }
 
+    /**
+     * Imports image metadata from newline-delimited JSON, one {@link ImageImportRequestDto} per line.
+     * Records are parsed lazily and written through batched inserts, so memory use does not grow with the payload.
+     * All records are imported in one transaction; if any fails, none are kept.
+     *
+     * @param ndjson the import payload
+     * @return the number of imported images
+     * @throws HttpResponseException if a record cannot be read or lacks a required field, or a public ID already exists
+     */
+    public long importImages(InputStream ndjson) {
+
+        try (MappingIterator<ImageImportRequestDto> records = objectMapper.readerFor(ImageImportRequestDto.class).readValues(ndjson)) {
+
+            log.info("{}, Importing images", this.getClass().getSimpleName());
+
+            return bulkInsertService.insertAll(records, ImageImportRequestDto::toImage);
+
+        } catch (IOException | RuntimeJsonMappingException e) {
+            log.error("Error importing images: {}", e.getMessage());
+
+            throw FileError.INVALID_IMPORT_RECORD.exception();
+        } catch (DuplicateKeyException e) {
+            log.error("Duplicate image in import: {}", e.getMostSpecificCause().getMessage());
+
+            throw FileError.DUPLICATE_IMPORT_RECORD.exception();
+        } catch (DataIntegrityViolationException e) {
+            log.error("Incomplete image in import: {}", e.getMostSpecificCause().getMessage());
+
+            throw FileError.INVALID_IMPORT_RECORD.exception();
+        }
+
+    }
+
+    /**
+     * Streams the metadata of every image to the given output, one row at a time.
+     * <p>
+     * Rows are read through a forward-only cursor and written as soon as they are read; each entity is detached
+     * once written, so memory use stays flat regardless of table size. Output is flushed once per fetched block.
+     *
+     * @param outputStream the destination, typically the HTTP response body
+     * @param format       NDJSON writes one {@link ImageResponseDto} object per line, CSV writes a header and one row per image
+     * @return the number of exported images
+     * @throws HttpResponseException if writing to the output fails
+     */
+    @Transactional(readOnly = true)
+    public long exportImages(OutputStream outputStream, ImageExportFormat format) {
+
+        try (Stream<Image> images = imageRepository.streamAll()) {
+
+            log.info("{}, Exporting images as {}", this.getClass().getSimpleName(), format);
+
+            long exported = switch (format) {
+                case NDJSON -> writeNdjson(images.iterator(), outputStream);
+                case CSV -> writeCsv(images.iterator(), outputStream);
+            };
+
+            log.info("{}, Images exported: {}", this.getClass().getSimpleName(), exported);
+
+            return exported;
+
+        } catch (IOException e) {
+            log.error("IOException occurred while exporting images: {}", e.getMessage());
+
+            throw FileError.HAVE_ERROR_WHILE_EXPORTING_FILE.exception();
+        }
+
+    }
+
+    private long writeNdjson(Iterator<Image> images, OutputStream outputStream) throws IOException {
+
+        // Flushing is driven by the export loop rather than after every value
+        ObjectWriter writer = objectMapper.writerFor(ImageResponseDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long exported = 0;
+
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            while (images.hasNext()) {
+
+                Image image = images.next();
+
+                writer.writeValue(generator, ImageResponseDto.from(image));
+                generator.writeRaw('\n');
+
+                entityManager.detach(image);
+
+                if (++exported % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+
+            }
+
+        }
+
+        return exported;
+
+    }
+
+    private long writeCsv(Iterator<Image> images, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        writer.write("publicId,name,url,size,extension,createdAt,updatedAt,deletedAt,isDeleted\n");
+
+        long exported = 0;
+
+        while (images.hasNext()) {
+
+            Image image = images.next();
+
+            writer.write(csv(image.getPublicId()) + ',' + csv(image.getName()) + ',' + csv(image.getUrl()) + ','
+                    + csv(image.getSize()) + ',' + csv(image.getExtension()) + ',' + csv(image.getCreatedAt()) + ','
+                    + csv(image.getUpdatedAt()) + ',' + csv(image.getDeletedAt()) + ',' + csv(image.getIsDeleted()) + '\n');
+
+            entityManager.detach(image);
+
+            if (++exported % EXPORT_FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+
+        }
+
+        writer.flush();
+
+        return exported;
+
+    }
+
+    /**
+     * Formats a CSV field, quoting it when it contains a separator, a quote or a line break.
+     */
+    private static String csv(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+
+    }
+
 }
@@ -0,0 +1,20 @@
+package com.white.backend.shared.analytics;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig {
+
+    @Bean
+    AuthAnalytics authAnalytics(AnalyticsProperties properties) {
+
+        return new AuthAnalytics(properties, Clock.systemUTC());
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.white.backend.shared.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizes of the authentication analytics sketches. Every retained day takes about {@code 2^precision} bytes for its
+ * active users and {@code 8 * sketchDepth * sketchWidth} bytes for its failed logins, every retained month
+ * {@code 2^precision} bytes. Nodes can only be merged if they use the same sizes.
+ */
+@ConfigurationProperties(prefix = "app.analytics")
+public record AnalyticsProperties(
+
+        int precision,
+
+        int sketchDepth,
+
+        int sketchWidth,
+
+        int heavyHitters,
+
+        int retainedDays,
+
+        int retainedMonths
+
+) {
+
+    public AnalyticsProperties {
+
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("app.analytics.precision must be between " + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+
+        if (sketchDepth < 1 || sketchWidth < 1 || heavyHitters < 1 || retainedDays < 1 || retainedMonths < 1) {
+            throw new IllegalArgumentException("app.analytics sizes must be positive");
+        }
+
+    }
+
+}
@@ -0,0 +1,484 @@
+package com.white.backend.shared.analytics;
+
+import com.white.backend.shared.audit.AuditEventType;
+import com.white.backend.shared.audit.AuditListener;
+import com.white.backend.shared.audit.AuditRecord;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Active users, logins per provider and the most failed usernames, per UTC day and month, in fixed memory.
+ * <p>
+ * Fed with the authentication events of the {@link com.white.backend.shared.audit.AuditLog} on its writer thread,
+ * so the request path pays nothing beyond the audit record. Active users are counted with a {@link HyperLogLog}
+ * per day and month, from logins with either provider and token refreshes; failed password logins go into a
+ * {@link HeavyHitters} sketch per day. Usernames are the audit subjects, cut to their first
+ * {@value AuditRecord#SUBJECT_BYTES} bytes, so longer usernames sharing those are counted as one user.
+ * <p>
+ * Every node counts only its own events. {@link #export} writes the sketches in a compact form that
+ * {@link #report} merges with the node's own into a report for the whole cluster, as if every event had reached
+ * one node. An export is only taken in if it fits what this node retains, and only its retained days and months
+ * are merged.
+ */
+public class AuthAnalytics implements AuditListener {
+
+    public enum Provider {
+
+        PASSWORD,
+
+        GOOGLE
+
+    }
+
+    public record DailyActivity(LocalDate date, long activeUsers, Map<Provider, Long> logins) {
+    }
+
+    public record MonthlyActivity(YearMonth month, long activeUsers) {
+    }
+
+    /**
+     * @param activeUsers        distinct users over all {@code days}
+     * @param activeUsersError   the relative standard error of every active user count
+     * @param failures           failed password logins over all {@code days}
+     * @param failuresOverestimate how far each estimate in {@code failingUsernames} may exceed the true count
+     */
+    public record Report(List<DailyActivity> days, long activeUsers, List<MonthlyActivity> months, double activeUsersError,
+                         List<HeavyHitters.Entry> failingUsernames, long failures, long failuresOverestimate, int nodes) {
+    }
+
+    private static final int MAGIC = 0x41555441;
+
+    private static final byte VERSION = 1;
+
+    private final AnalyticsProperties properties;
+
+    private final Clock clock;
+
+    private final Activity activity;
+
+    private final long maxExportBytes;
+
+    public AuthAnalytics(AnalyticsProperties properties, Clock clock) {
+
+        this.properties = properties;
+
+        this.clock = clock;
+
+        this.activity = new Activity();
+
+        // Modified UTF-8 takes at most twice the bytes of UTF-8 for a username
+        long dayBytes = Long.BYTES + (long) Long.BYTES * Provider.values().length + (1L << properties.precision())
+                + Long.BYTES + (long) Long.BYTES * properties.sketchDepth() * properties.sketchWidth()
+                + Integer.BYTES + (long) properties.heavyHitters() * (Short.BYTES + 2 * AuditRecord.SUBJECT_BYTES);
+
+        this.maxExportBytes = Integer.BYTES + 1 + 4L * Integer.BYTES + Integer.BYTES + properties.retainedDays() * dayBytes
+                + Integer.BYTES + properties.retainedMonths() * (Integer.BYTES + 1 + (1L << properties.precision()));
+
+    }
+
+    @Override
+    public void onRecord(AuditRecord record) {
+
+        // Only failed password logins name a user worth counting; failed refreshes and callbacks do not
+        if (record.subject().isEmpty() || !record.success() && record.type() != AuditEventType.LOGIN) {
+            return;
+        }
+
+        LocalDate date = LocalDate.ofInstant(record.timestamp(), ZoneOffset.UTC);
+
+        synchronized (this) {
+
+            if (date.isBefore(LocalDate.now(clock).minusDays(properties.retainedDays() - 1))) {
+                return;
+            }
+
+            activity.prune(date);
+
+            Day day = activity.day(date);
+
+            if (!record.success()) {
+
+                day.failures.add(record.subject());
+
+                return;
+
+            }
+
+            long hash = Hashing.hash64(record.subject());
+
+            day.users.add(hash);
+
+            activity.month(YearMonth.from(date)).add(hash);
+
+            switch (record.type()) {
+                case LOGIN -> day.logins[Provider.PASSWORD.ordinal()]++;
+                case OAUTH2_CALLBACK -> day.logins[Provider.GOOGLE.ordinal()]++;
+                case TOKEN_REFRESH -> {
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Writes this node's sketches for {@link #report} on another node.
+     */
+    public byte[] export() {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+
+            synchronized (this) {
+                activity.write(out);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+
+    }
+
+    /**
+     * Reports the last {@code days} days and {@code months} months, up to today, of this node merged with the
+     * exports of {@code peers}. Counts are limited to what is retained.
+     *
+     * @param top the number of most failed usernames to list
+     * @throws IllegalArgumentException if an export is corrupt, larger than this node retains or was written with
+     *                                  other sketch sizes
+     */
+    public Report report(int days, int months, int top, List<byte[]> peers) {
+
+        Activity merged = new Activity();
+
+        for (byte[] peer : peers) {
+            merged.merge(read(peer));
+        }
+
+        synchronized (this) {
+            merged.merge(activity);
+        }
+
+        LocalDate today = LocalDate.now(clock);
+
+        LocalDate from = today.minusDays(Math.min(Math.max(days, 1), properties.retainedDays()) - 1);
+
+        YearMonth thisMonth = YearMonth.from(today);
+
+        YearMonth fromMonth = thisMonth.minusMonths(Math.min(Math.max(months, 1), properties.retainedMonths()) - 1);
+
+        Day window = new Day();
+
+        List<DailyActivity> daily = new ArrayList<>();
+
+        for (LocalDate date = from; !date.isAfter(today); date = date.plusDays(1)) {
+
+            Day day = merged.days.get(date);
+
+            Map<Provider, Long> logins = new EnumMap<>(Provider.class);
+
+            for (Provider provider : Provider.values()) {
+                logins.put(provider, day == null ? 0 : day.logins[provider.ordinal()]);
+            }
+
+            daily.add(new DailyActivity(date, day == null ? 0 : day.users.estimate(), logins));
+
+            if (day != null) {
+                window.merge(day);
+            }
+
+        }
+
+        List<MonthlyActivity> monthly = new ArrayList<>();
+
+        for (YearMonth month = fromMonth; !month.isAfter(thisMonth); month = month.plusMonths(1)) {
+
+            HyperLogLog users = merged.months.get(month);
+
+            monthly.add(new MonthlyActivity(month, users == null ? 0 : users.estimate()));
+
+        }
+
+        return new Report(daily, window.users.estimate(), monthly, window.users.standardError(),
+                window.failures.top(Math.min(Math.max(top, 1), properties.heavyHitters())), window.failures.total(),
+                (long) Math.ceil(Math.E / properties.sketchWidth() * window.failures.total()), peers.size() + 1);
+
+    }
+
+    private Activity read(byte[] export) {
+
+        try (DataInputStream in = new DataInputStream(new LimitedInput(new GZIPInputStream(new ByteArrayInputStream(export)), maxExportBytes))) {
+
+            return readActivity(in);
+
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid analytics export: " + e.getMessage(), e);
+        }
+
+    }
+
+    private Activity readActivity(DataInput in) throws IOException {
+
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("not an analytics export of this version");
+        }
+
+        if (in.readInt() != properties.precision() || in.readInt() != properties.sketchDepth()
+                || in.readInt() != properties.sketchWidth() || in.readInt() != properties.heavyHitters()) {
+            throw new IOException("written with other sketch sizes");
+        }
+
+        Activity activity = new Activity();
+
+        LocalDate today = LocalDate.now(clock);
+
+        LocalDate firstDay = today.minusDays(properties.retainedDays() - 1);
+
+        int dayCount = in.readInt();
+
+        if (dayCount < 0 || dayCount > properties.retainedDays()) {
+            throw new IOException("more days than retained: " + dayCount);
+        }
+
+        for (int i = 0; i < dayCount; i++) {
+
+            LocalDate date = LocalDate.ofEpochDay(in.readLong());
+
+            long[] logins = new long[Provider.values().length];
+
+            for (int j = 0; j < logins.length; j++) {
+                logins[j] = in.readLong();
+            }
+
+            Day day = new Day(HyperLogLog.read(in, properties.precision()),
+                    HeavyHitters.read(in, properties.heavyHitters(), properties.sketchDepth(), properties.sketchWidth()));
+
+            System.arraycopy(logins, 0, day.logins, 0, logins.length);
+
+            // A peer may not have pruned days this node no longer retains
+            if (!date.isBefore(firstDay) && !date.isAfter(today)) {
+                activity.days.put(date, day);
+            }
+
+        }
+
+        YearMonth thisMonth = YearMonth.from(today);
+
+        YearMonth firstMonth = thisMonth.minusMonths(properties.retainedMonths() - 1);
+
+        int monthCount = in.readInt();
+
+        if (monthCount < 0 || monthCount > properties.retainedMonths()) {
+            throw new IOException("more months than retained: " + monthCount);
+        }
+
+        for (int i = 0; i < monthCount; i++) {
+
+            YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+
+            HyperLogLog users = HyperLogLog.read(in, properties.precision());
+
+            if (!month.isBefore(firstMonth) && !month.isAfter(thisMonth)) {
+                activity.months.put(month, users);
+            }
+
+        }
+
+        return activity;
+
+    }
+
+    private final class Day {
+
+        private final HyperLogLog users;
+
+        private final long[] logins = new long[Provider.values().length];
+
+        private final HeavyHitters failures;
+
+        private Day() {
+
+            this(new HyperLogLog(properties.precision()),
+                    new HeavyHitters(properties.heavyHitters(), properties.sketchDepth(), properties.sketchWidth()));
+
+        }
+
+        private Day(HyperLogLog users, HeavyHitters failures) {
+
+            this.users = users;
+
+            this.failures = failures;
+
+        }
+
+        private void merge(Day other) {
+
+            users.merge(other.users);
+
+            for (int i = 0; i < logins.length; i++) {
+                logins[i] += other.logins[i];
+            }
+
+            failures.merge(other.failures);
+
+        }
+
+    }
+
+    private final class Activity {
+
+        private final TreeMap<LocalDate, Day> days = new TreeMap<>();
+
+        private final TreeMap<YearMonth, HyperLogLog> months = new TreeMap<>();
+
+        private Day day(LocalDate date) {
+
+            return days.computeIfAbsent(date, key -> new Day());
+
+        }
+
+        private HyperLogLog month(YearMonth month) {
+
+            return months.computeIfAbsent(month, key -> new HyperLogLog(properties.precision()));
+
+        }
+
+        private void prune(LocalDate latest) {
+
+            days.headMap(latest.minusDays(properties.retainedDays() - 1)).clear();
+
+            months.headMap(YearMonth.from(latest).minusMonths(properties.retainedMonths() - 1)).clear();
+
+        }
+
+        private void merge(Activity other) {
+
+            other.days.forEach((date, day) -> day(date).merge(day));
+
+            other.months.forEach((month, users) -> month(month).merge(users));
+
+        }
+
+        private void write(DataOutput out) throws IOException {
+
+            out.writeInt(MAGIC);
+
+            out.writeByte(VERSION);
+
+            out.writeInt(properties.precision());
+
+            out.writeInt(properties.sketchDepth());
+
+            out.writeInt(properties.sketchWidth());
+
+            out.writeInt(properties.heavyHitters());
+
+            out.writeInt(days.size());
+
+            for (Map.Entry<LocalDate, Day> entry : days.entrySet()) {
+
+                out.writeLong(entry.getKey().toEpochDay());
+
+                for (long logins : entry.getValue().logins) {
+                    out.writeLong(logins);
+                }
+
+                entry.getValue().users.write(out);
+
+                entry.getValue().failures.write(out);
+
+            }
+
+            out.writeInt(months.size());
+
+            for (Map.Entry<YearMonth, HyperLogLog> entry : months.entrySet()) {
+
+                out.writeInt(entry.getKey().getYear());
+
+                out.writeByte(entry.getKey().getMonthValue());
+
+                entry.getValue().write(out);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Fails a read past {@code limit} bytes, so a small compressed export cannot inflate without bound.
+     */
+    private static final class LimitedInput extends FilterInputStream {
+
+        private long remaining;
+
+        private LimitedInput(InputStream in, long limit) {
+
+            super(in);
+
+            this.remaining = limit;
+
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            int b = super.read();
+
+            if (b >= 0) {
+                consumed(1);
+            }
+
+            return b;
+
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+
+            int count = super.read(bytes, offset, (int) Math.min(length, remaining + 1));
+
+            if (count > 0) {
+                consumed(count);
+            }
+
+            return count;
+
+        }
+
+        private void consumed(int count) throws IOException {
+
+            remaining -= count;
+
+            if (remaining < 0) {
+                throw new IOException("larger than the retained sketches");
+            }
+
+        }
+
+    }
+
+}
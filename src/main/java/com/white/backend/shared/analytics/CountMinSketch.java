@@ -0,0 +1,133 @@
+package com.white.backend.shared.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Approximate counts of many keys in {@code depth * width} counters. An estimate is never below the true count and
+ * exceeds it by at most {@code e / width} of the total with probability {@code 1 - e^-depth}.
+ * <p>
+ * Two sketches of the same dimensions merge by adding their counters. Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+
+    private final int width;
+
+    private final long[] counters;
+
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Count-min sketch dimensions must be positive: " + depth + " x " + width);
+        }
+
+        this.depth = depth;
+
+        this.width = width;
+
+        this.counters = new long[depth * width];
+
+    }
+
+    /**
+     * Adds one occurrence of the key with the given 64-bit hash.
+     *
+     * @return the estimated count of the key afterwards
+     */
+    public long add(long hash) {
+
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+
+            int index = index(hash, row);
+
+            estimate = Math.min(estimate, ++counters[index]);
+
+        }
+
+        total++;
+
+        return estimate;
+
+    }
+
+    public long estimate(long hash) {
+
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(hash, row)]);
+        }
+
+        return estimate;
+
+    }
+
+    /**
+     * The sum of all counts added, which bounds the error of the estimates.
+     */
+    public long total() {
+
+        return total;
+
+    }
+
+    public void merge(CountMinSketch other) {
+
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge count-min sketches of " + depth + " x " + width + " and " + other.depth + " x " + other.width);
+        }
+
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+
+        total += other.total;
+
+    }
+
+    // Row indexes derived from two halves of one hash (Kirsch-Mitzenmacher)
+    private int index(long hash, int row) {
+
+        int combined = (int) hash + row * (int) (hash >>> 32);
+
+        return row * width + Math.floorMod(combined, width);
+
+    }
+
+    void write(DataOutput out) throws IOException {
+
+        out.writeLong(total);
+
+        for (long counter : counters) {
+            out.writeLong(counter);
+        }
+
+    }
+
+    static CountMinSketch read(DataInput in, int depth, int width) throws IOException {
+
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+
+        sketch.total = in.readLong();
+
+        for (int i = 0; i < sketch.counters.length; i++) {
+            sketch.counters[i] = in.readLong();
+        }
+
+        if (Arrays.stream(sketch.counters).anyMatch(counter -> counter < 0 || counter > sketch.total)) {
+            throw new IOException("Invalid count-min sketch counters");
+        }
+
+        return sketch;
+
+    }
+
+}
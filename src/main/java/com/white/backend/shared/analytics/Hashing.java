@@ -0,0 +1,41 @@
+package com.white.backend.shared.analytics;
+
+/**
+ * 64-bit hashing of keys for the sketches, without allocating.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars of {@code value}, finished with the MurmurHash3 mixer so that every input bit
+     * affects the high bits the sketches index by.
+     */
+    public static long hash64(CharSequence value) {
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            hash ^= value.charAt(i);
+
+            hash *= 0x100000001b3L;
+
+        }
+
+        hash ^= hash >>> 33;
+
+        hash *= 0xff51afd7ed558ccdL;
+
+        hash ^= hash >>> 33;
+
+        hash *= 0xc4ceb9fe1a85ec53L;
+
+        hash ^= hash >>> 33;
+
+        return hash;
+
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.white.backend.shared.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The most frequent keys of a stream, in fixed memory: a {@link CountMinSketch} counts every key and the
+ * {@code capacity} keys with the highest estimates are kept as candidates. A key that becomes frequent later
+ * replaces the least frequent candidate once its estimate passes it.
+ * <p>
+ * Merging adds the sketches and re-ranks the union of both candidate sets against the merged sketch. Not
+ * thread-safe.
+ */
+public final class HeavyHitters {
+
+    public record Entry(String key, long estimate) {
+    }
+
+    private final int capacity;
+
+    private final CountMinSketch sketch;
+
+    // Candidate keys with their estimate when last seen
+    private final Map<String, Long> candidates;
+
+    public HeavyHitters(int capacity, int depth, int width) {
+
+        this(capacity, new CountMinSketch(depth, width));
+
+    }
+
+    private HeavyHitters(int capacity, CountMinSketch sketch) {
+
+        this.capacity = capacity;
+
+        this.sketch = sketch;
+
+        this.candidates = new HashMap<>(2 * capacity);
+
+    }
+
+    public void add(String key) {
+
+        long estimate = sketch.add(Hashing.hash64(key));
+
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+
+            candidates.put(key, estimate);
+
+            return;
+
+        }
+
+        Map.Entry<String, Long> least = candidates.entrySet().stream().min(Map.Entry.comparingByValue()).orElseThrow();
+
+        if (estimate > least.getValue()) {
+
+            candidates.remove(least.getKey());
+
+            candidates.put(key, estimate);
+
+        }
+
+    }
+
+    /**
+     * @return at most {@code limit} candidates, most frequent first
+     */
+    public List<Entry> top(int limit) {
+
+        return candidates.keySet().stream()
+                .map(key -> new Entry(key, sketch.estimate(Hashing.hash64(key))))
+                .sorted(Comparator.comparingLong(Entry::estimate).reversed().thenComparing(Entry::key))
+                .limit(limit)
+                .toList();
+
+    }
+
+    /**
+     * The sum of all counts, which bounds the overestimate of any key.
+     */
+    public long total() {
+
+        return sketch.total();
+
+    }
+
+    public void merge(HeavyHitters other) {
+
+        sketch.merge(other.sketch);
+
+        Set<String> keys = new HashSet<>(candidates.keySet());
+
+        keys.addAll(other.candidates.keySet());
+
+        candidates.clear();
+
+        keys.stream()
+                .map(key -> new Entry(key, sketch.estimate(Hashing.hash64(key))))
+                .sorted(Comparator.comparingLong(Entry::estimate).reversed().thenComparing(Entry::key))
+                .limit(capacity)
+                .forEach(entry -> candidates.put(entry.key(), entry.estimate()));
+
+    }
+
+    void write(DataOutput out) throws IOException {
+
+        sketch.write(out);
+
+        out.writeInt(candidates.size());
+
+        for (String key : candidates.keySet()) {
+            out.writeUTF(key);
+        }
+
+    }
+
+    static HeavyHitters read(DataInput in, int capacity, int depth, int width) throws IOException {
+
+        HeavyHitters heavyHitters = new HeavyHitters(capacity, CountMinSketch.read(in, depth, width));
+
+        int count = in.readInt();
+
+        if (count < 0 || count > capacity) {
+            throw new IOException("Invalid heavy hitter count " + count);
+        }
+
+        for (int i = 0; i < count; i++) {
+
+            String key = in.readUTF();
+
+            heavyHitters.candidates.put(key, heavyHitters.sketch.estimate(Hashing.hash64(key)));
+
+        }
+
+        return heavyHitters;
+
+    }
+
+}
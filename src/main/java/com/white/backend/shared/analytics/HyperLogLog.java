@@ -0,0 +1,134 @@
+package com.white.backend.shared.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Estimates the number of distinct values added, in {@code 2^precision} bytes whatever the count. The standard
+ * error is {@code 1.04 / sqrt(2^precision)}, 0.8% at precision 14.
+ * <p>
+ * Two counters with the same precision merge into the count of the union of their values, so counters kept on
+ * several nodes, or for several days, combine without double counting. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    static final int MIN_PRECISION = 4;
+
+    static final int MAX_PRECISION = 18;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+
+        this.precision = precision;
+
+        this.registers = new byte[1 << precision];
+
+    }
+
+    /**
+     * @param hash a well-mixed 64-bit hash of the value, e.g. from {@link Hashing#hash64}
+     */
+    public void add(long hash) {
+
+        int index = (int) (hash >>> (64 - precision));
+
+        // The leading bits chose the register; the sentinel bit bounds the rank of an all-zero remainder
+        int rank = Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1;
+
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+
+    }
+
+    public long estimate() {
+
+        int m = registers.length;
+
+        double sum = 0;
+
+        int empty = 0;
+
+        for (byte register : registers) {
+
+            sum += Math.scalb(1.0, -register);
+
+            if (register == 0) {
+                empty++;
+            }
+
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * m && empty > 0) {
+            estimate = m * Math.log((double) m / empty);
+        }
+
+        return Math.round(estimate);
+
+    }
+
+    public void merge(HyperLogLog other) {
+
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog counters of precision " + precision + " and " + other.precision);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+
+    }
+
+    public double standardError() {
+
+        return 1.04 / Math.sqrt(registers.length);
+
+    }
+
+    void write(DataOutput out) throws IOException {
+
+        out.write(registers);
+
+    }
+
+    static HyperLogLog read(DataInput in, int precision) throws IOException {
+
+        HyperLogLog counter = new HyperLogLog(precision);
+
+        in.readFully(counter.registers);
+
+        for (byte register : counter.registers) {
+
+            if (register < 0 || register > 64 - precision + 1) {
+                throw new IOException("Invalid HyperLogLog register " + register);
+            }
+
+        }
+
+        return counter;
+
+    }
+
+    private static double alpha(int m) {
+
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+
+    }
+
+}
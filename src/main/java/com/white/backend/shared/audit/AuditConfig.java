@@ -0,0 +1,50 @@
+package com.white.backend.shared.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    @Bean
+    AuditLog auditLog(AuditProperties properties, ObjectProvider<AuditListener> listeners) throws IOException {
+
+        return new AuditLog(properties, Clock.systemUTC(), listeners.orderedStream().toList());
+
+    }
+
+    @Bean
+    MeterBinder auditMetrics(AuditLog auditLog) {
+
+        return registry -> {
+
+            FunctionCounter.builder("app.audit.records.written", auditLog, AuditLog::getWritten)
+                    .description("Audit records written to the segment files")
+                    .register(registry);
+
+            FunctionCounter.builder("app.audit.records.dropped", auditLog, AuditLog::getDropped)
+                    .description("Audit records dropped because the ring buffer was full")
+                    .register(registry);
+
+            FunctionCounter.builder("app.audit.records.failed", auditLog, AuditLog::getFailed)
+                    .description("Audit records that could not be written")
+                    .register(registry);
+
+            Gauge.builder("app.audit.records.queued", auditLog, AuditLog::getQueued)
+                    .description("Audit records waiting for the writer thread")
+                    .register(registry);
+
+        };
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.white.backend.shared.audit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Kinds of audited authentication events. The code is what the audit files store, so existing codes must never
+ * change meaning.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AuditEventType {
+
+    LOGIN((byte) 1),
+
+    TOKEN_REFRESH((byte) 2),
+
+    OAUTH2_CALLBACK((byte) 3);
+
+    private final byte code;
+
+    public static AuditEventType fromCode(byte code) {
+
+        for (AuditEventType type : values()) {
+
+            if (type.code == code) {
+                return type;
+            }
+
+        }
+
+        throw new IllegalArgumentException("Unknown audit event type " + code);
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.white.backend.shared.audit;
+
+/**
+ * Receives every audit record once it has been written. Registered as a bean.
+ * <p>
+ * Listeners run one at a time on the writer thread of the {@link AuditLog}, off the request path. A slow listener
+ * delays the writing of later records, and records dropped from a full ring buffer never reach it.
+ */
+@FunctionalInterface
+public interface AuditListener {
+
+    void onRecord(AuditRecord record);
+
+}
@@ -0,0 +1,221 @@
+package com.white.backend.shared.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of authentication events, kept apart from the application log.
+ * <p>
+ * {@link #record} encodes the event into a lock-free {@link AuditRingBuffer} and returns; it neither allocates
+ * nor waits, and if the buffer is full the event is dropped and counted rather than delaying the request. One
+ * background thread moves the records into memory-mapped segment files and forces them to disk every
+ * {@code flushInterval}. Records written before a process crash survive it; those in the last
+ * {@code flushInterval} before a power loss may not.
+ * <p>
+ * Written records are passed on to the {@link AuditListener}s on the same thread. The segments are read with
+ * {@link AuditLogReader}.
+ */
+@Slf4j
+public class AuditLog implements DisposableBean {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AuditRingBuffer ring;
+
+    private final AuditSegmentWriter writer;
+
+    private final Clock clock;
+
+    private final List<AuditListener> listeners;
+
+    private final long flushIntervalNanos;
+
+    private final Thread consumer;
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong listenerFailures = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public AuditLog(AuditProperties properties, Clock clock) throws IOException {
+
+        this(properties, clock, List.of());
+
+    }
+
+    public AuditLog(AuditProperties properties, Clock clock, List<AuditListener> listeners) throws IOException {
+
+        this.ring = new AuditRingBuffer(properties.ringCapacity());
+
+        this.writer = new AuditSegmentWriter(properties.directory(), Math.toIntExact(properties.segmentSize().toBytes()),
+                properties.rollInterval(), properties.retention(), clock);
+
+        this.clock = clock;
+
+        this.listeners = List.copyOf(listeners);
+
+        this.flushIntervalNanos = properties.flushInterval().toNanos();
+
+        this.consumer = new Thread(this::consume, "audit-writer");
+
+        consumer.setDaemon(true);
+
+        consumer.start();
+
+    }
+
+    /**
+     * Records an event. Subject and detail are cut to the space of a record, {@value AuditRecord#SUBJECT_BYTES} and
+     * {@value AuditRecord#DETAIL_BYTES} bytes of UTF-8; neither may hold a secret.
+     *
+     * @param subject the user the event is about, e.g. the username, or {@code null} when unknown
+     * @param detail  e.g. the error of a failure, or {@code null}
+     * @return whether the event was queued; {@code false} if it was dropped because the writer fell behind
+     */
+    public boolean record(AuditEventType type, boolean success, String subject, String detail) {
+
+        return ring.offer(clock.millis(), type, success, subject, detail);
+
+    }
+
+    private void consume() {
+
+        long lastForce = System.nanoTime();
+
+        while (running) {
+
+            int drained = 0;
+
+            try {
+
+                drained = drain();
+
+                if (System.nanoTime() - lastForce >= flushIntervalNanos) {
+
+                    lastForce = System.nanoTime();
+
+                    writer.force();
+
+                }
+
+            } catch (RuntimeException e) {
+                countFailure(e);
+            }
+
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+
+        }
+
+    }
+
+    private int drain() {
+
+        return ring.drain((slots, offset) -> {
+
+            try {
+
+                writer.append(slots, offset);
+
+                written.incrementAndGet();
+
+            } catch (IOException | RuntimeException e) {
+
+                countFailure(e);
+
+                return;
+
+            }
+
+            if (!listeners.isEmpty()) {
+                notifyListeners(AuditRecord.decode(slots, offset));
+            }
+
+        });
+
+    }
+
+    /**
+     * Counts a failed write or flush. Only the first is logged, since a broken disk fails every one after it.
+     */
+    private void countFailure(Exception e) {
+
+        if (failed.getAndIncrement() == 0) {
+            log.error("Writing an audit record failed; further failures are only counted", e);
+        }
+
+    }
+
+    private void notifyListeners(AuditRecord record) {
+
+        for (AuditListener listener : listeners) {
+
+            try {
+
+                listener.onRecord(record);
+
+            } catch (RuntimeException e) {
+
+                if (listenerFailures.getAndIncrement() == 0) {
+                    log.error("An audit listener failed; further failures are not logged", e);
+                }
+
+            }
+
+        }
+
+    }
+
+    public long getWritten() {
+
+        return written.get();
+
+    }
+
+    public long getDropped() {
+
+        return ring.getDropped();
+
+    }
+
+    public long getFailed() {
+
+        return failed.get();
+
+    }
+
+    public long getQueued() {
+
+        return ring.getQueued();
+
+    }
+
+    /**
+     * Stops the writer thread and writes what is still queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException, IOException {
+
+        running = false;
+
+        consumer.join(Duration.ofSeconds(5).toMillis());
+
+        drain();
+
+        writer.close();
+
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.white.backend.shared.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads and queries the segments written by {@link AuditLog}, oldest first. Records whose checksum does not match
+ * are skipped and counted.
+ * <p>
+ * Segments are read with plain file reads rather than mapped, so a segment the running application trims while it
+ * is being read cannot fault the reader. Also a command line tool, e.g. through {@code gradle auditQuery}:
+ * <pre>
+ * AuditLogReader --dir audit [--from 2024-05-01T00:00:00Z] [--to ...] [--type LOGIN] [--outcome failure]
+ *                [--subject alice] [--limit 100]
+ * </pre>
+ */
+public class AuditLogReader {
+
+    private static final int RECORDS_PER_READ = 1024;
+
+    private final Path directory;
+
+    private long corruptRecords;
+
+    public AuditLogReader(Path directory) {
+
+        this.directory = directory;
+
+    }
+
+    /**
+     * Filters for {@link #query}; {@code null} fields match everything.
+     */
+    public record Query(Instant from, Instant to, AuditEventType type, Boolean success, String subject) {
+
+        public static final Query ALL = new Query(null, null, null, null, null);
+
+        Predicate<AuditRecord> predicate() {
+
+            return record -> (from == null || !record.timestamp().isBefore(from))
+                    && (to == null || record.timestamp().isBefore(to))
+                    && (type == null || record.type() == type)
+                    && (success == null || record.success() == success)
+                    && (subject == null || record.subject().equals(subject));
+
+        }
+
+    }
+
+    public Stream<AuditRecord> query(Query query) throws IOException {
+
+        return segments().stream()
+                .flatMap(this::records)
+                .filter(query.predicate());
+
+    }
+
+    /**
+     * Records skipped by the queries so far because their checksum did not match.
+     */
+    public long getCorruptRecords() {
+
+        return corruptRecords;
+
+    }
+
+    List<Path> segments() throws IOException {
+
+        List<Path> segments = new ArrayList<>();
+
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, AuditSegmentWriter.PREFIX + "*" + AuditSegmentWriter.SUFFIX)) {
+            paths.forEach(segments::add);
+        }
+
+        segments.sort(null);
+
+        return segments;
+
+    }
+
+    private Stream<AuditRecord> records(Path segment) {
+
+        FileChannel channel;
+
+        try {
+
+            channel = FileChannel.open(segment, StandardOpenOption.READ);
+
+            ByteBuffer header = ByteBuffer.allocate(AuditRecord.BYTES);
+
+            channel.read(header, 0);
+
+            if (header.getInt(0) != AuditSegmentWriter.MAGIC || header.getShort(6) != AuditRecord.BYTES) {
+
+                channel.close();
+
+                throw new IOException("Not an audit segment of this version: " + segment);
+
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Iterator<AuditRecord> iterator = new Iterator<>() {
+
+            private final ByteBuffer chunk = ByteBuffer.allocate(RECORDS_PER_READ * AuditRecord.BYTES);
+
+            private long filePosition = AuditRecord.BYTES;
+
+            private int offset;
+
+            private int limit;
+
+            private AuditRecord next;
+
+            private boolean ended;
+
+            @Override
+            public boolean hasNext() {
+
+                while (next == null && !ended) {
+
+                    if (offset + AuditRecord.BYTES > limit && !fill()) {
+
+                        ended = true;
+
+                        break;
+
+                    }
+
+                    if (AuditRecord.isEnd(chunk, offset)) {
+
+                        ended = true;
+
+                        break;
+
+                    }
+
+                    next = AuditRecord.decode(chunk, offset);
+
+                    if (next == null) {
+                        corruptRecords++;
+                    }
+
+                    offset += AuditRecord.BYTES;
+
+                }
+
+                return next != null;
+
+            }
+
+            @Override
+            public AuditRecord next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                AuditRecord record = next;
+
+                next = null;
+
+                return record;
+
+            }
+
+            private boolean fill() {
+
+                try {
+
+                    chunk.clear();
+
+                    int read = channel.read(chunk, filePosition);
+
+                    limit = read < 0 ? 0 : read - read % AuditRecord.BYTES;
+
+                    filePosition += limit;
+
+                    offset = 0;
+
+                    return limit > 0;
+
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+            }
+
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+
+                });
+
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Path directory = Path.of("audit");
+
+        Instant from = null;
+
+        Instant to = null;
+
+        AuditEventType type = null;
+
+        Boolean success = null;
+
+        String subject = null;
+
+        long limit = Long.MAX_VALUE;
+
+        for (int i = 0; i < args.length; i++) {
+
+            String value = i + 1 < args.length ? args[i + 1] : null;
+
+            switch (args[i]) {
+                case "--dir" -> directory = Path.of(required(args[i], value));
+                case "--from" -> from = Instant.parse(required(args[i], value));
+                case "--to" -> to = Instant.parse(required(args[i], value));
+                case "--type" -> type = AuditEventType.valueOf(required(args[i], value));
+                case "--outcome" -> success = "success".equals(required(args[i], value));
+                case "--subject" -> subject = required(args[i], value);
+                case "--limit" -> limit = Long.parseLong(required(args[i], value));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+
+            i++;
+
+        }
+
+        AuditLogReader reader = new AuditLogReader(directory);
+
+        PrintStream out = System.out;
+
+        out.println("timestamp\tsequence\ttype\toutcome\tsubject\tdetail");
+
+        try (Stream<AuditRecord> records = reader.query(new Query(from, to, type, success, subject))) {
+
+            records.limit(limit).forEach(record -> out.println(record.timestamp() + "\t" + record.sequence() + "\t" + record.type()
+                    + "\t" + (record.success() ? "success" : "failure") + "\t" + record.subject() + "\t" + record.detail()));
+
+        }
+
+        if (reader.getCorruptRecords() > 0) {
+            System.err.println(reader.getCorruptRecords() + " corrupt records skipped");
+        }
+
+    }
+
+    private static String required(String option, String value) {
+
+        if (value == null) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+
+        return value;
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.white.backend.shared.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Where and how the authentication audit trail is written.
+ * <p>
+ * {@code ringCapacity} bounds the records waiting for the writer thread and must be a power of two.
+ */
+@ConfigurationProperties(prefix = "app.audit")
+public record AuditProperties(
+
+        Path directory,
+
+        DataSize segmentSize,
+
+        Duration rollInterval,
+
+        Duration retention,
+
+        int ringCapacity,
+
+        Duration flushInterval
+
+) {
+}
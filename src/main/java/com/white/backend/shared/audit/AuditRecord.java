@@ -0,0 +1,215 @@
+package com.white.backend.shared.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * One audited event. On disk every record takes {@value #BYTES} bytes, big-endian:
+ * <pre>
+ *   0  timestamp, epoch millis (8)
+ *   8  sequence within the writing process (8)
+ *  16  event type code (1)
+ *  17  outcome, 1 for success (1)
+ *  18  subject length (1)
+ *  19  detail length (1)
+ *  20  CRC32C of all other bytes of the record (4)
+ *  24  subject, UTF-8, truncated to {@value #SUBJECT_BYTES} bytes
+ *  80  detail, UTF-8, truncated to {@value #DETAIL_BYTES} bytes
+ * </pre>
+ * A record with a zero timestamp marks the end of the written part of a segment.
+ */
+public record AuditRecord(
+
+        Instant timestamp,
+
+        long sequence,
+
+        AuditEventType type,
+
+        boolean success,
+
+        String subject,
+
+        String detail
+
+) {
+
+    public static final int BYTES = 128;
+
+    public static final int SUBJECT_BYTES = 56;
+
+    static final int DETAIL_BYTES = 48;
+
+    private static final int TIMESTAMP = 0;
+
+    private static final int SEQUENCE = 8;
+
+    private static final int TYPE = 16;
+
+    private static final int OUTCOME = 17;
+
+    private static final int SUBJECT_LENGTH = 18;
+
+    private static final int DETAIL_LENGTH = 19;
+
+    private static final int CHECKSUM = 20;
+
+    private static final int SUBJECT = 24;
+
+    private static final int DETAIL = SUBJECT + SUBJECT_BYTES;
+
+    /**
+     * Encodes a record at {@code offset} without allocating; the checksum is left to {@link #seal}, off the
+     * request path.
+     */
+    static void encode(ByteBuffer buffer, int offset, long timestamp, long sequence, AuditEventType type, boolean success,
+                       String subject, String detail) {
+
+        buffer.putLong(offset + TIMESTAMP, timestamp);
+
+        buffer.putLong(offset + SEQUENCE, sequence);
+
+        buffer.put(offset + TYPE, type.getCode());
+
+        buffer.put(offset + OUTCOME, (byte) (success ? 1 : 0));
+
+        buffer.put(offset + SUBJECT_LENGTH, (byte) putUtf8(buffer, offset + SUBJECT, SUBJECT_BYTES, subject));
+
+        buffer.put(offset + DETAIL_LENGTH, (byte) putUtf8(buffer, offset + DETAIL, DETAIL_BYTES, detail));
+
+    }
+
+    /**
+     * Writes the checksum of the record at {@code offset} of a heap buffer.
+     */
+    static void seal(ByteBuffer buffer, int offset) {
+
+        buffer.putInt(offset + CHECKSUM, checksum(buffer.array(), buffer.arrayOffset() + offset));
+
+    }
+
+    /**
+     * Decodes the record at {@code offset}.
+     *
+     * @return the record, or {@code null} if its checksum does not match
+     */
+    static AuditRecord decode(ByteBuffer buffer, int offset) {
+
+        byte[] bytes = new byte[BYTES];
+
+        buffer.get(offset, bytes);
+
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+
+        if (record.getInt(CHECKSUM) != checksum(bytes, 0)) {
+            return null;
+        }
+
+        return new AuditRecord(
+                Instant.ofEpochMilli(record.getLong(TIMESTAMP)),
+                record.getLong(SEQUENCE),
+                AuditEventType.fromCode(record.get(TYPE)),
+                record.get(OUTCOME) == 1,
+                new String(bytes, SUBJECT, Byte.toUnsignedInt(record.get(SUBJECT_LENGTH)), StandardCharsets.UTF_8),
+                new String(bytes, DETAIL, Byte.toUnsignedInt(record.get(DETAIL_LENGTH)), StandardCharsets.UTF_8));
+
+    }
+
+    static boolean isEnd(ByteBuffer buffer, int offset) {
+
+        return buffer.getLong(offset + TIMESTAMP) == 0;
+
+    }
+
+    private static int checksum(byte[] bytes, int offset) {
+
+        CRC32C crc = new CRC32C();
+
+        crc.update(bytes, offset, CHECKSUM);
+
+        crc.update(bytes, offset + SUBJECT, BYTES - SUBJECT);
+
+        return (int) crc.getValue();
+
+    }
+
+    /**
+     * Writes {@code value} as UTF-8, stopping before the first character that would not fit, and zero-fills the
+     * rest of the field, since slots are reused.
+     *
+     * @return the number of bytes written
+     */
+    private static int putUtf8(ByteBuffer buffer, int offset, int capacity, String value) {
+
+        int length = 0;
+
+        int count = value == null ? 0 : value.length();
+
+        for (int i = 0; i < count; i++) {
+
+            char c = value.charAt(i);
+
+            int codePoint = c;
+
+            if (Character.isSurrogate(c)) {
+
+                boolean pair = Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(value.charAt(i + 1));
+
+                codePoint = pair ? Character.toCodePoint(c, value.charAt(i + 1)) : '?';
+
+            }
+
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+
+            if (length + width > capacity) {
+                break;
+            }
+
+            if (width == 1) {
+
+                buffer.put(offset + length, (byte) codePoint);
+
+            } else if (width == 2) {
+
+                buffer.put(offset + length, (byte) (0xC0 | codePoint >> 6));
+
+                buffer.put(offset + length + 1, (byte) (0x80 | codePoint & 0x3F));
+
+            } else if (width == 3) {
+
+                buffer.put(offset + length, (byte) (0xE0 | codePoint >> 12));
+
+                buffer.put(offset + length + 1, (byte) (0x80 | codePoint >> 6 & 0x3F));
+
+                buffer.put(offset + length + 2, (byte) (0x80 | codePoint & 0x3F));
+
+            } else {
+
+                buffer.put(offset + length, (byte) (0xF0 | codePoint >> 18));
+
+                buffer.put(offset + length + 1, (byte) (0x80 | codePoint >> 12 & 0x3F));
+
+                buffer.put(offset + length + 2, (byte) (0x80 | codePoint >> 6 & 0x3F));
+
+                buffer.put(offset + length + 3, (byte) (0x80 | codePoint & 0x3F));
+
+                // The low surrogate is part of this code point
+                i++;
+
+            }
+
+            length += width;
+
+        }
+
+        for (int i = length; i < capacity; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+
+        return length;
+
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.white.backend.shared.audit;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free queue of encoded audit records with many producers and one consumer.
+ * <p>
+ * A producer claims the next sequence with a compare-and-set, encodes its record straight into that sequence's
+ * slot and marks the slot as published. When every slot is taken it drops the record and counts it instead of
+ * waiting, so a slow disk never holds up a request. The consumer takes published slots in sequence order; a
+ * producer that claimed a slot but has not published it yet holds back the slots behind it.
+ */
+final class AuditRingBuffer {
+
+    /**
+     * Receives one published record, valid until the consumer returns.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(ByteBuffer slots, int offset);
+
+    }
+
+    private final int mask;
+
+    private final ByteBuffer slots;
+
+    // Per slot, the sequence it holds plus one once published; zero while never used
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    AuditRingBuffer(int capacity) {
+
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Audit ring buffer capacity must be a power of two: " + capacity);
+        }
+
+        this.mask = capacity - 1;
+
+        this.slots = ByteBuffer.allocate(capacity * AuditRecord.BYTES);
+
+        this.published = new AtomicLongArray(capacity);
+
+    }
+
+    /**
+     * @return whether the record was queued; {@code false} when the buffer was full and it was dropped
+     */
+    boolean offer(long timestamp, AuditEventType type, boolean success, String subject, String detail) {
+
+        long sequence;
+
+        do {
+
+            sequence = claimed.get();
+
+            if (sequence - consumed.get() > mask) {
+
+                dropped.increment();
+
+                return false;
+
+            }
+
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+
+        AuditRecord.encode(slots, slot * AuditRecord.BYTES, timestamp, sequence, type, success, subject, detail);
+
+        published.lazySet(slot, sequence + 1);
+
+        return true;
+
+    }
+
+    /**
+     * Hands every record published in sequence order since the last call to {@code consumer}.
+     *
+     * @return the number of records handed over
+     */
+    int drain(RecordConsumer consumer) {
+
+        long next = consumed.get();
+
+        int count = 0;
+
+        while (true) {
+
+            int slot = (int) next & mask;
+
+            if (published.get(slot) != next + 1) {
+                return count;
+            }
+
+            consumer.accept(slots, slot * AuditRecord.BYTES);
+
+            next++;
+
+            count++;
+
+            // Frees the slot for producers only after it has been copied
+            consumed.lazySet(next);
+
+        }
+
+    }
+
+    long getQueued() {
+
+        return claimed.get() - consumed.get();
+
+    }
+
+    long getDropped() {
+
+        return dropped.sum();
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.white.backend.shared.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Appends records to memory-mapped segment files of a fixed size. A new segment is started when the current one is
+ * full or older than {@code rollInterval}; on every roll, segments last written more than {@code retention} ago are
+ * deleted.
+ * <p>
+ * Segments are named {@code audit-<UTC start time>-<random>.seg}, so their names sort in the order they were
+ * started. Each starts with a header the size of one record:
+ * <pre>
+ * magic (4) | version (2) | record size (2) | created at, epoch millis (8) | zeros
+ * </pre>
+ * Only the consumer thread of the {@link AuditLog} uses a writer.
+ */
+@Slf4j
+final class AuditSegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x41554454;
+
+    static final short VERSION = 1;
+
+    static final String PREFIX = "audit-";
+
+    static final String SUFFIX = ".seg";
+
+    private static final DateTimeFormatter NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+
+    private final int segmentBytes;
+
+    private final Duration rollInterval;
+
+    private final Duration retention;
+
+    private final Clock clock;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private int position;
+
+    private long segmentStarted;
+
+    private long lastNamed;
+
+    private boolean dirty;
+
+    AuditSegmentWriter(Path directory, int segmentBytes, Duration rollInterval, Duration retention, Clock clock) throws IOException {
+
+        if (segmentBytes < 2 * AuditRecord.BYTES) {
+            throw new IllegalArgumentException("An audit segment must hold at least one record: " + segmentBytes);
+        }
+
+        this.directory = directory;
+
+        this.segmentBytes = segmentBytes - segmentBytes % AuditRecord.BYTES;
+
+        this.rollInterval = rollInterval;
+
+        this.retention = retention;
+
+        this.clock = clock;
+
+        Files.createDirectories(directory);
+
+    }
+
+    /**
+     * Seals the record at {@code offset} of {@code slots} with its checksum and appends it to the current segment.
+     */
+    void append(ByteBuffer slots, int offset) throws IOException {
+
+        if (segment == null || position + AuditRecord.BYTES > segmentBytes || clock.millis() - segmentStarted >= rollInterval.toMillis()) {
+            roll();
+        }
+
+        AuditRecord.seal(slots, offset);
+
+        segment.put(position, slots, offset, AuditRecord.BYTES);
+
+        position += AuditRecord.BYTES;
+
+        dirty = true;
+
+    }
+
+    /**
+     * Flushes the records appended since the last call to the storage device.
+     */
+    void force() {
+
+        if (dirty && segment != null) {
+
+            segment.force();
+
+            dirty = false;
+
+        }
+
+    }
+
+    private void roll() throws IOException {
+
+        closeSegment();
+
+        long now = clock.millis();
+
+        // Segments rolled within the same millisecond still sort in order
+        lastNamed = Math.max(now, lastNamed + 1);
+
+        String name = PREFIX + NAME_TIME.format(Instant.ofEpochMilli(lastNamed)) + "-"
+                + HexFormat.of().toHexDigits((short) ThreadLocalRandom.current().nextInt()) + SUFFIX;
+
+        Path path = directory.resolve(name);
+
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+
+            segment = opened.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+
+        } catch (IOException | RuntimeException e) {
+
+            opened.close();
+
+            throw e;
+
+        }
+
+        channel = opened;
+
+        segment.putInt(0, MAGIC);
+
+        segment.putShort(4, VERSION);
+
+        segment.putShort(6, (short) AuditRecord.BYTES);
+
+        segment.putLong(8, now);
+
+        position = AuditRecord.BYTES;
+
+        segmentStarted = now;
+
+        dirty = true;
+
+        log.info("Started audit segment {}", path);
+
+        deleteExpiredSegments(path);
+
+    }
+
+    private void deleteExpiredSegments(Path current) {
+
+        long cutoff = clock.millis() - retention.toMillis();
+
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+
+            for (Path path : segments) {
+
+                if (!path.equals(current) && Files.getLastModifiedTime(path).toMillis() < cutoff) {
+
+                    Files.delete(path);
+
+                    log.info("Deleted audit segment {} past its retention", path);
+
+                }
+
+            }
+
+        } catch (IOException e) {
+            log.warn("Deleting expired audit segments failed: {}", e.toString());
+        }
+
+    }
+
+    /**
+     * Forces the current segment and trims it to the records written, so a closed segment takes no more space
+     * than it needs. The segment is let go even if that fails, so the next append starts a new one.
+     */
+    private void closeSegment() throws IOException {
+
+        if (segment == null) {
+            return;
+        }
+
+        try (FileChannel closing = channel) {
+
+            segment.force();
+
+            closing.truncate(position);
+
+        } finally {
+
+            segment = null;
+
+            channel = null;
+
+            dirty = false;
+
+        }
+
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        closeSegment();
+
+    }
+
+}
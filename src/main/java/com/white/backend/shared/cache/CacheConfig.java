@@ -0,0 +1,172 @@
+package com.white.backend.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * Builds one bounded Caffeine cache per configured region. Regions are fixed at startup, so a typo in a
+     * {@code @Cacheable} name fails fast instead of silently creating an unbounded cache.
+     * <p>
+     * With the invalidation bus enabled, every region broadcasts its evictions and applies those of the other nodes.
+     * With snapshots enabled, the regions that have a codec load their misses from the previous run's snapshot.
+     * <p>
+     * Puts and evictions made inside a transaction are applied after it commits, so a read racing the commit cannot
+     * re-cache the row an {@code @CacheEvict} has just dropped.
+     */
+    @Bean
+    CacheManager cacheManager(CacheProperties cacheProperties, ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+                              ObjectProvider<CacheSnapshotStore> cacheSnapshotStore) {
+
+        CacheInvalidationBus bus = cacheInvalidationBus.getIfAvailable();
+
+        CacheSnapshotStore snapshot = cacheSnapshotStore.getIfAvailable();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+
+                return new RegionCache(name, cache, isAllowNullValues(), bus, snapshot != null && snapshot.handles(name) ? snapshot : null);
+
+            }
+
+        };
+
+        cacheManager.setAllowNullValues(false);
+
+        // An empty name set switches off dynamic cache creation
+        cacheManager.setCacheNames(Set.of());
+
+        cacheProperties.regions().forEach((region, spec) -> {
+
+            Caffeine<Object, Object> builder = Caffeine.from(spec).recordStats();
+
+            if (snapshot != null && snapshot.handles(region)) {
+
+                // A loading cache asks the snapshot on every miss before @Cacheable falls back to the database
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = builder.build(key -> snapshot.load(region, key));
+
+                snapshot.track(region, cache);
+
+                cacheManager.registerCustomCache(region, cache);
+
+            } else {
+
+                cacheManager.registerCustomCache(region, builder.build());
+
+            }
+
+        });
+
+        if (bus != null) {
+
+            bus.subscribe(invalidation -> {
+
+                if (cacheManager.getCache(invalidation.region()) instanceof RegionCache cache) {
+                    cache.apply(invalidation);
+                }
+
+            });
+
+        }
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.snapshot", name = "enabled", havingValue = "true")
+    CacheSnapshotStore cacheSnapshotStore(CacheProperties cacheProperties, List<CacheSnapshotCodec<?>> codecs) {
+
+        CacheProperties.Snapshot snapshot = cacheProperties.snapshot();
+
+        return new CacheSnapshotStore(snapshot.path(), snapshot.interval(), snapshot.maxAge(), codecs, Clock.systemUTC());
+
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "enabled", havingValue = "true")
+    CacheInvalidationBus cacheInvalidationBus(CacheProperties cacheProperties) throws IOException {
+
+        CacheProperties.Invalidation invalidation = cacheProperties.invalidation();
+
+        CacheProperties.Multicast multicast = invalidation.multicast();
+
+        InvalidationTransport transport = switch (invalidation.transport()) {
+            case LOOPBACK -> new LoopbackTransport();
+            case MULTICAST -> new MulticastTransport(multicast.group(), multicast.port(), multicast.networkInterface(), multicast.timeToLive());
+        };
+
+        return new CacheInvalidationBus(transport, invalidation.flushInterval(), invalidation.maxBatchSize(), invalidation.maxMessageBytes());
+
+    }
+
+    @Bean
+    MeterBinder cacheSnapshotMetrics(ObjectProvider<CacheSnapshotStore> cacheSnapshotStoreProvider) {
+
+        return registry -> cacheSnapshotStoreProvider.ifAvailable(cacheSnapshotStore -> {
+
+            Gauge.builder("app.cache.snapshot.loaded", cacheSnapshotStore, CacheSnapshotStore::getLoaded)
+                    .description("Entries indexed from the snapshot found at start-up")
+                    .register(registry);
+
+            FunctionCounter.builder("app.cache.snapshot.served", cacheSnapshotStore, CacheSnapshotStore::getServed)
+                    .description("Cache misses answered from the snapshot")
+                    .register(registry);
+
+            Gauge.builder("app.cache.snapshot.written", cacheSnapshotStore, CacheSnapshotStore::getLastWritten)
+                    .description("Entries in the last snapshot written")
+                    .register(registry);
+
+        });
+
+    }
+
+    @Bean
+    MeterBinder cacheInvalidationMetrics(ObjectProvider<CacheInvalidationBus> cacheInvalidationBusProvider) {
+
+        return registry -> cacheInvalidationBusProvider.ifAvailable(cacheInvalidationBus -> {
+
+            FunctionCounter.builder("app.cache.invalidation.published", cacheInvalidationBus, CacheInvalidationBus::getPublished)
+                    .description("Invalidations published by this node")
+                    .register(registry);
+
+            FunctionCounter.builder("app.cache.invalidation.coalesced", cacheInvalidationBus, CacheInvalidationBus::getCoalesced)
+                    .description("Published invalidations merged into one already pending")
+                    .register(registry);
+
+            FunctionCounter.builder("app.cache.invalidation.messages", cacheInvalidationBus, CacheInvalidationBus::getSentMessages)
+                    .description("Invalidation messages sent to the other nodes")
+                    .register(registry);
+
+            FunctionCounter.builder("app.cache.invalidation.received", cacheInvalidationBus, CacheInvalidationBus::getReceived)
+                    .description("Invalidations received from the other nodes")
+                    .register(registry);
+
+        });
+
+    }
+
+}
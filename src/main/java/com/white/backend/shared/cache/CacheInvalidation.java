@@ -0,0 +1,21 @@
+package com.white.backend.shared.cache;
+
+/**
+ * Drops one entry of a cache region on the other nodes, or the whole region when {@code key} is {@code null}.
+ * Keys travel as strings, so a region whose keys are not strings is always cleared as a whole.
+ */
+public record CacheInvalidation(
+
+        String region,
+
+        String key
+
+) {
+
+    public boolean clearsRegion() {
+
+        return key == null;
+
+    }
+
+}
@@ -0,0 +1,257 @@
+package com.white.backend.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tells the other nodes which cache entries this node has invalidated, so their in-process caches do not keep
+ * serving rows that were written here.
+ * <p>
+ * Invalidations published inside a transaction are held back until it commits; after a rollback there is nothing
+ * to invalidate. Pending invalidations are coalesced, so a key invalidated repeatedly, or a key of a region that is
+ * cleared as a whole, is sent once. They are sent every {@code flushInterval}, or as soon as {@code maxBatchSize}
+ * are pending. Received invalidations are handed to the subscribers, except for this node's own.
+ */
+@Slf4j
+public class CacheInvalidationBus implements DisposableBean {
+
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final InvalidationTransport transport;
+
+    private final int maxBatchSize;
+
+    private final int maxMessageBytes;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final Set<CacheInvalidation> pending = new LinkedHashSet<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+        Thread thread = new Thread(runnable, "cache-invalidation-flush");
+
+        thread.setDaemon(true);
+
+        return thread;
+
+    });
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong sentMessages = new AtomicLong();
+
+    private final AtomicLong received = new AtomicLong();
+
+    public CacheInvalidationBus(InvalidationTransport transport, Duration flushInterval, int maxBatchSize, int maxMessageBytes) throws IOException {
+
+        this.transport = transport;
+
+        this.maxBatchSize = maxBatchSize;
+
+        this.maxMessageBytes = maxMessageBytes;
+
+        transport.start(this::receive);
+
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Invalidates {@code key} of {@code region} on the other nodes, or the whole region when {@code key} is
+     * {@code null}. Within a transaction the invalidation is sent after it commits.
+     */
+    public void publish(String region, String key) {
+
+        CacheInvalidation invalidation = new CacheInvalidation(region, key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            // afterCompletion rather than afterCommit: evictions deferred by the transaction-aware cache decorator
+            // are published from within afterCommit, too late to be called back there themselves
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(invalidation);
+                    }
+
+                }
+
+            });
+
+            return;
+
+        }
+
+        enqueue(invalidation);
+
+    }
+
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+
+        subscribers.add(subscriber);
+
+    }
+
+    private void enqueue(CacheInvalidation invalidation) {
+
+        published.incrementAndGet();
+
+        boolean full;
+
+        synchronized (pending) {
+
+            if (invalidation.clearsRegion()) {
+
+                int before = pending.size();
+
+                pending.removeIf(each -> each.region().equals(invalidation.region()));
+
+                coalesced.addAndGet(before - pending.size());
+
+            } else if (pending.contains(new CacheInvalidation(invalidation.region(), null))) {
+
+                coalesced.incrementAndGet();
+
+                return;
+
+            }
+
+            if (!pending.add(invalidation)) {
+                coalesced.incrementAndGet();
+            }
+
+            full = pending.size() >= maxBatchSize;
+
+        }
+
+        if (full) {
+            flusher.execute(this::flush);
+        }
+
+    }
+
+    /**
+     * Sends everything pending. Runs on the flush thread, so messages leave in the order they were batched.
+     */
+    void flush() {
+
+        List<CacheInvalidation> batch;
+
+        synchronized (pending) {
+
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            batch = new ArrayList<>(pending);
+
+            pending.clear();
+
+        }
+
+        try {
+
+            for (byte[] message : InvalidationCodec.encode(nodeId, batch, maxMessageBytes)) {
+
+                transport.send(message);
+
+                sentMessages.incrementAndGet();
+
+            }
+
+        } catch (Exception e) {
+            log.warn("Sending {} cache invalidations failed; other nodes keep them until they expire: {}", batch.size(), e.toString());
+        }
+
+    }
+
+    private void receive(byte[] message) {
+
+        InvalidationCodec.Message decoded;
+
+        try {
+
+            decoded = InvalidationCodec.decode(message);
+
+        } catch (IOException e) {
+
+            log.warn("Dropping a malformed cache invalidation message: {}", e.toString());
+
+            return;
+
+        }
+
+        if (decoded.origin().equals(nodeId)) {
+            return;
+        }
+
+        for (CacheInvalidation invalidation : decoded.invalidations()) {
+
+            subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+
+            received.incrementAndGet();
+
+        }
+
+    }
+
+    public long getPublished() {
+
+        return published.get();
+
+    }
+
+    public long getCoalesced() {
+
+        return coalesced.get();
+
+    }
+
+    public long getSentMessages() {
+
+        return sentMessages.get();
+
+    }
+
+    public long getReceived() {
+
+        return received.get();
+
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+
+        flusher.shutdown();
+
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+
+        flush();
+
+        transport.close();
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.white.backend.shared.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cache regions and their Caffeine specifications, e.g. {@code maximumSize=10000,expireAfterWrite=10m}, how
+ * their invalidations reach the other nodes, and how they are snapshotted for the next start.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheProperties(
+
+        Map<String, String> regions,
+
+        Invalidation invalidation,
+
+        Snapshot snapshot
+
+) {
+
+    /**
+     * An entry loaded from the snapshot starts a new {@code expireAfterWrite} period, so it can outlive the region's
+     * expiry by up to {@code maxAge}.
+     */
+    public record Snapshot(
+
+            boolean enabled,
+
+            Path path,
+
+            Duration interval,
+
+            Duration maxAge
+
+    ) {
+    }
+
+    /**
+     * {@code maxMessageBytes} bounds one encoded message; batches that do not fit are split.
+     */
+    public record Invalidation(
+
+            boolean enabled,
+
+            Transport transport,
+
+            Duration flushInterval,
+
+            int maxBatchSize,
+
+            int maxMessageBytes,
+
+            Multicast multicast
+
+    ) {
+    }
+
+    public enum Transport {
+
+        LOOPBACK,
+
+        MULTICAST
+
+    }
+
+    /**
+     * An empty {@code networkInterface} leaves the choice to the operating system.
+     */
+    public record Multicast(
+
+            String group,
+
+            int port,
+
+            String networkInterface,
+
+            int timeToLive
+
+    ) {
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.white.backend.shared.cache;
+
+/**
+ * Names of the cache regions configured under {@code app.cache.regions}.
+ */
+public final class CacheRegions {
+
+    /**
+     * Image metadata keyed by Cloudinary public ID.
+     */
+    public static final String IMAGES = "images";
+
+    private CacheRegions() {
+    }
+
+}
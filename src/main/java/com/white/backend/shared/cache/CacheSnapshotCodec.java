@@ -0,0 +1,21 @@
+package com.white.backend.shared.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads the values of one cache region in the binary snapshot. Registered as a bean by the module that
+ * owns the region; regions without a codec are not snapshotted.
+ */
+public interface CacheSnapshotCodec<V> {
+
+    String region();
+
+    Class<V> type();
+
+    void write(V value, DataOutput out) throws IOException;
+
+    V read(DataInput in) throws IOException;
+
+}
@@ -0,0 +1,537 @@
+package com.white.backend.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the cache regions that have a {@link CacheSnapshotCodec} to a memory-mapped file every {@code interval}
+ * and on shutdown, and serves a restarted node's cache misses from that file, so it does not send every first
+ * lookup to the database.
+ * <p>
+ * At start-up the file is mapped and only the keys are indexed; a value is decoded from the mapping on the first
+ * miss of its key, and at most once. Evictions and invalidations drop the key from the index, so an entry
+ * invalidated after the restart is never served from the file. Writes made by other nodes while this one was down
+ * are not seen, which is why a snapshot older than {@code maxAge} is ignored.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ * magic (4) | version (1) | written at, epoch millis (8) | region count (4)
+ * per region: name | entry count (4) | entries: key | value length (4) | value
+ * </pre>
+ * Names and keys are length-prefixed UTF-8 with a two byte length.
+ */
+@Slf4j
+public class CacheSnapshotStore implements DisposableBean {
+
+    static final int MAGIC = 0x424B4353;
+
+    static final byte VERSION = 1;
+
+    private record Slot(int position, int length) {
+    }
+
+    private final Path path;
+
+    private final Duration maxAge;
+
+    private final Clock clock;
+
+    private final Map<String, CacheSnapshotCodec<?>> codecs;
+
+    private final Map<String, Cache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, Slot>> index = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+        Thread thread = new Thread(runnable, "cache-snapshot-writer");
+
+        thread.setDaemon(true);
+
+        return thread;
+
+    });
+
+    private final AtomicLong loaded = new AtomicLong();
+
+    private final AtomicLong served = new AtomicLong();
+
+    private final AtomicLong lastWritten = new AtomicLong();
+
+    private volatile ByteBuffer mapping;
+
+    public CacheSnapshotStore(Path path, Duration interval, Duration maxAge, List<CacheSnapshotCodec<?>> codecs, Clock clock) {
+
+        this.path = path;
+
+        this.maxAge = maxAge;
+
+        this.clock = clock;
+
+        this.codecs = codecs.stream().collect(Collectors.toMap(CacheSnapshotCodec::region, Function.identity()));
+
+        open();
+
+        writer.scheduleWithFixedDelay(this::write, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+
+    }
+
+    public boolean handles(String region) {
+
+        return codecs.containsKey(region);
+
+    }
+
+    /**
+     * Includes {@code cache} in the snapshots written from now on.
+     */
+    public void track(String region, Cache<Object, Object> cache) {
+
+        regions.put(region, cache);
+
+    }
+
+    /**
+     * Decodes the value of {@code key} from the mapped snapshot and forgets it, so a later miss goes to the caller's
+     * loader.
+     *
+     * @return the value, or {@code null} when the snapshot has no usable entry for the key
+     */
+    public Object load(String region, Object key) {
+
+        Map<String, Slot> slots = index.get(region);
+
+        if (slots == null || !(key instanceof String string)) {
+            return null;
+        }
+
+        Slot slot = slots.remove(string);
+
+        if (slot == null) {
+            return null;
+        }
+
+        try {
+
+            Object value = codecs.get(region).read(new DataInputStream(new BufferInput(mapping.slice(slot.position(), slot.length()))));
+
+            served.incrementAndGet();
+
+            return value;
+
+        } catch (IOException | RuntimeException e) {
+
+            log.warn("Skipping the snapshot entry {} of {}: {}", string, region, e.toString());
+
+            return null;
+
+        }
+
+    }
+
+    /**
+     * Makes sure {@code key}, or the whole region when {@code key} is {@code null}, is not served from the snapshot.
+     */
+    public void forget(String region, String key) {
+
+        Map<String, Slot> slots = index.get(region);
+
+        if (slots == null) {
+            return;
+        }
+
+        if (key == null) {
+            slots.clear();
+        } else {
+            slots.remove(key);
+        }
+
+    }
+
+    private void open() {
+
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (mapped.getInt() != MAGIC || mapped.get() != VERSION) {
+
+                log.warn("Ignoring {}: not a cache snapshot of this version", path);
+
+                return;
+
+            }
+
+            Duration age = Duration.ofMillis(clock.millis() - mapped.getLong());
+
+            if (age.compareTo(maxAge) > 0) {
+
+                log.info("Ignoring the cache snapshot {}: written {} ago, more than {}", path, age, maxAge);
+
+                return;
+
+            }
+
+            int regionCount = mapped.getInt();
+
+            for (int i = 0; i < regionCount; i++) {
+
+                String region = readString(mapped);
+
+                int entries = mapped.getInt();
+
+                Map<String, Slot> slots = new ConcurrentHashMap<>(entries * 4 / 3 + 1);
+
+                for (int j = 0; j < entries; j++) {
+
+                    String key = readString(mapped);
+
+                    int length = mapped.getInt();
+
+                    slots.put(key, new Slot(mapped.position(), length));
+
+                    mapped.position(mapped.position() + length);
+
+                }
+
+                if (codecs.containsKey(region)) {
+
+                    index.put(region, slots);
+
+                    loaded.addAndGet(entries);
+
+                }
+
+            }
+
+            mapping = mapped;
+
+            log.info("Mapped the cache snapshot {}: {} entries, written {} ago", path, loaded.get(), age);
+
+        } catch (IOException | RuntimeException e) {
+
+            index.clear();
+
+            loaded.set(0);
+
+            log.warn("Ignoring the unreadable cache snapshot {}: {}", path, e.toString());
+
+        }
+
+    }
+
+    /**
+     * Writes the tracked regions to a temporary file and moves it over the snapshot, so a crash mid-write leaves
+     * the previous snapshot in place. Entries are encoded straight into the mapping, one window at a time, so the
+     * heap never holds more than one encoded value.
+     */
+    void write() {
+
+        try {
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+            long entries = 0;
+
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                MappedOutput output = new MappedOutput(channel);
+
+                DataOutputStream out = new DataOutputStream(output);
+
+                out.writeInt(MAGIC);
+
+                out.writeByte(VERSION);
+
+                out.writeLong(clock.millis());
+
+                Map<String, Cache<Object, Object>> snapshotted = new LinkedHashMap<>(regions);
+
+                out.writeInt(snapshotted.size());
+
+                ByteArrayOutputStream value = new ByteArrayOutputStream();
+
+                for (Map.Entry<String, Cache<Object, Object>> region : snapshotted.entrySet()) {
+
+                    entries += writeRegion(region.getKey(), region.getValue(), out, output, value);
+
+                }
+
+                output.finish();
+
+            }
+
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            lastWritten.set(entries);
+
+            log.debug("Wrote {} cache entries to {}", entries, path);
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing the cache snapshot {} failed: {}", path, e.toString());
+        }
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> int writeRegion(String region, Cache<Object, Object> cache, DataOutputStream out, MappedOutput output,
+                                ByteArrayOutputStream value) throws IOException {
+
+        CacheSnapshotCodec<V> codec = (CacheSnapshotCodec<V>) codecs.get(region);
+
+        byte[] name = region.getBytes(StandardCharsets.UTF_8);
+
+        out.writeShort(name.length);
+
+        out.write(name);
+
+        // The entry count is only known once the region has been written, so it is filled in afterwards
+        long countPosition = output.position();
+
+        out.writeInt(0);
+
+        int count = 0;
+
+        for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+
+            if (!(entry.getKey() instanceof String key) || !codec.type().isInstance(entry.getValue())) {
+                continue;
+            }
+
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+            if (keyBytes.length > 0xFFFF) {
+                continue;
+            }
+
+            value.reset();
+
+            codec.write((V) entry.getValue(), new DataOutputStream(value));
+
+            out.writeShort(keyBytes.length);
+
+            out.write(keyBytes);
+
+            out.writeInt(value.size());
+
+            value.writeTo(out);
+
+            count++;
+
+        }
+
+        output.patchInt(countPosition, count);
+
+        return count;
+
+    }
+
+    private static String readString(ByteBuffer buffer) {
+
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+
+    }
+
+    public long getLoaded() {
+
+        return loaded.get();
+
+    }
+
+    public long getServed() {
+
+        return served.get();
+
+    }
+
+    public long getLastWritten() {
+
+        return lastWritten.get();
+
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+
+        writer.shutdown();
+
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+
+        write();
+
+    }
+
+    /**
+     * Reads a slice of the mapping without copying it.
+     */
+    private static final class BufferInput extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInput(ByteBuffer buffer) {
+
+            this.buffer = buffer;
+
+        }
+
+        @Override
+        public int read() {
+
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+
+            buffer.get(bytes, offset, count);
+
+            return count;
+
+        }
+
+    }
+
+    /**
+     * Writes to a file through a mapping of {@link #WINDOW} bytes that moves on as it fills, growing the file ahead
+     * of the data; {@link #finish} cuts the file back to what was written.
+     */
+    private static final class MappedOutput extends OutputStream {
+
+        private static final int WINDOW = 1 << 20;
+
+        private final FileChannel channel;
+
+        private MappedByteBuffer window;
+
+        private long windowStart;
+
+        private MappedOutput(FileChannel channel) throws IOException {
+
+            this.channel = channel;
+
+            this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW);
+
+        }
+
+        private long position() {
+
+            return windowStart + window.position();
+
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            if (!window.hasRemaining()) {
+                advance();
+            }
+
+            window.put((byte) b);
+
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+
+            while (length > 0) {
+
+                if (!window.hasRemaining()) {
+                    advance();
+                }
+
+                int count = Math.min(length, window.remaining());
+
+                window.put(bytes, offset, count);
+
+                offset += count;
+
+                length -= count;
+
+            }
+
+        }
+
+        /**
+         * Overwrites four bytes already written, which may lie in an earlier window.
+         */
+        private void patchInt(long position, int value) throws IOException {
+
+            if (position >= windowStart) {
+
+                window.putInt((int) (position - windowStart), value);
+
+            } else {
+
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+
+            }
+
+        }
+
+        private void advance() throws IOException {
+
+            window.force();
+
+            windowStart += WINDOW;
+
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW);
+
+        }
+
+        private void finish() throws IOException {
+
+            window.force();
+
+            channel.truncate(position());
+
+        }
+
+    }
+
+}
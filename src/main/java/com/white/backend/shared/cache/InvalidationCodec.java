@@ -0,0 +1,165 @@
+package com.white.backend.shared.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary form of a batch of invalidations:
+ * <pre>
+ * version (1 byte) | origin node (16 bytes) | count (2 bytes) | count x (region | has key (1 byte) [| key])
+ * </pre>
+ * Strings are written as modified UTF-8 with a two byte length. A batch is split over as many messages as it
+ * takes to keep each of them within the size limit, so it fits one datagram.
+ */
+final class InvalidationCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int HEADER_BYTES = 1 + 16 + 2;
+
+    private InvalidationCodec() {
+    }
+
+    record Message(UUID origin, List<CacheInvalidation> invalidations) {
+    }
+
+    static List<byte[]> encode(UUID origin, Collection<CacheInvalidation> invalidations, int maxBytes) {
+
+        List<byte[]> messages = new ArrayList<>();
+
+        List<CacheInvalidation> current = new ArrayList<>();
+
+        int size = HEADER_BYTES;
+
+        for (CacheInvalidation invalidation : invalidations) {
+
+            int entryBytes = entryBytes(invalidation);
+
+            if (HEADER_BYTES + entryBytes > maxBytes) {
+                throw new IllegalArgumentException("Invalidation of " + invalidation.region() + " does not fit in " + maxBytes + " bytes");
+            }
+
+            if (size + entryBytes > maxBytes || current.size() == 0xFFFF) {
+
+                messages.add(write(origin, current));
+
+                current.clear();
+
+                size = HEADER_BYTES;
+
+            }
+
+            current.add(invalidation);
+
+            size += entryBytes;
+
+        }
+
+        if (!current.isEmpty()) {
+            messages.add(write(origin, current));
+        }
+
+        return messages;
+
+    }
+
+    static Message decode(byte[] message) throws IOException {
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+
+        byte version = in.readByte();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported invalidation message version " + version);
+        }
+
+        UUID origin = new UUID(in.readLong(), in.readLong());
+
+        int count = in.readUnsignedShort();
+
+        List<CacheInvalidation> invalidations = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            String region = in.readUTF();
+
+            String key = in.readBoolean() ? in.readUTF() : null;
+
+            invalidations.add(new CacheInvalidation(region, key));
+
+        }
+
+        return new Message(origin, invalidations);
+
+    }
+
+    private static byte[] write(UUID origin, List<CacheInvalidation> invalidations) {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+
+            out.writeByte(VERSION);
+
+            out.writeLong(origin.getMostSignificantBits());
+
+            out.writeLong(origin.getLeastSignificantBits());
+
+            out.writeShort(invalidations.size());
+
+            for (CacheInvalidation invalidation : invalidations) {
+
+                out.writeUTF(invalidation.region());
+
+                out.writeBoolean(!invalidation.clearsRegion());
+
+                if (!invalidation.clearsRegion()) {
+                    out.writeUTF(invalidation.key());
+                }
+
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+
+    }
+
+    private static int entryBytes(CacheInvalidation invalidation) {
+
+        int bytes = 2 + utf8Length(invalidation.region()) + 1;
+
+        return invalidation.clearsRegion() ? bytes : bytes + 2 + utf8Length(invalidation.key());
+
+    }
+
+    /**
+     * Length in modified UTF-8, as written by {@link DataOutputStream#writeUTF(String)}.
+     */
+    private static int utf8Length(String value) {
+
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+
+            length += c >= 0x01 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+
+        }
+
+        return length;
+
+    }
+
+}
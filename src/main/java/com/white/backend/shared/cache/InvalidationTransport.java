@@ -0,0 +1,24 @@
+package com.white.backend.shared.cache;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded invalidation messages between the nodes. Delivery is best effort: a lost message leaves the
+ * other nodes with entries that stay stale until they expire.
+ * <p>
+ * A transport may deliver a node's own messages back to it; the {@link CacheInvalidationBus} drops them.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Starts delivering the messages of all nodes to {@code receiver}, on a thread of the transport.
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    void send(byte[] message) throws IOException;
+
+    @Override
+    void close();
+
+}
@@ -0,0 +1,42 @@
+package com.white.backend.shared.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Connects the application contexts of one JVM, so several nodes can be run and tested in a single process.
+ * Messages are delivered synchronously on the sending thread.
+ */
+public class LoopbackTransport implements InvalidationTransport {
+
+    private static final List<Consumer<byte[]>> RECEIVERS = new CopyOnWriteArrayList<>();
+
+    private Consumer<byte[]> receiver;
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+
+        this.receiver = receiver;
+
+        RECEIVERS.add(receiver);
+
+    }
+
+    @Override
+    public void send(byte[] message) {
+
+        for (Consumer<byte[]> each : RECEIVERS) {
+            each.accept(message.clone());
+        }
+
+    }
+
+    @Override
+    public void close() {
+
+        RECEIVERS.remove(receiver);
+
+    }
+
+}
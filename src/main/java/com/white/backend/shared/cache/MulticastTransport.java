@@ -0,0 +1,113 @@
+package com.white.backend.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Sends every message as one UDP datagram to a multicast group that all nodes join. Nodes find each other without
+ * any list of peers; the network between them must route multicast, which many container networks do not.
+ * <p>
+ * Multicast loopback stays on, so several nodes on one host receive each other's messages.
+ */
+@Slf4j
+public class MulticastTransport implements InvalidationTransport {
+
+    private static final int MAX_DATAGRAM_BYTES = 65_507;
+
+    private final InetSocketAddress group;
+
+    private final NetworkInterface networkInterface;
+
+    private final int timeToLive;
+
+    private MulticastSocket socket;
+
+    public MulticastTransport(String group, int port, String networkInterface, int timeToLive) throws IOException {
+
+        this.group = new InetSocketAddress(InetAddress.getByName(group), port);
+
+        this.networkInterface = networkInterface == null || networkInterface.isBlank()
+                ? null
+                : NetworkInterface.getByName(networkInterface);
+
+        if (networkInterface != null && !networkInterface.isBlank() && this.networkInterface == null) {
+            throw new SocketException("No network interface named " + networkInterface);
+        }
+
+        this.timeToLive = timeToLive;
+
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+
+        socket = new MulticastSocket(group.getPort());
+
+        socket.setTimeToLive(timeToLive);
+
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+
+        socket.joinGroup(group, networkInterface);
+
+        Thread thread = new Thread(() -> receive(receiver), "cache-invalidation-receiver");
+
+        thread.setDaemon(true);
+
+        thread.start();
+
+    }
+
+    private void receive(Consumer<byte[]> receiver) {
+
+        DatagramPacket packet = new DatagramPacket(new byte[MAX_DATAGRAM_BYTES], MAX_DATAGRAM_BYTES);
+
+        while (!socket.isClosed()) {
+
+            try {
+
+                packet.setLength(MAX_DATAGRAM_BYTES);
+
+                socket.receive(packet);
+
+                receiver.accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
+
+            } catch (IOException e) {
+
+                if (!socket.isClosed()) {
+                    log.warn("Receiving a cache invalidation failed: {}", e.toString());
+                }
+
+            }
+
+        }
+
+    }
+
+    @Override
+    public void send(byte[] message) throws IOException {
+
+        socket.send(new DatagramPacket(message, message.length, group));
+
+    }
+
+    @Override
+    public void close() {
+
+        if (socket != null) {
+            socket.close();
+        }
+
+    }
+
+}
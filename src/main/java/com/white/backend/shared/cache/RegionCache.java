@@ -0,0 +1,109 @@
+package com.white.backend.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A {@link CaffeineCache} whose evictions and clears also reach the other nodes and the snapshot of the previous
+ * run.
+ * <p>
+ * With a {@link CacheInvalidationBus}, evictions are published, so {@code @CacheEvict} and programmatic evictions
+ * reach the other nodes without further code at the call sites. Invalidations received from other nodes go
+ * through {@link #apply}, straight to the native cache, so they are not published again. With a
+ * {@link CacheSnapshotStore}, every eviction and invalidation also drops the key from the snapshot, so it is never
+ * served from there afterwards.
+ */
+public class RegionCache extends CaffeineCache {
+
+    private final CacheInvalidationBus bus;
+
+    private final CacheSnapshotStore snapshot;
+
+    /**
+     * @param bus      the bus to publish evictions on, or {@code null} to keep them on this node
+     * @param snapshot the snapshot backing the cache's loader, or {@code null}
+     */
+    public RegionCache(String name, Cache<Object, Object> cache, boolean allowNullValues, CacheInvalidationBus bus, CacheSnapshotStore snapshot) {
+
+        super(name, cache, allowNullValues);
+
+        this.bus = bus;
+
+        this.snapshot = snapshot;
+
+    }
+
+    @Override
+    public void evict(Object key) {
+
+        super.evict(key);
+
+        invalidated(key);
+
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+
+        boolean present = super.evictIfPresent(key);
+
+        // The entry may still be cached on other nodes, or in the snapshot, even when it was not cached here
+        invalidated(key);
+
+        return present;
+
+    }
+
+    @Override
+    public void clear() {
+
+        super.clear();
+
+        invalidated(null);
+
+    }
+
+    @Override
+    public boolean invalidate() {
+
+        boolean present = super.invalidate();
+
+        invalidated(null);
+
+        return present;
+
+    }
+
+    /**
+     * Applies an invalidation received from another node to this node's entries only.
+     */
+    void apply(CacheInvalidation invalidation) {
+
+        if (snapshot != null) {
+            snapshot.forget(getName(), invalidation.key());
+        }
+
+        if (invalidation.clearsRegion()) {
+            getNativeCache().invalidateAll();
+        } else {
+            getNativeCache().invalidate(invalidation.key());
+        }
+
+    }
+
+    private void invalidated(Object key) {
+
+        // Keys travel as strings; any other key invalidates the whole region
+        String stringKey = key instanceof String string ? string : null;
+
+        if (snapshot != null) {
+            snapshot.forget(getName(), stringKey);
+        }
+
+        if (bus != null) {
+            bus.publish(getName(), stringKey);
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.white.backend.shared.concurrency;
+
+import com.white.backend.shared.exception.ErrorBodies;
+import com.white.backend.shared.metrics.ErrorMetrics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds requests with {@code 503 Service Unavailable} once their route group reaches its adaptive concurrency limit.
+ * <p>
+ * The filter runs ahead of the security filter chain, so shed requests cost neither token decoding nor a thread
+ * parked on a slow dependency. Each group, e.g. auth, image or user, has its own {@link GradientConcurrencyLimit},
+ * so a slow storage provider sheds image requests without touching logins. Requests outside every group pass.
+ * An asynchronous request, such as a streamed export, holds its permit until its response completes.
+ */
+@Slf4j
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Map<String, GradientConcurrencyLimit> limits = new LinkedHashMap<>();
+
+    // Longest prefix first, so a more specific group wins
+    private final List<Map.Entry<String, GradientConcurrencyLimit>> prefixes = new ArrayList<>();
+
+    private final ErrorMetrics errorMetrics;
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, ErrorMetrics errorMetrics) {
+
+        this.errorMetrics = errorMetrics;
+
+        if (properties.enabled() && properties.groups() != null) {
+
+            properties.groups().forEach((name, group) -> {
+
+                GradientConcurrencyLimit limit = new GradientConcurrencyLimit(group.initialLimit(), group.minLimit(),
+                        group.maxLimit(), properties.smoothing(), properties.tolerance(), properties.longWindow());
+
+                limits.put(name, limit);
+
+                group.pathPrefixes().forEach(prefix -> prefixes.add(Map.entry(prefix, limit)));
+
+            });
+
+            prefixes.sort(Comparator.comparingInt((Map.Entry<String, GradientConcurrencyLimit> entry) -> entry.getKey().length()).reversed());
+
+        }
+
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        GradientConcurrencyLimit limit = limitFor(request.getRequestURI());
+
+        if (limit == null) {
+
+            filterChain.doFilter(request, response);
+
+            return;
+
+        }
+
+        int inFlight = limit.tryAcquire();
+
+        if (inFlight == 0) {
+
+            shed(request, response, limit);
+
+            return;
+
+        }
+
+        long startedAt = System.nanoTime();
+
+        try {
+
+            filterChain.doFilter(request, response);
+
+        } finally {
+
+            if (request.isAsyncStarted()) {
+
+                // A streamed or deferred response is still in flight when the first dispatch returns
+                request.getAsyncContext().addListener(new ReleasingListener(limit, startedAt, inFlight));
+
+            } else {
+
+                limit.release(System.nanoTime() - startedAt, inFlight);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Returns the limit of every route group by group name.
+     */
+    public Map<String, GradientConcurrencyLimit> getLimits() {
+
+        return limits;
+
+    }
+
+    private GradientConcurrencyLimit limitFor(String uri) {
+
+        for (Map.Entry<String, GradientConcurrencyLimit> prefix : prefixes) {
+
+            if (uri.startsWith(prefix.getKey())) {
+
+                return prefix.getValue();
+
+            }
+
+        }
+
+        return null;
+
+    }
+
+    private void shed(HttpServletRequest request, HttpServletResponse response, GradientConcurrencyLimit limit) throws IOException {
+
+        log.warn("{}, Shed {} {} at concurrency limit {}", this.getClass().getSimpleName(), request.getMethod(),
+                request.getRequestURI(), limit.getLimit());
+
+        errorMetrics.record(ConcurrencyLimitError.OVERLOADED);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        ErrorBodies.write(response, ConcurrencyLimitError.OVERLOADED);
+
+    }
+
+    /**
+     * Releases the permit of an asynchronous request once its response is complete. The container calls
+     * {@code onComplete} after a timeout or an error as well, so the permit is released exactly once.
+     */
+    private record ReleasingListener(GradientConcurrencyLimit limit, long startedAt, int inFlight) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+
+            limit.release(System.nanoTime() - startedAt, inFlight);
+
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+
+            // Dispatching again and starting async anew drops the listeners, so stay registered
+            event.getAsyncContext().addListener(this);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.white.backend.shared.concurrency;
+
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    AdaptiveConcurrencyFilter adaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, ErrorMetrics errorMetrics) {
+
+        return new AdaptiveConcurrencyFilter(properties, errorMetrics);
+
+    }
+
+    /**
+     * Registers the filter ahead of the Spring Security filter chain.
+     */
+    @Bean
+    FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilterRegistration(AdaptiveConcurrencyFilter adaptiveConcurrencyFilter) {
+
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration = new FilterRegistrationBean<>(adaptiveConcurrencyFilter);
+
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+
+        return registration;
+
+    }
+
+    @Bean
+    MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyFilter adaptiveConcurrencyFilter) {
+
+        return registry -> adaptiveConcurrencyFilter.getLimits().forEach((group, limit) -> {
+
+            Gauge.builder("app.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", group)
+                    .register(registry);
+
+            Gauge.builder("app.concurrency.in-flight", limit, GradientConcurrencyLimit::getInFlight)
+                    .description("Requests in flight")
+                    .tag("group", group)
+                    .register(registry);
+
+            FunctionCounter.builder("app.concurrency.shed", limit, GradientConcurrencyLimit::getShedRequests)
+                    .description("Requests shed with 503")
+                    .tag("group", group)
+                    .register(registry);
+
+        });
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.white.backend.shared.concurrency;
+
+import com.white.backend.shared.base.Error;
+import org.springframework.http.HttpStatus;
+
+public enum ConcurrencyLimitError implements Error {
+
+    OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, "Server is overloaded, please retry later");
+
+    ConcurrencyLimitError(HttpStatus code, String message) {
+
+        this.code = code;
+
+        this.message = message;
+
+    }
+
+    public final HttpStatus code;
+
+    public final String message;
+
+    @Override
+    public HttpStatus getCode() {
+
+        return code;
+
+    }
+
+    @Override
+    public String getMessage() {
+
+        return message;
+
+    }
+}
@@ -0,0 +1,42 @@
+package com.white.backend.shared.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route groups with their own adaptive concurrency limit, and how the limits adapt.
+ * <p>
+ * {@code tolerance} is how much slower than the long-term average a request may be before the limit shrinks,
+ * and {@code longWindow} is how many requests that average covers.
+ */
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record ConcurrencyLimitProperties(
+
+        boolean enabled,
+
+        double smoothing,
+
+        double tolerance,
+
+        int longWindow,
+
+        Map<String, Group> groups
+
+) {
+
+    public record Group(
+
+            List<String> pathPrefixes,
+
+            int initialLimit,
+
+            int minLimit,
+
+            int maxLimit
+
+    ) {
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.white.backend.shared.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrency limit that adapts to measured latency, following the gradient approach.
+ * <p>
+ * A long-term average of request latency stands for the latency without queueing. Each completed request compares
+ * its own latency with that average: while they match the limit grows by about its square root, and once requests
+ * take longer than {@code tolerance} times the average, the limit shrinks in proportion, by at most half. Requests
+ * beyond the limit are rejected instead of queueing, so queueing delay stays bounded when a dependency slows down.
+ * <p>
+ * Admission is lock-free; only recording a completed request takes the monitor.
+ */
+public class GradientConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double tolerance;
+
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder shedRequests = new LongAdder();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+
+    private double longRttNanos;
+
+    private long samples;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance, int longWindow) {
+
+        this.minLimit = minLimit;
+
+        this.maxLimit = maxLimit;
+
+        this.smoothing = smoothing;
+
+        this.tolerance = tolerance;
+
+        this.longWindow = longWindow;
+
+        this.estimatedLimit = initialLimit;
+
+        this.limit = initialLimit;
+
+    }
+
+    /**
+     * Admits a request if fewer than {@link #getLimit()} requests are in flight.
+     *
+     * @return the number of requests in flight including this one, or {@code 0} if the request was shed
+     */
+    public int tryAcquire() {
+
+        while (true) {
+
+            int current = inFlight.get();
+
+            if (current >= limit) {
+
+                shedRequests.increment();
+
+                return 0;
+
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+
+                return current + 1;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit.
+     *
+     * @param rttNanos         how long the request took
+     * @param inFlightAtAdmit  the value returned by {@link #tryAcquire()} for this request
+     */
+    public void release(long rttNanos, int inFlightAtAdmit) {
+
+        inFlight.decrementAndGet();
+
+        onSample(Math.max(rttNanos, 1), inFlightAtAdmit);
+
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtAdmit) {
+
+        samples++;
+
+        if (longRttNanos == 0) {
+
+            longRttNanos = rttNanos;
+
+        } else {
+
+            double factor = 2.0 / (Math.min(samples, longWindow) + 1);
+
+            longRttNanos = longRttNanos * (1 - factor) + rttNanos * factor;
+
+        }
+
+        // After an overload clears, pull the long-term average back down faster than the window alone would
+        if (longRttNanos / rttNanos > 2) {
+
+            longRttNanos *= 0.95;
+
+        }
+
+        // With so few requests in flight, latency says nothing about whether a higher limit would queue
+        if (inFlightAtAdmit < estimatedLimit / 2) {
+
+            return;
+
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        limit = (int) estimatedLimit;
+
+    }
+
+    public int getLimit() {
+
+        return limit;
+
+    }
+
+    public int getInFlight() {
+
+        return inFlight.get();
+
+    }
+
+    /**
+     * Returns how many requests were rejected since startup.
+     */
+    public long getShedRequests() {
+
+        return shedRequests.sum();
+
+    }
+
+}
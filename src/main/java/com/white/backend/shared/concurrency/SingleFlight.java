@@ -0,0 +1,100 @@
+package com.white.backend.shared.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one computation.
+ * <p>
+ * The first caller for a key runs the computation; callers arriving with the same key while it runs wait for it
+ * and receive the same result, or the same exception. Nothing is kept once the computation finishes, so a call
+ * made afterwards computes again. This is not a cache: it only removes duplicate work from a burst.
+ * <p>
+ * Waiters share the leader's result object, so results should be immutable or only read.
+ *
+ * @param <K> the key identifying identical calls
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * Runs the computation for the key, or waits for the one already running.
+     *
+     * @param key         identifies identical calls
+     * @param computation the computation to run if none is running for the key
+     * @return the result of the computation that ran for this burst
+     */
+    public V execute(K key, Supplier<V> computation) {
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+
+        if (running != null) {
+
+            coalescedCalls.increment();
+
+            try {
+
+                return running.join();
+
+            } catch (CompletionException e) {
+
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+
+                    throw runtimeException;
+
+                }
+
+                if (e.getCause() instanceof Error error) {
+
+                    throw error;
+
+                }
+
+                throw e;
+
+            }
+
+        }
+
+        try {
+
+            V result = computation.get();
+
+            flight.complete(result);
+
+            return result;
+
+        } catch (RuntimeException | Error e) {
+
+            flight.completeExceptionally(e);
+
+            throw e;
+
+        } finally {
+
+            inFlight.remove(key, flight);
+
+        }
+
+    }
+
+    /**
+     * Returns how many calls were answered by another caller's computation since startup.
+     */
+    public long getCoalescedCalls() {
+
+        return coalescedCalls.sum();
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.white.backend.shared.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.shared.base.Error;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON {@link ErrorResponse} bodies of the {@link Error} constants, serialized once per constant and then reused,
+ * so rejecting a request does not run Jackson.
+ */
+public final class ErrorBodies {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Map<Error, byte[]> BODIES = new ConcurrentHashMap<>();
+
+    private ErrorBodies() {
+    }
+
+    /**
+     * Returns the encoded body of an error. The array is shared and must not be modified.
+     */
+    public static byte[] of(Error error) {
+
+        return BODIES.computeIfAbsent(error, ErrorBodies::encode);
+
+    }
+
+    /**
+     * Writes the status and encoded body of an error straight to a servlet response.
+     */
+    public static void write(HttpServletResponse response, Error error) throws IOException {
+
+        byte[] body = of(error);
+
+        response.setStatus(error.getCode().value());
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        response.setContentLength(body.length);
+
+        response.getOutputStream().write(body);
+
+        response.flushBuffer();
+
+    }
+
+    private static byte[] encode(Error error) {
+
+        try {
+
+            return OBJECT_MAPPER.writeValueAsBytes(new ErrorResponse(error.getCode(), error.getMessage()));
+
+        } catch (JsonProcessingException e) {
+
+            throw new UncheckedIOException(e);
+
+        }
+
+    }
+
+}
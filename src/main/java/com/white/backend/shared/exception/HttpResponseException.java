@@ -4,17 +4,26 @@ import com.white.backend.shared.base.Error;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+/**
+ * Exception carrying one of the {@link Error} constants to the HTTP layer. It is thrown for expected outcomes such
+ * as a wrong password or an expired token, so it skips the stack trace and suppression list: the error constant
+ * already says where it came from, and filling in the trace made the rejection path cost more than success.
+ */
 @Getter
 public class HttpResponseException extends RuntimeException {
 
     private final HttpStatus statusCode;
 
+    private final Error error;
+
     public HttpResponseException(Error error) {
 
-        super(error.getMessage());
+        super(error.getMessage(), null, false, false);
 
         this.statusCode = error.getCode();
 
+        this.error = error;
+
     }
 
 }
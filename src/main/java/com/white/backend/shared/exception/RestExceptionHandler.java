@@ -1,20 +1,40 @@
 package com.white.backend.shared.exception;
 
+import com.white.backend.shared.metrics.ErrorMetrics;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class RestExceptionHandler {
 
+    private final ErrorMetrics errorMetrics;
+
+    /**
+     * Answers with the pre-encoded body of the error constant, bypassing message conversion of an {@link ErrorResponse}.
+     * <p>
+     * A streamed response may fail after part of its body has been sent. The error body would then be appended to a
+     * 200 response, so the exception is rethrown instead and the container drops the connection, which tells the
+     * client the body is incomplete.
+     */
     @ExceptionHandler(HttpResponseException.class)
-    public ResponseEntity<ErrorResponse> handleHttpResponseException(HttpResponseException e) {
+    public ResponseEntity<byte[]> handleHttpResponseException(HttpResponseException e, HttpServletResponse response) {
+
+        errorMetrics.record(e.getError());
 
-        ErrorResponse errorResponse = new ErrorResponse(e.getStatusCode(), e.getMessage());
+        if (response.isCommitted()) {
+            throw e;
+        }
 
-        return new ResponseEntity<>(errorResponse, e.getStatusCode());
+        return ResponseEntity.status(e.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBodies.of(e.getError()));
 
     }
 
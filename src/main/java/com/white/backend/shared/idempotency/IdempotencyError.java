@@ -0,0 +1,39 @@
+package com.white.backend.shared.idempotency;
+
+import com.white.backend.shared.base.Error;
+import org.springframework.http.HttpStatus;
+
+public enum IdempotencyError implements Error {
+
+    INVALID_IDEMPOTENCY_KEY(HttpStatus.BAD_REQUEST, "Idempotency key must be between 1 and 255 characters"),
+
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key was already used for a different request"),
+
+    IDEMPOTENT_REQUEST_IN_PROGRESS(HttpStatus.CONFLICT, "A request with this idempotency key is still in progress");
+
+    IdempotencyError(HttpStatus code, String message) {
+
+        this.code = code;
+
+        this.message = message;
+
+    }
+
+    public final HttpStatus code;
+
+    public final String message;
+
+    @Override
+    public HttpStatus getCode() {
+
+        return code;
+
+    }
+
+    @Override
+    public String getMessage() {
+
+        return message;
+
+    }
+}
@@ -0,0 +1,199 @@
+package com.white.backend.shared.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes requests carrying an {@code Idempotency-Key} header at most once per key.
+ * <p>
+ * The first request with a key runs the call and stores its result in a bounded, TTL-evicted store. Retries with
+ * the same key get the stored result without running the call again. Duplicates arriving while the first request
+ * is still running wait for it and then get its result. A failed call is not stored, so the next retry runs again.
+ * <p>
+ * Keys are scoped by operation and by caller, and every key is bound to a fingerprint of the request it was first
+ * used with. Reusing a key for a different request fails with {@link IdempotencyError#IDEMPOTENCY_KEY_REUSED}
+ * instead of returning a result that belongs to another request. Fingerprints are keyed with a secret generated at
+ * startup, so those of requests carrying credentials cannot be used to guess the credentials. The store lives in
+ * this process only, so the secret never has to be shared.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Entry> results;
+
+    private final Duration waitTimeout;
+
+    private final SecretKey fingerprintKey;
+
+    public IdempotencyService(@Value("${app.idempotency.maximum-size}") long maximumSize,
+                              @Value("${app.idempotency.ttl}") Duration ttl,
+                              @Value("${app.idempotency.wait-timeout}") Duration waitTimeout) {
+
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.waitTimeout = waitTimeout;
+
+        try {
+
+            this.fingerprintKey = KeyGenerator.getInstance(FINGERPRINT_ALGORITHM).generateKey();
+
+        } catch (GeneralSecurityException e) {
+
+            throw new IllegalStateException(e);
+
+        }
+
+    }
+
+    /**
+     * Runs the call once per key, or returns the result of the request that first used the key.
+     *
+     * @param scope       the operation, e.g. {@code "image-upload"}
+     * @param caller      who is calling, so two callers never share a key
+     * @param key         the {@code Idempotency-Key} header, or {@code null} to run the call unconditionally
+     * @param fingerprint a digest of the request, see {@link #fingerprint(byte[]...)}; unused without a key
+     * @param call        the work to run
+     * @return the result of the call, or of the first request that used the key
+     * @throws E if the call fails; the failure is not stored
+     * @throws com.white.backend.shared.exception.HttpResponseException with
+     *                                                                  {@link IdempotencyError#IDEMPOTENT_REQUEST_IN_PROGRESS}
+     *                                                                  if the first request is still running after the
+     *                                                                  wait timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T execute(String scope, String caller, String key, String fingerprint,
+                                              IdempotentCall<T, E> call) throws E {
+
+        if (key == null) {
+
+            return call.call();
+
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+
+            throw IdempotencyError.INVALID_IDEMPOTENCY_KEY.exception();
+
+        }
+
+        String storeKey = scope + '\n' + caller + '\n' + key;
+
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+
+        Entry existing = results.asMap().putIfAbsent(storeKey, entry);
+
+        if (existing != null) {
+
+            if (!existing.fingerprint().equals(fingerprint)) {
+
+                throw IdempotencyError.IDEMPOTENCY_KEY_REUSED.exception();
+
+            }
+
+            log.info("{}, Replaying {} for idempotency key {}", this.getClass().getSimpleName(), scope, key);
+
+            try {
+
+                // Waits if the first request is still running, but never longer than a client would wait for it
+                return (T) existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            } catch (ExecutionException e) {
+
+                throw (E) e.getCause();
+
+            } catch (TimeoutException e) {
+
+                throw IdempotencyError.IDEMPOTENT_REQUEST_IN_PROGRESS.exception();
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+                throw IdempotencyError.IDEMPOTENT_REQUEST_IN_PROGRESS.exception();
+
+            }
+
+        }
+
+        try {
+
+            T result = call.call();
+
+            entry.result().complete(result);
+
+            return result;
+
+        } catch (Exception | Error e) {
+
+            // Let the next retry run the call again, and hand this failure to the duplicates already waiting
+            results.asMap().remove(storeKey, entry);
+
+            entry.result().completeExceptionally(e);
+
+            throw e;
+
+        }
+
+    }
+
+    /**
+     * Digests the parts of a request that must match for a retry to count as the same request.
+     */
+    public String fingerprint(byte[]... parts) {
+
+        try {
+
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+
+            mac.init(fingerprintKey);
+
+            Arrays.stream(parts).forEach(part -> {
+
+                mac.update(Integer.toString(part.length).getBytes(StandardCharsets.UTF_8));
+
+                mac.update((byte) ':');
+
+                mac.update(part);
+
+            });
+
+            return HexFormat.of().formatHex(mac.doFinal());
+
+        } catch (GeneralSecurityException e) {
+
+            throw new IllegalStateException(e);
+
+        }
+
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+
+}
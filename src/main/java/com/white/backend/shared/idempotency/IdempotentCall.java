@@ -0,0 +1,14 @@
+package com.white.backend.shared.idempotency;
+
+/**
+ * The work behind a request that carries an {@code Idempotency-Key}, executed at most once per key.
+ *
+ * @param <T> the result type
+ * @param <E> the checked exception the call may throw
+ */
+@FunctionalInterface
+public interface IdempotentCall<T, E extends Exception> {
+
+    T call() throws E;
+
+}
@@ -0,0 +1,95 @@
+package com.white.backend.shared.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Iterator;
+
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Runs ahead of every other filter, so everything logged while serving the request carries the route.
+     */
+    @Bean
+    FilterRegistrationBean<RouteMdcFilter> routeMdcFilterRegistration() {
+
+        FilterRegistrationBean<RouteMdcFilter> registration = new FilterRegistrationBean<>(new RouteMdcFilter());
+
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+
+    }
+
+    /**
+     * Publishes the counters of the ring buffer appenders and sampling filters that the active logback configuration
+     * declares; without the {@code prod} profile there are none.
+     */
+    @Bean
+    MeterBinder loggingMetrics() {
+
+        return registry -> {
+
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+
+            Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+
+            while (appenders.hasNext()) {
+
+                if (!(appenders.next() instanceof RingBufferAppender appender)) {
+                    continue;
+                }
+
+                FunctionCounter.builder("logging.events.appended", appender, RingBufferAppender::getAppended)
+                        .description("Log events accepted into the ring buffer")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+
+                FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::getDroppedInfoOrLower)
+                        .description("Log events dropped because the ring buffer was full")
+                        .tags("appender", appender.getName(), "level", "info-or-lower")
+                        .register(registry);
+
+                FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::getDroppedWarnOrHigher)
+                        .description("Log events dropped because the ring buffer was full")
+                        .tags("appender", appender.getName(), "level", "warn-or-higher")
+                        .register(registry);
+
+                Gauge.builder("logging.ring-buffer.queued", appender, RingBufferAppender::getQueued)
+                        .description("Log events waiting to be written")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+
+            }
+
+            for (TurboFilter filter : context.getTurboFilterList()) {
+
+                if (filter instanceof RouteSamplingTurboFilter sampling) {
+
+                    FunctionCounter.builder("logging.events.sampled-out", sampling, RouteSamplingTurboFilter::getSampledOut)
+                            .description("Log events skipped by per-route sampling")
+                            .register(registry);
+
+                }
+
+            }
+
+        };
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.white.backend.shared.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Log argument standing in for a token, authorization code or other secret. Its string form is a short SHA-256
+ * fingerprint, so lines about the same secret can be correlated without the secret ever reaching a log.
+ * The fingerprint is only computed if the event is actually written.
+ */
+public final class Redacted {
+
+    private static final int FINGERPRINT_BYTES = 4;
+
+    private final String secret;
+
+    private Redacted(String secret) {
+
+        this.secret = secret;
+
+    }
+
+    public static Redacted of(String secret) {
+
+        return new Redacted(secret);
+
+    }
+
+    @Override
+    public String toString() {
+
+        if (secret == null) {
+            return "<null>";
+        }
+
+        try {
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+
+            return "<redacted:" + HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES) + ">";
+
+        } catch (NoSuchAlgorithmException e) {
+
+            return "<redacted>";
+
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.white.backend.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands log events to a bounded ring buffer and writes them to the attached appenders on a single background thread,
+ * so request threads never wait for console or file I/O.
+ * <p>
+ * When the buffer is full the event is dropped rather than blocking the caller. Logback's own {@code AsyncAppender}
+ * blocks or silently discards; this one counts what it drops, per level, so the loss shows up in metrics.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private final LongAdder appended = new LongAdder();
+
+    private final LongAdder droppedInfoOrLower = new LongAdder();
+
+    private final LongAdder droppedWarnOrHigher = new LongAdder();
+
+    private int capacity = DEFAULT_CAPACITY;
+
+    private int maxFlushTime = 1000;  // Milliseconds to keep draining on shutdown
+
+    private BlockingQueue<ILoggingEvent> buffer;
+
+    private Thread worker;
+
+    public void setCapacity(int capacity) {
+
+        this.capacity = capacity;
+
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+
+        this.maxFlushTime = maxFlushTime;
+
+    }
+
+    public int getCapacity() {
+
+        return capacity;
+
+    }
+
+    public int getQueued() {
+
+        return buffer == null ? 0 : buffer.size();
+
+    }
+
+    public long getAppended() {
+
+        return appended.sum();
+
+    }
+
+    public long getDroppedInfoOrLower() {
+
+        return droppedInfoOrLower.sum();
+
+    }
+
+    public long getDroppedWarnOrHigher() {
+
+        return droppedWarnOrHigher.sum();
+
+    }
+
+    @Override
+    public void start() {
+
+        if (capacity < 1) {
+            addError("Ring buffer capacity must be positive, was " + capacity);
+            return;
+        }
+
+        buffer = new ArrayBlockingQueue<>(capacity);
+
+        worker = new Thread(this::drain, "log-ring-buffer-" + getName());
+
+        worker.setDaemon(true);
+
+        super.start();
+
+        worker.start();
+
+    }
+
+    @Override
+    public void stop() {
+
+        if (!isStarted()) {
+            return;
+        }
+
+        super.stop();
+
+        worker.interrupt();
+
+        try {
+
+            worker.join(maxFlushTime);
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+        }
+
+        if (worker.isAlive()) {
+            addWarn("Gave up flushing " + buffer.size() + " queued events after " + maxFlushTime + " ms");
+        }
+
+        appenders.detachAndStopAllAppenders();
+
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+
+        // Format the message and capture MDC and thread name now, while still on the calling thread
+        event.prepareForDeferredProcessing();
+
+        if (buffer.offer(event)) {
+            appended.increment();
+        } else if (event.getLevel().levelInt >= Level.WARN_INT) {
+            droppedWarnOrHigher.increment();
+        } else {
+            droppedInfoOrLower.increment();
+        }
+
+    }
+
+    private void drain() {
+
+        List<ILoggingEvent> batch = new ArrayList<>(DRAIN_BATCH);
+
+        while (isStarted()) {
+
+            try {
+
+                batch.add(buffer.take());
+
+            } catch (InterruptedException e) {
+
+                break;
+
+            }
+
+            buffer.drainTo(batch, DRAIN_BATCH - 1);
+
+            write(batch);
+
+        }
+
+        // Flush what was queued before stop; anything logged after this point is lost with the JVM anyway
+        while (buffer.drainTo(batch, DRAIN_BATCH) > 0) {
+            write(batch);
+        }
+
+    }
+
+    private void write(List<ILoggingEvent> batch) {
+
+        for (ILoggingEvent event : batch) {
+            appenders.appendLoopOnAppenders(event);
+        }
+
+        batch.clear();
+
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+
+        appenders.addAppender(appender);
+
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+
+        return appenders.iteratorForAppenders();
+
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+
+        return appenders.getAppender(name);
+
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+
+        return appenders.isAttached(appender);
+
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+
+        appenders.detachAndStopAllAppenders();
+
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+
+        return appenders.detachAppender(appender);
+
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+
+        return appenders.detachAppender(name);
+
+    }
+
+}
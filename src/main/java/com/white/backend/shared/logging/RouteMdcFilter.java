@@ -0,0 +1,38 @@
+package com.white.backend.shared.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts the request path into the MDC for the duration of the request, so log lines carry it as a field and
+ * {@link RouteSamplingTurboFilter} can sample by route.
+ */
+public class RouteMdcFilter extends OncePerRequestFilter {
+
+    public static final String ROUTE = "route";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        MDC.put(ROUTE, request.getRequestURI());
+
+        try {
+
+            filterChain.doFilter(request, response);
+
+        } finally {
+
+            MDC.remove(ROUTE);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.white.backend.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps only a fraction of the INFO and lower events logged while serving a busy route, such as token refreshes.
+ * The route is read from the {@value RouteMdcFilter#ROUTE} MDC key; WARN and ERROR always pass.
+ * <p>
+ * Routes are configured as {@code <route>path-prefix=rate</route>}, with a rate between 0 and 1. The longest
+ * matching prefix wins.
+ */
+public class RouteSamplingTurboFilter extends TurboFilter {
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final LongAdder sampledOut = new LongAdder();
+
+    public void addRoute(String route) {
+
+        int separator = route.lastIndexOf('=');
+
+        if (separator < 1) {
+            addError("Expected <path-prefix>=<rate>, got '" + route + "'");
+            return;
+        }
+
+        double rate = Double.parseDouble(route.substring(separator + 1).trim());
+
+        routes.add(new Route(route.substring(0, separator).trim(), Math.max(0, Math.min(1, rate))));
+
+        routes.sort(Comparator.comparingInt((Route r) -> r.prefix().length()).reversed());
+
+    }
+
+    public long getSampledOut() {
+
+        return sampledOut.sum();
+
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+
+        if (level == null || level.levelInt >= Level.WARN_INT || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String path = MDC.get(RouteMdcFilter.ROUTE);
+
+        if (path == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        for (Route route : routes) {
+
+            if (path.startsWith(route.prefix())) {
+
+                if (route.rate() >= 1 || ThreadLocalRandom.current().nextDouble() < route.rate()) {
+                    return FilterReply.NEUTRAL;
+                }
+
+                sampledOut.increment();
+
+                return FilterReply.DENY;
+
+            }
+
+        }
+
+        return FilterReply.NEUTRAL;
+
+    }
+
+    private record Route(String prefix, double rate) {
+    }
+
+}
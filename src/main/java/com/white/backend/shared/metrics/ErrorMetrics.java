@@ -0,0 +1,66 @@
+package com.white.backend.shared.metrics;
+
+import com.white.backend.admin.error.AdminError;
+import com.white.backend.authentication.error.AuthError;
+import com.white.backend.file.image.error.FileError;
+import com.white.backend.shared.base.Error;
+import com.white.backend.shared.concurrency.ConcurrencyLimitError;
+import com.white.backend.shared.idempotency.IdempotencyError;
+import com.white.backend.shared.ratelimit.RateLimitError;
+import com.white.backend.user.error.UserError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the errors returned to clients, as {@code app.errors} tagged by error domain, error name and status.
+ * <p>
+ * A counter is registered for every constant of the known error enums at startup, so an error that never happened
+ * is reported as zero rather than missing.
+ */
+@Component
+public class ErrorMetrics {
+
+    private static final List<Class<? extends Error>> ERROR_TYPES = List.of(AuthError.class, FileError.class,
+            UserError.class, AdminError.class, IdempotencyError.class, RateLimitError.class, ConcurrencyLimitError.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Error, Counter> counters = new ConcurrentHashMap<>();
+
+    public ErrorMetrics(MeterRegistry meterRegistry) {
+
+        this.meterRegistry = meterRegistry;
+
+        ERROR_TYPES.stream()
+                .flatMap(type -> Arrays.stream(type.getEnumConstants()))
+                .forEach(this::counter);
+
+    }
+
+    /**
+     * Counts one occurrence of an error returned to a client.
+     */
+    public void record(Error error) {
+
+        counter(error).increment();
+
+    }
+
+    private Counter counter(Error error) {
+
+        return counters.computeIfAbsent(error, key -> Counter.builder("app.errors")
+                .description("Errors returned to clients")
+                .tag("domain", key.getClass().getSimpleName())
+                .tag("error", key instanceof Enum<?> constant ? constant.name() : key.getMessage())
+                .tag("status", Integer.toString(key.getCode().value()))
+                .register(meterRegistry));
+
+    }
+
+}
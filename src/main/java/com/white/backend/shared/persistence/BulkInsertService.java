@@ -0,0 +1,150 @@
+package com.white.backend.shared.persistence;
+
+import com.white.backend.shared.base.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Streams entities into the database through Hibernate's JDBC batching.
+ * <p>
+ * Entities are persisted one by one, but the persistence context is flushed and cleared every
+ * {@code hibernate.jdbc.batch_size} rows so each flush becomes one ordered batch of inserts and
+ * the managed entities never accumulate. The whole import runs in one transaction, so it either
+ * lands completely or, if any row fails, not at all, and the caller never has to find out which rows
+ * were kept.
+ * <p>
+ * Identifiers are generated in memory by {@link jakarta.persistence.GenerationType#UUID}, so nothing
+ * forces Hibernate to execute an insert early and every batch reaches the driver intact.
+ */
+@Slf4j
+@Service
+public class BulkInsertService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HibernateJpaDialect jpaDialect = new HibernateJpaDialect();
+
+    private final int batchSize;
+
+    public BulkInsertService(PlatformTransactionManager transactionManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.batchSize = batchSize;
+
+    }
+
+    /**
+     * Inserts every entity produced by the iterator, reading it lazily so callers can stream
+     * records straight from a request body or a file.
+     *
+     * @param entities the entities to insert; each must be new (no identifier assigned).
+     * @return the number of inserted rows.
+     * @throws DuplicateKeyException                                   if a row duplicates a unique key; nothing is
+     *                                                                 inserted then.
+     * @throws org.springframework.dao.DataIntegrityViolationException if a row violates another constraint, e.g. a
+     *                                                                 missing required column; nothing is inserted
+     *                                                                 then.
+     */
+    public <T extends BaseEntity> long insertAll(Iterator<T> entities) {
+
+        long startedAt = System.nanoTime();
+
+        long inserted = Objects.requireNonNull(transactionTemplate.execute(status -> insertBatches(entities)));
+
+        log.info("{}, Inserted {} rows in {} ms", this.getClass().getSimpleName(), inserted, (System.nanoTime() - startedAt) / 1_000_000);
+
+        return inserted;
+
+    }
+
+    /**
+     * Inserts every record produced by the iterator after mapping it to its entity.
+     *
+     * @param records the records to insert, typically read lazily from an import payload.
+     * @param mapper  maps a record to a new entity.
+     * @return the number of inserted rows.
+     */
+    public <R, T extends BaseEntity> long insertAll(Iterator<R> records, Function<R, T> mapper) {
+
+        return insertAll(new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+
+                return records.hasNext();
+
+            }
+
+            @Override
+            public T next() {
+
+                return mapper.apply(records.next());
+
+            }
+
+        });
+
+    }
+
+    private <T extends BaseEntity> long insertBatches(Iterator<T> entities) {
+
+        long inserted = 0;
+
+        try {
+
+            while (entities.hasNext()) {
+
+                entityManager.persist(entities.next());
+
+                if (++inserted % batchSize == 0) {
+
+                    entityManager.flush();
+
+                    entityManager.clear();
+
+                }
+
+            }
+
+            entityManager.flush();
+
+            entityManager.clear();
+
+        } catch (PersistenceException e) {
+
+            // Flushing through the shared entity manager is not translated like repository calls are
+            DataAccessException translated = jpaDialect.translateExceptionIfPossible(e);
+
+            // The dialect reports every constraint as a DataIntegrityViolationException; callers need duplicates apart
+            if (e instanceof ConstraintViolationException violation && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new DuplicateKeyException(translated != null ? translated.getMessage() : e.getMessage(), e);
+            }
+
+            throw translated != null ? translated : e;
+
+        }
+
+        return inserted;
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.white.backend.shared.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with a primary/replica router as soon as one replica is configured
+ * under {@code app.datasource.replicas}. The primary keeps using the regular {@code spring.datasource.*} settings.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                 ReplicaDataSourceProperties replicaDataSourceProperties) {
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+
+        List<ReplicaDataSourceProperties.Replica> replicaProperties = replicaDataSourceProperties.replicas();
+
+        for (int i = 0; i < replicaProperties.size(); i++) {
+
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaProperties.get(i).url())
+                    .username(replicaProperties.get(i).username())
+                    .password(replicaProperties.get(i).password())
+                    .build();
+
+            replica.setPoolName("replica-" + i);
+
+            replica.setReadOnly(true);
+
+            replicas.add(replica);
+
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, replicaDataSourceProperties.readYourWritesWindow());
+
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+
+    }
+
+}
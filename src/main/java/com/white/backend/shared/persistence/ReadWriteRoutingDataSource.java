@@ -0,0 +1,159 @@
+package com.white.backend.shared.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections of {@code @Transactional(readOnly = true)} work to the replicas, round-robin,
+ * and everything else to the primary.
+ * <p>
+ * After a read-write transaction commits, reads by the same principal keep going to the primary for
+ * the read-your-writes window, so a client never reads a replica that has not caught up with its own write.
+ * Writes without an authenticated principal, such as the user inserted by an OAuth callback, open no window:
+ * keyed on a shared anonymous principal, one of them would pin every login and refresh to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this data source must be wrapped
+ * in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers fetching
+ * the physical connection to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWritesWindow) {
+
+        Map<Object, Object> targets = new HashMap<>();
+
+        targets.put(PRIMARY, primary);
+
+        dataSources.add(primary);
+
+        for (int i = 0; i < replicas.size(); i++) {
+
+            String key = "replica-" + i;
+
+            targets.put(key, replicas.get(i));
+
+            replicaKeys.add(key);
+
+            dataSources.add(replicas.get(i));
+
+        }
+
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+
+        setTargetDataSources(targets);
+
+        setDefaultTargetDataSource(primary);
+
+        afterPropertiesSet();
+
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            trackWrite();
+
+            return PRIMARY;
+
+        }
+
+        String principal = currentPrincipal();
+
+        if (replicaKeys.isEmpty() || principal != null && recentWriters.getIfPresent(principal) != null) {
+
+            return PRIMARY;
+
+        }
+
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+
+    }
+
+    /**
+     * Opens the read-your-writes window of the current principal once the surrounding transaction commits.
+     */
+    private void trackWrite() {
+
+        String principal = currentPrincipal();
+
+        if (principal == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            return;
+
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                recentWriters.put(principal, Boolean.TRUE);
+
+            }
+
+        });
+
+    }
+
+    /**
+     * @return the name of the authenticated principal, or {@code null} for an anonymous caller
+     */
+    private static String currentPrincipal() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+
+            return null;
+
+        }
+
+        return authentication.getName();
+
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        for (DataSource dataSource : dataSources) {
+
+            if (dataSource instanceof AutoCloseable closeable) {
+
+                closeable.close();
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.white.backend.shared.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas used for read-only transactions, and how long a principal keeps reading from the primary
+ * after one of its writes.
+ */
+@ConfigurationProperties(prefix = "app.datasource")
+public record ReplicaDataSourceProperties(
+
+        Duration readYourWritesWindow,
+
+        List<Replica> replicas
+
+) {
+
+    public record Replica(
+
+            String url,
+
+            String username,
+
+            String password
+
+    ) {
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.white.backend.shared.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one image upload, delete or page listing. Disabled unless a recording enables it.
+ */
+@Name("com.white.backend.ImageOperation")
+@Label("Image Operation")
+@Category({"White Backend", "Images"})
+@Description("Uploading, deleting or listing images, including the Cloudinary call and the database write")
+@Enabled(false)
+@StackTrace(false)
+public class ImageOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Payload Size")
+    @Description("Bytes uploaded or rows listed; zero for deletes")
+    public long payloadSize;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Creates and begins an event; cheap enough to call unconditionally while the event is disabled.
+     */
+    public static ImageOperationEvent start(String operation) {
+
+        ImageOperationEvent event = new ImageOperationEvent();
+
+        event.operation = operation;
+
+        event.begin();
+
+        return event;
+
+    }
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     */
+    public void finish(long payloadSize, String outcome) {
+
+        if (shouldCommit()) {
+
+            this.payloadSize = payloadSize;
+
+            this.outcome = outcome;
+
+            commit();
+
+        }
+
+    }
+}
@@ -0,0 +1,57 @@
+package com.white.backend.shared.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one password check during login. Disabled unless a recording enables it.
+ */
+@Name("com.white.backend.PasswordCheck")
+@Label("Password Check")
+@Category({"White Backend", "Authentication"})
+@Description("Comparing a login password with the stored BCrypt hash")
+@Enabled(false)
+@StackTrace(false)
+public class PasswordCheckEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Creates and begins an event; cheap enough to call unconditionally while the event is disabled.
+     */
+    public static PasswordCheckEvent start(String algorithm) {
+
+        PasswordCheckEvent event = new PasswordCheckEvent();
+
+        event.algorithm = algorithm;
+
+        event.begin();
+
+        return event;
+
+    }
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     */
+    public void finish(String outcome) {
+
+        if (shouldCommit()) {
+
+            this.outcome = outcome;
+
+            commit();
+
+        }
+
+    }
+}
@@ -0,0 +1,75 @@
+package com.white.backend.shared.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for minting or verifying one JWT. Disabled unless a recording enables it,
+ * e.g. with {@code jfr/backend.jfc}.
+ */
+@Name("com.white.backend.Token")
+@Label("JWT Mint / Verify")
+@Category({"White Backend", "Authentication"})
+@Description("Signing or verifying one JSON Web Token")
+@Enabled(false)
+@StackTrace(false)
+public class TokenEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Token Size")
+    @DataAmount
+    public long tokenSize;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Creates and begins an event; cheap enough to call unconditionally while the event is disabled.
+     */
+    public static TokenEvent start(String operation, String algorithm, String tokenType) {
+
+        TokenEvent event = new TokenEvent();
+
+        event.operation = operation;
+
+        event.algorithm = algorithm;
+
+        event.tokenType = tokenType;
+
+        event.begin();
+
+        return event;
+
+    }
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     */
+    public void finish(long tokenSize, String outcome) {
+
+        if (shouldCommit()) {
+
+            this.tokenSize = tokenSize;
+
+            this.outcome = outcome;
+
+            commit();
+
+        }
+
+    }
+}
@@ -0,0 +1,46 @@
+package com.white.backend.shared.ratelimit;
+
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    RateLimitFilter rateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ErrorMetrics errorMetrics) {
+
+        return new RateLimitFilter(rateLimiter, properties, errorMetrics);
+
+    }
+
+    /**
+     * Keeps the servlet container from running the filter on its own; it runs inside the security filter chain,
+     * after the bearer token has been authenticated.
+     */
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+
+        registration.setEnabled(false);
+
+        return registration;
+
+    }
+
+    @Bean
+    MeterBinder rateLimitMetrics(RateLimiter rateLimiter) {
+
+        return registry -> FunctionCounter.builder("app.rate-limit.rejected", rateLimiter, RateLimiter::getRejectedRequests)
+                .description("Requests rejected with 429 by the rate limiter")
+                .register(registry);
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.white.backend.shared.ratelimit;
+
+import com.white.backend.shared.base.Error;
+import org.springframework.http.HttpStatus;
+
+public enum RateLimitError implements Error {
+
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+
+    RateLimitError(HttpStatus code, String message) {
+
+        this.code = code;
+
+        this.message = message;
+
+    }
+
+    public final HttpStatus code;
+
+    public final String message;
+
+    @Override
+    public HttpStatus getCode() {
+
+        return code;
+
+    }
+
+    @Override
+    public String getMessage() {
+
+        return message;
+
+    }
+}
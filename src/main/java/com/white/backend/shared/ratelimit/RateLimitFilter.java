@@ -0,0 +1,163 @@
+package com.white.backend.shared.ratelimit;
+
+import com.white.backend.shared.exception.ErrorBodies;
+import com.white.backend.shared.metrics.ErrorMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over their route's per-IP or per-user limit with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header, before they reach a controller.
+ * <p>
+ * The filter sits right after bearer token authentication, so the user of an authenticated request is known.
+ * Requests without a user, such as logins, are limited per IP only. A request spends a token from each of its
+ * buckets only if all of them admit it, so rejected traffic does not drain the other limits.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    private final ErrorMetrics errorMetrics;
+
+    private final List<CompiledRoute> routes;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ErrorMetrics errorMetrics) {
+
+        this.rateLimiter = rateLimiter;
+
+        this.errorMetrics = errorMetrics;
+
+        this.routes = !properties.enabled() || properties.routes() == null ? List.of() : properties.routes().stream()
+                .map(route -> new CompiledRoute(route, PathPatternParser.defaultInstance.parse(route.pattern())))
+                .toList();
+
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        PathContainer path = null;
+
+        long wait = 0;
+
+        List<String> taken = new ArrayList<>(2);
+
+        for (CompiledRoute compiled : routes) {
+
+            RateLimitProperties.Route route = compiled.route();
+
+            if (route.methods() != null && !route.methods().isEmpty() && !route.methods().contains(request.getMethod())) {
+
+                continue;
+
+            }
+
+            if (path == null) {
+
+                path = PathContainer.parsePath(request.getRequestURI());
+
+            }
+
+            if (!compiled.pattern().matches(path)) {
+
+                continue;
+
+            }
+
+            if (route.perIp() != null) {
+
+                wait = Math.max(wait, acquire(route.name() + "|ip|" + request.getRemoteAddr(), route.perIp(), taken));
+
+            }
+
+            String user = currentUser();
+
+            if (route.perUser() != null && user != null) {
+
+                wait = Math.max(wait, acquire(route.name() + "|user|" + user, route.perUser(), taken));
+
+            }
+
+        }
+
+        if (wait > 0) {
+
+            taken.forEach(rateLimiter::refund);
+
+            reject(request, response, wait);
+
+            return;
+
+        }
+
+        filterChain.doFilter(request, response);
+
+    }
+
+    private long acquire(String key, RateLimitProperties.Limit limit, List<String> taken) {
+
+        long wait = rateLimiter.tryAcquire(key, limit);
+
+        if (wait == 0) {
+
+            taken.add(key);
+
+        }
+
+        return wait;
+
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        log.warn("{}, Rate limited {} {} from {}", this.getClass().getSimpleName(), request.getMethod(),
+                request.getRequestURI(), request.getRemoteAddr());
+
+        rateLimiter.recordRejection();
+
+        errorMetrics.record(RateLimitError.TOO_MANY_REQUESTS);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+
+        ErrorBodies.write(response, RateLimitError.TOO_MANY_REQUESTS);
+
+    }
+
+    private static String currentUser() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+
+            return null;
+
+        }
+
+        return authentication.getName();
+
+    }
+
+    private record CompiledRoute(RateLimitProperties.Route route, PathPattern pattern) {
+    }
+
+}
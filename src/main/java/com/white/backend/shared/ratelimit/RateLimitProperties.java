@@ -0,0 +1,55 @@
+package com.white.backend.shared.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rate limited routes and the token buckets kept for them.
+ * <p>
+ * Each route limits requests per client IP and, once the request is authenticated, per user. Either limit may be
+ * left out. A request is checked against every route it matches.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+
+        boolean enabled,
+
+        long maxBuckets,
+
+        Duration idleTimeout,
+
+        List<Route> routes
+
+) {
+
+    public record Route(
+
+            String name,
+
+            String pattern,
+
+            Set<String> methods,
+
+            Limit perIp,
+
+            Limit perUser
+
+    ) {
+    }
+
+    /**
+     * Allows bursts of up to {@code capacity} requests, refilled at {@code capacity} requests per {@code period}.
+     */
+    public record Limit(
+
+            int capacity,
+
+            Duration period
+
+    ) {
+    }
+
+}
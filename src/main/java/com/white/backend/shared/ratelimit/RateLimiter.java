@@ -0,0 +1,81 @@
+package com.white.backend.shared.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the token buckets of every rate limited client.
+ * <p>
+ * Buckets live in a bounded Caffeine map and are dropped once idle for {@code app.rate-limit.idle-timeout}, so
+ * a flood of distinct clients cannot grow memory without bound. An evicted bucket comes back full, which is what
+ * an idle bucket would have refilled to anyway as long as the idle timeout is at least the longest period.
+ */
+@Component
+public class RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public RateLimiter(RateLimitProperties properties) {
+
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+
+    }
+
+    /**
+     * Takes one token from the client's bucket for a limit, creating a full bucket on first use.
+     *
+     * @param key   identifies the route, the kind of limit and the client
+     * @param limit the limit the bucket enforces
+     * @return {@code 0} if the request may proceed, otherwise how many nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+
+        long now = System.nanoTime();
+
+        return buckets.get(key, ignored -> new TokenBucket(limit.capacity(), limit.period().toNanos(), now))
+                .tryAcquire(now);
+
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} when another limit rejects the same request.
+     */
+    public void refund(String key) {
+
+        TokenBucket bucket = buckets.getIfPresent(key);
+
+        if (bucket != null) {
+
+            bucket.refund();
+
+        }
+
+    }
+
+    /**
+     * Counts a rejected request, once however many of its limits were exhausted.
+     */
+    public void recordRejection() {
+
+        rejectedRequests.increment();
+
+    }
+
+    /**
+     * Returns how many requests were rejected since startup.
+     */
+    public long getRejectedRequests() {
+
+        return rejectedRequests.sum();
+
+    }
+
+}
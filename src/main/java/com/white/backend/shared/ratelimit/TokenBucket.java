@@ -0,0 +1,71 @@
+package com.white.backend.shared.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket holding up to {@code capacity} tokens, refilled at {@code capacity} tokens per period.
+ * <p>
+ * The bucket is kept as a single timestamp, the theoretical arrival time of the next request (the generic cell rate
+ * algorithm), so taking a token is one compare-and-set and no refill task is needed. A bucket that has been idle for
+ * a full period is simply full again.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, long periodNanos, long nowNanos) {
+
+        this.emissionIntervalNanos = Math.max(periodNanos / capacity, 1);
+
+        this.burstNanos = emissionIntervalNanos * capacity;
+
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+
+    }
+
+    /**
+     * Takes one token if one is available.
+     *
+     * @param nowNanos the current time from {@link System#nanoTime()}
+     * @return {@code 0} if a token was taken, otherwise how many nanoseconds until one becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+
+        while (true) {
+
+            long arrival = theoreticalArrival.get();
+
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+
+            long wait = next - nowNanos - burstNanos;
+
+            if (wait > 0) {
+
+                return wait;
+
+            }
+
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+
+                return 0;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for a request that another limit rejected.
+     */
+    public void refund() {
+
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.white.backend.shared.resilience;
+
+/**
+ * A blocking call to a remote dependency.
+ *
+ * @param <T> the result type
+ * @param <E> the checked exception the call may throw
+ */
+@FunctionalInterface
+public interface RemoteCall<T, E extends Exception> {
+
+    T call() throws E;
+
+}
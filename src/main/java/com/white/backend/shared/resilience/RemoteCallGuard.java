@@ -0,0 +1,218 @@
+package com.white.backend.shared.resilience;
+
+import com.white.backend.shared.base.Error;
+import com.white.backend.shared.exception.HttpResponseException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs calls to remote dependencies behind a per-dependency bulkhead and circuit breaker.
+ * <p>
+ * The bulkhead bounds how many request threads may wait on one dependency at a time, so a slow dependency
+ * cannot take every servlet thread with it. The circuit breaker opens once too many calls fail or are slow,
+ * and then rejects calls immediately until the dependency has had time to recover. In both cases the call
+ * fails fast with the caller's "unavailable" error instead of waiting.
+ * <p>
+ * Dependencies with a retry instance configured are retried on transient failures, with a jittered exponential
+ * backoff between attempts. Every attempt goes through the bulkhead and circuit breaker again, so retries count
+ * against the breaker and a rejection is never retried. Only dependencies whose calls are idempotent should
+ * get a retry instance.
+ */
+@Slf4j
+@Component
+public class RemoteCallGuard {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final RetryRegistry retryRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LongAdder> rejectedCalls = new ConcurrentHashMap<>();
+
+    public RemoteCallGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                           RetryRegistry retryRegistry, MeterRegistry meterRegistry) {
+
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+
+        this.bulkheadRegistry = bulkheadRegistry;
+
+        this.retryRegistry = retryRegistry;
+
+        this.meterRegistry = meterRegistry;
+
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::logStateTransitions);
+
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> logStateTransitions(event.getAddedEntry()));
+
+    }
+
+    /**
+     * Executes a call to a remote dependency.
+     *
+     * @param dependency  the dependency name, see {@link RemoteDependencies}
+     * @param unavailable the error raised when the call is rejected by the bulkhead or the open circuit
+     * @param call        the remote call
+     * @return the result of the call
+     * @throws E                     if the call itself fails after any retries; every failure is recorded by the circuit breaker
+     * @throws HttpResponseException with the {@code unavailable} error if the call is rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T execute(String dependency, Error unavailable, RemoteCall<T, E> call) throws E {
+
+        Optional<Retry> retry = retryRegistry.find(dependency);
+
+        if (retry.isEmpty()) {
+
+            return attempt(dependency, unavailable, call);
+
+        }
+
+        Retry.Context<T> context = retry.get().context();
+
+        while (true) {
+
+            try {
+
+                T result = attempt(dependency, unavailable, call);
+
+                context.onComplete();
+
+                return result;
+
+            } catch (Exception e) {
+
+                try {
+
+                    // Rethrows when the failure is not retryable or the attempts are used up, otherwise waits out the backoff
+                    context.onError(e);
+
+                } catch (Exception unrecoverable) {
+
+                    throw (E) unrecoverable;
+
+                }
+
+            }
+
+        }
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> T attempt(String dependency, Error unavailable, RemoteCall<T, E> call) throws E {
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(dependency);
+
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(dependency);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+
+            throw reject(dependency, unavailable, "circuit-" + circuitBreaker.getState().name().toLowerCase());
+
+        }
+
+        try {
+
+            bulkhead.acquirePermission();
+
+        } catch (BulkheadFullException e) {
+
+            circuitBreaker.releasePermission();
+
+            throw reject(dependency, unavailable, "bulkhead-full");
+
+        }
+
+        long startedAt = circuitBreaker.getCurrentTimestamp();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        try {
+
+            T result = call.call();
+
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - startedAt, circuitBreaker.getTimestampUnit(), result);
+
+            sample.stop(callTimer(dependency, "success", "none"));
+
+            return result;
+
+        } catch (Exception e) {
+
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - startedAt, circuitBreaker.getTimestampUnit(), e);
+
+            sample.stop(callTimer(dependency, "failure", e.getClass().getSimpleName()));
+
+            throw (E) e;
+
+        } finally {
+
+            bulkhead.onComplete();
+
+        }
+
+    }
+
+    /**
+     * Returns how many calls to a dependency were rejected since startup, by the bulkhead or the open circuit.
+     */
+    public long getRejectedCalls(String dependency) {
+
+        LongAdder rejected = rejectedCalls.get(dependency);
+
+        return rejected == null ? 0 : rejected.sum();
+
+    }
+
+    private HttpResponseException reject(String dependency, Error unavailable, String reason) {
+
+        rejectedCalls.computeIfAbsent(dependency, key -> new LongAdder()).increment();
+
+        meterRegistry.counter("remote.call.rejected", "dependency", dependency, "reason", reason).increment();
+
+        log.warn("{}, Call to {} rejected: {}", this.getClass().getSimpleName(), dependency, reason);
+
+        return unavailable.exception();
+
+    }
+
+    /**
+     * Times one attempt of a remote call, as {@code remote.call} tagged by dependency, outcome and exception.
+     */
+    private Timer callTimer(String dependency, String outcome, String exception) {
+
+        return Timer.builder("remote.call")
+                .description("Calls to remote dependencies, per attempt")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+
+    }
+
+    private void logStateTransitions(CircuitBreaker circuitBreaker) {
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("{}, Circuit breaker {} changed state: {}", this.getClass().getSimpleName(),
+                        event.getCircuitBreakerName(), event.getStateTransition()));
+
+    }
+
+}
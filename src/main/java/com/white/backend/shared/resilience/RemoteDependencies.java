@@ -0,0 +1,16 @@
+package com.white.backend.shared.resilience;
+
+/**
+ * Names of the remote dependencies guarded by {@link RemoteCallGuard}, matching the
+ * {@code resilience4j.bulkhead.instances} and {@code resilience4j.circuitbreaker.instances} entries.
+ */
+public final class RemoteDependencies {
+
+    public static final String CLOUDINARY = "cloudinary";
+
+    public static final String GOOGLE = "google";
+
+    private RemoteDependencies() {
+    }
+
+}
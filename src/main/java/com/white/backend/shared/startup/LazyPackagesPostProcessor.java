@@ -0,0 +1,78 @@
+package com.white.backend.shared.startup;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Marks the beans of the {@code app.startup.lazy-packages} as lazy, so they are created on first use rather than
+ * while the application starts. Meant for beans no request depends on right after boot, such as the OpenAPI
+ * documentation. Unlike {@code spring.main.lazy-initialization}, everything on the request path stays eager, so the
+ * first real request does not pay for deferred start-up work.
+ * <p>
+ * A bean counts as part of a package when its class, or for a {@code @Bean} method the declaring configuration
+ * class, is in it. Under AOT the flags are computed at build time from the profile used for processing.
+ */
+public class LazyPackagesPostProcessor implements BeanFactoryPostProcessor {
+
+    private final List<String> packages;
+
+    public LazyPackagesPostProcessor(Environment environment) {
+
+        this.packages = Binder.get(environment).bind("app.startup.lazy-packages", String[].class)
+                .map(List::of)
+                .orElse(List.of())
+                .stream()
+                .map(name -> name.endsWith(".") ? name : name + ".")
+                .toList();
+
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+
+        if (packages.isEmpty()) {
+            return;
+        }
+
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+
+            String className = declaringClassName(definition);
+
+            if (className != null && packages.stream().anyMatch(className::startsWith)) {
+                definition.setLazyInit(true);
+            }
+
+        }
+
+    }
+
+    private static String declaringClassName(BeanDefinition definition) {
+
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+
+        }
+
+        return definition.getBeanClassName();
+
+    }
+
+}
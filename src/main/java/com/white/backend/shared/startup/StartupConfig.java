@@ -0,0 +1,20 @@
+package com.white.backend.shared.startup;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Static, so the post-processor runs before this configuration class itself is instantiated.
+     */
+    @Bean
+    static LazyPackagesPostProcessor lazyPackagesPostProcessor(Environment environment) {
+
+        return new LazyPackagesPostProcessor(environment);
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.white.backend.shared.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUpConfig {
+
+    /**
+     * Named {@code warmUp}, which is also the name of its health contributor in the readiness group.
+     */
+    @Bean
+    WarmUpRunner warmUp(WarmUpProperties properties, Map<String, WarmUpTask> tasks) {
+
+        return new WarmUpRunner(properties, tasks);
+
+    }
+
+    @Bean
+    MeterBinder warmUpMetrics(WarmUpRunner warmUp) {
+
+        return registry -> {
+
+            TimeGauge.builder("app.warm-up.duration", warmUp, TimeUnit.NANOSECONDS, WarmUpRunner::getDurationNanos)
+                    .description("Time from the start of the warm-up until it settled or timed out")
+                    .register(registry);
+
+            TimeGauge.builder("app.warm-up.round", warmUp, TimeUnit.NANOSECONDS, WarmUpRunner::getFirstRoundNanos)
+                    .description("Latency of one round over all warm-up tasks")
+                    .tag("phase", "first")
+                    .register(registry);
+
+            TimeGauge.builder("app.warm-up.round", warmUp, TimeUnit.NANOSECONDS, WarmUpRunner::getSettledRoundNanos)
+                    .description("Latency of one round over all warm-up tasks")
+                    .tag("phase", "settled")
+                    .register(registry);
+
+            Gauge.builder("app.warm-up.rounds", warmUp, WarmUpRunner::getRounds)
+                    .description("Warm-up rounds run")
+                    .register(registry);
+
+        };
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.white.backend.shared.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How long the warm-up drives the {@link WarmUpTask}s before the application reports ready.
+ * <p>
+ * The warm-up has settled once the median latency of the last {@code settleRounds} rounds is at most
+ * {@code settleTolerance} (a fraction) faster than that of the {@code settleRounds} before, and at least
+ * {@code minRounds} have run. It stops at {@code maxDuration} regardless, so a
+ * JVM that keeps compiling never stays out of the load balancer.
+ */
+@ConfigurationProperties(prefix = "app.warm-up")
+public record WarmUpProperties(
+
+        boolean enabled,
+
+        Duration maxDuration,
+
+        int minRounds,
+
+        int settleRounds,
+
+        double settleTolerance
+
+) {
+}
@@ -0,0 +1,286 @@
+package com.white.backend.shared.warmup;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives the {@link WarmUpTask}s in rounds once the application has started, until JIT compilation settles, and
+ * reports {@code OUT_OF_SERVICE} until then. Compilation counts as settled once the round latency stops improving.
+ * <p>
+ * The rounds run on one background thread, so liveness and the actuator stay responsive. A task that throws is
+ * dropped for the rest of the warm-up and listed in the health details. The latency of the first round and of the
+ * rounds after compilation settled show what the warm-up saved the first real requests.
+ */
+@Slf4j
+public class WarmUpRunner implements ApplicationListener<ApplicationReadyEvent>, HealthIndicator, DisposableBean {
+
+    public enum State {
+
+        PENDING,
+
+        RUNNING,
+
+        SETTLED,
+
+        TIMED_OUT,
+
+        DISABLED
+
+    }
+
+    private final WarmUpProperties properties;
+
+    private final Map<String, WarmUpTask> tasks;
+
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+    private final Map<String, String> failedTasks = new ConcurrentHashMap<>();
+
+    @Getter
+    private volatile State state;
+
+    @Getter
+    private volatile int rounds;
+
+    @Getter
+    private volatile long durationNanos;
+
+    @Getter
+    private volatile long firstRoundNanos;
+
+    @Getter
+    private volatile long settledRoundNanos;
+
+    @Getter
+    private volatile long compilationMillis;
+
+    private volatile Thread thread;
+
+    public WarmUpRunner(WarmUpProperties properties, Map<String, WarmUpTask> tasks) {
+
+        this.properties = properties;
+
+        this.tasks = new LinkedHashMap<>(tasks);
+
+        this.state = properties.enabled() ? State.PENDING : State.DISABLED;
+
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+
+        if (state != State.PENDING) {
+            return;
+        }
+
+        Thread warmUp = new Thread(this::run, "warm-up");
+
+        warmUp.setDaemon(true);
+
+        thread = warmUp;
+
+        warmUp.start();
+
+    }
+
+    /**
+     * Runs the warm-up on the calling thread and returns once it has settled or timed out.
+     */
+    void run() {
+
+        state = State.RUNNING;
+
+        List<Map.Entry<String, WarmUpTask>> remaining = new ArrayList<>(tasks.entrySet());
+
+        int window = properties.settleRounds();
+
+        // The latest 2 * window round latencies; the older half is compared with the newer half
+        long[] recent = new long[2 * window];
+
+        long start = System.nanoTime();
+
+        long deadline = start + properties.maxDuration().toNanos();
+
+        long compiledBefore = compilationTimeMillis();
+
+        long roundNanos = 0;
+
+        State outcome = State.TIMED_OUT;
+
+        while (!Thread.currentThread().isInterrupted()) {
+
+            long roundStart = System.nanoTime();
+
+            runRound(remaining);
+
+            roundNanos = System.nanoTime() - roundStart;
+
+            recent[rounds % recent.length] = roundNanos;
+
+            rounds++;
+
+            if (rounds == 1) {
+                firstRoundNanos = roundNanos;
+            }
+
+            if (rounds >= Math.max(properties.minRounds(), recent.length) && hasSettled(recent)) {
+
+                outcome = State.SETTLED;
+
+                break;
+
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+
+        }
+
+        settledRoundNanos = rounds >= window ? median(recent, rounds - window, window) : roundNanos;
+
+        compilationMillis = compilationTimeMillis() - compiledBefore;
+
+        durationNanos = System.nanoTime() - start;
+
+        state = outcome;
+
+        log.atInfo()
+                .setMessage("Warm-up finished")
+                .addKeyValue("state", outcome)
+                .addKeyValue("rounds", rounds)
+                .addKeyValue("durationMs", Duration.ofNanos(durationNanos).toMillis())
+                .addKeyValue("firstRoundUs", firstRoundNanos / 1_000)
+                .addKeyValue("settledRoundUs", settledRoundNanos / 1_000)
+                .addKeyValue("compilationMs", compilationMillis)
+                .log();
+
+    }
+
+    /**
+     * The round latency has stopped improving once the median of the newest window is no more than
+     * {@code settleTolerance} below the median of the window before it.
+     */
+    private boolean hasSettled(long[] recent) {
+
+        int window = properties.settleRounds();
+
+        long previous = median(recent, rounds - 2 * window, window);
+
+        long latest = median(recent, rounds - window, window);
+
+        return latest >= previous * (1 - properties.settleTolerance());
+
+    }
+
+    private static long median(long[] ring, int from, int count) {
+
+        long[] values = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            values[i] = ring[(from + i) % ring.length];
+        }
+
+        Arrays.sort(values);
+
+        return values[count / 2];
+
+    }
+
+    private void runRound(List<Map.Entry<String, WarmUpTask>> remaining) {
+
+        Iterator<Map.Entry<String, WarmUpTask>> iterator = remaining.iterator();
+
+        while (iterator.hasNext()) {
+
+            Map.Entry<String, WarmUpTask> task = iterator.next();
+
+            try {
+
+                task.getValue().run();
+
+            } catch (Exception e) {
+
+                log.warn("Warm-up task {} failed and is skipped from now on: {}", task.getKey(), e.toString());
+
+                failedTasks.put(task.getKey(), e.toString());
+
+                iterator.remove();
+
+            }
+
+        }
+
+    }
+
+    private long compilationTimeMillis() {
+
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime()
+                : 0;
+
+    }
+
+    @Override
+    public Health health() {
+
+        State current = state;
+
+        Health.Builder builder = switch (current) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case SETTLED, TIMED_OUT, DISABLED -> Health.up();
+        };
+
+        builder.withDetail("state", current);
+
+        if (current == State.PENDING || current == State.DISABLED) {
+            return builder.build();
+        }
+
+        builder.withDetail("rounds", rounds);
+
+        if (current != State.RUNNING) {
+
+            builder.withDetail("duration", Duration.ofNanos(durationNanos).toString())
+                    .withDetail("firstRound", Duration.ofNanos(firstRoundNanos).toString())
+                    .withDetail("settledRound", Duration.ofNanos(settledRoundNanos).toString())
+                    .withDetail("compilation", Duration.ofMillis(compilationMillis).toString());
+
+        }
+
+        if (!failedTasks.isEmpty()) {
+            builder.withDetail("failedTasks", Map.copyOf(failedTasks));
+        }
+
+        return builder.build();
+
+    }
+
+    @Override
+    public void destroy() {
+
+        Thread warmUp = thread;
+
+        if (warmUp != null) {
+            warmUp.interrupt();
+        }
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.white.backend.shared.warmup;
+
+/**
+ * One hot path driven with synthetic input while the application warms up. Registered as a bean; the bean name
+ * identifies the task in the health details.
+ * <p>
+ * A task must be side-effect free: it runs many times before the first real request and must not write data.
+ */
+@FunctionalInterface
+public interface WarmUpTask {
+
+    void run() throws Exception;
+
+}
@@ -1,16 +1,23 @@
 package com.white.backend.user.controller;
 
+import com.white.backend.user.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/v1/user")
 @RequiredArgsConstructor
 public class UserController {
 
+    private final UserService userService;
+
     @GetMapping("/me")
     public String me(Authentication authentication) {
 
@@ -18,4 +25,15 @@ public class UserController {
 
     }
 
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(
+            summary = "Import users",
+            description = "Streams newline-delimited JSON user records into the database using batched inserts. " +
+                    "Passwords must already be encoded. Intended for migration jobs; requires the ADMIN role.")
+    public String importUsers(InputStream body) {
+
+        return "Users imported " + userService.importUsers(body);
+
+    }
+
 }
@@ -0,0 +1,48 @@
+package com.white.backend.user.dto;
+
+import com.white.backend.authentication.entity.User;
+import com.white.backend.shared.enums.Role;
+
+import java.io.Serializable;
+
+/**
+ * One line of a user import, for {@link User}.
+ * The password is expected to be an already encoded hash and is stored as is.
+ */
+public record UserImportRequestDto(
+
+        String username,
+
+        String password,
+
+        String email,
+
+        String name,
+
+        String avatar,
+
+        Role role
+
+) implements Serializable {
+
+    public User toUser() {
+
+        return User.builder()
+
+                .username(username)
+
+                .password(password)
+
+                .email(email)
+
+                .name(name)
+
+                .avatar(avatar)
+
+                .role(role == null ? Role.USER : role)
+
+                .build();
+
+    }
+
+}
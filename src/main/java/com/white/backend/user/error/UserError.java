@@ -0,0 +1,37 @@
+package com.white.backend.user.error;
+
+import com.white.backend.shared.base.Error;
+import org.springframework.http.HttpStatus;
+
+public enum UserError implements Error {
+
+    INVALID_IMPORT_RECORD(HttpStatus.BAD_REQUEST, "Invalid import record"),
+
+    DUPLICATE_IMPORT_RECORD(HttpStatus.CONFLICT, "Import contains a user that already exists");
+
+    UserError(HttpStatus code, String message) {
+
+        this.code = code;
+
+        this.message = message;
+
+    }
+
+    public final HttpStatus code;
+
+    public final String message;
+
+    @Override
+    public HttpStatus getCode() {
+
+        return code;
+
+    }
+
+    @Override
+    public String getMessage() {
+
+        return message;
+
+    }
+}
@@ -0,0 +1,70 @@
+package com.white.backend.user.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.persistence.BulkInsertService;
+import com.white.backend.user.dto.UserImportRequestDto;
+import com.white.backend.user.error.UserError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service class for user administration tasks that are not part of the authentication flow.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserService {
+
+    private final BulkInsertService bulkInsertService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Imports users from newline-delimited JSON, one {@link UserImportRequestDto} per line.
+     * Records are parsed lazily and written through batched inserts, so memory use does not grow with the payload.
+     * All records are imported in one transaction; if any fails, none are kept.
+     *
+     * @param ndjson the import payload
+     * @return the number of imported users
+     * @throws HttpResponseException if a record cannot be read or lacks a required field, or a username already exists
+     */
+    public long importUsers(InputStream ndjson) {
+
+        try (MappingIterator<UserImportRequestDto> records = objectMapper.readerFor(UserImportRequestDto.class).readValues(ndjson)) {
+
+            log.info("{}, Importing users", this.getClass().getSimpleName());
+
+            return bulkInsertService.insertAll(records, UserImportRequestDto::toUser);
+
+        } catch (IOException | RuntimeJsonMappingException e) {
+
+            log.error("{}, Error importing users: {}", this.getClass().getSimpleName(), e.getMessage());
+
+            throw UserError.INVALID_IMPORT_RECORD.exception();
+
+        } catch (DuplicateKeyException e) {
+
+            log.error("{}, Duplicate user in import: {}", this.getClass().getSimpleName(), e.getMostSpecificCause().getMessage());
+
+            throw UserError.DUPLICATE_IMPORT_RECORD.exception();
+
+        } catch (DataIntegrityViolationException e) {
+
+            log.error("{}, Incomplete user in import: {}", this.getClass().getSimpleName(), e.getMostSpecificCause().getMessage());
+
+            throw UserError.INVALID_IMPORT_RECORD.exception();
+
+        }
+
+    }
+
+}
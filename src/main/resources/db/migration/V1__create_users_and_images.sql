@@ -0,0 +1,30 @@
+create table users
+(
+    id         varchar(255) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    is_deleted boolean,
+    username   varchar(255) not null,
+    password   varchar(255),
+    email      varchar(255) not null,
+    name       varchar(255) not null,
+    avatar     varchar(255),
+    role       varchar(255) not null,
+    primary key (id)
+);
+
+create table images
+(
+    id         varchar(255) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    is_deleted boolean,
+    public_id  varchar(255) not null,
+    name       varchar(255) not null,
+    url        varchar(255) not null,
+    size       bigint       not null,
+    extension  varchar(255) not null,
+    primary key (id)
+);
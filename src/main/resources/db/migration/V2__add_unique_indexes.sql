@@ -0,0 +1,5 @@
+-- Login, refresh and the Google callback look users up by username; image deletion filters on public_id.
+-- Both columns are natural keys, so the indexes are unique to also guard against duplicate rows.
+create unique index ux_users_username on users (username);
+
+create unique index ux_images_public_id on images (public_id);
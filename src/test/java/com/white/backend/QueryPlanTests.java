@@ -0,0 +1,91 @@
+package com.white.backend;
+
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.file.image.repository.ImageRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the SQL Hibernate issues for the hot lookups and runs it through H2's {@code EXPLAIN},
+ * failing as soon as one of them falls back to a table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.white.backend.QueryPlanTests$CapturingStatementInspector")
+class QueryPlanTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Required by the user seeding in BackendApplication, which the JPA slice still instantiates
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void clearCapturedStatements() {
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findAccountByUsernameUsesUsernameIndex() {
+        userRepository.findAccountByUsername("user");
+
+        assertThat(explain(lastSelect("users"), "user")).contains("UX_USERS_USERNAME");
+    }
+
+    @Test
+    void existsByUsernameUsesUsernameIndex() {
+        userRepository.existsByUsername("user");
+
+        assertThat(explain(lastSelect("users"), "user", 1)).contains("UX_USERS_USERNAME");
+    }
+
+    @Test
+    void deleteByPublicIdUsesPublicIdIndex() {
+        imageRepository.deleteByPublicId("public-id");
+
+        assertThat(explain(lastSelect("images"), "public-id")).contains("UX_IMAGES_PUBLIC_ID");
+    }
+
+    private String lastSelect(String table) {
+        List<String> selects = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "))
+                .toList();
+
+        assertThat(selects).isNotEmpty();
+
+        return selects.get(selects.size() - 1);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parameters)).toUpperCase();
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.white.backend.authentication.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), registry);
+
+    @Test
+    void timesHashesAndChecksSeparately() {
+        String encoded = passwordEncoder.encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+
+        Timer encode = registry.get("auth.password").tag("operation", "encode").timer();
+        Timer match = registry.get("auth.password").tag("operation", "match").timer();
+        assertThat(encode.count()).isEqualTo(1);
+        assertThat(match.count()).isEqualTo(2);
+        assertThat(match.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.white.backend.authentication.service;
+
+import com.white.backend.authentication.error.AuthError;
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.audit.AuditLog;
+import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.shared.resilience.RemoteCallGuard;
+import com.white.backend.shared.resilience.RemoteDependencies;
+import com.white.backend.support.GoogleStandIn;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the Google callback against a slow local stand-in to check that the bulkhead and the circuit breaker
+ * fail fast with {@link AuthError#OAUTH2_PROVIDER_UNAVAILABLE} instead of waiting on Google.
+ */
+class GoogleOauth2ServiceResilienceTests {
+
+    private GoogleStandIn google;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private GoogleOauth2Service googleOauth2Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        google = new GoogleStandIn(Duration.ZERO, 1);
+
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+        requestFactory.setReadTimeout(Duration.ofMillis(300));
+
+        googleOauth2Service = new GoogleOauth2Service(mock(JwtService.class), mock(UserRepository.class),
+                new RestTemplate(requestFactory), new RemoteCallGuard(circuitBreakerRegistry, bulkheadRegistry, RetryRegistry.ofDefaults(), new SimpleMeterRegistry()),
+                mock(AuditLog.class));
+        ReflectionTestUtils.setField(googleOauth2Service, "tokenEndpoint", google.tokenUri());
+        ReflectionTestUtils.setField(googleOauth2Service, "userInfoEndpoint", google.userInfoUri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        google.close();
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondMaxConcurrency() throws Exception {
+        google.setLatency(Duration.ofMillis(200));
+
+        ExecutorService clients = Executors.newFixedThreadPool(6);
+        List<Future<Outcome>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(clients.submit(() -> {
+                try {
+                    googleOauth2Service.createTokenFromGoogleUser("code");
+                    return Outcome.TOKEN;
+                } catch (HttpResponseException e) {
+                    return e.getMessage().equals(AuthError.OAUTH2_PROVIDER_UNAVAILABLE.message)
+                            ? Outcome.UNAVAILABLE
+                            : Outcome.OTHER_ERROR;
+                }
+            }));
+        }
+
+        long unavailable = 0;
+        for (Future<Outcome> call : calls) {
+            if (call.get() == Outcome.UNAVAILABLE) {
+                unavailable++;
+            }
+        }
+        clients.shutdown();
+
+        assertThat(unavailable).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingGoogle() {
+        google.setLatency(Duration.ofSeconds(1));
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> googleOauth2Service.createTokenFromGoogleUser("code"))
+                    .hasMessage(AuthError.UNAUTHORIZED.message);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker(RemoteDependencies.GOOGLE).getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        int requestsBefore = google.requestCount();
+        long startedAt = System.nanoTime();
+
+        assertThatThrownBy(() -> googleOauth2Service.createTokenFromGoogleUser("code"))
+                .hasMessage(AuthError.OAUTH2_PROVIDER_UNAVAILABLE.message);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(100));
+        assertThat(google.requestCount()).isEqualTo(requestsBefore);
+    }
+
+    private enum Outcome {
+        TOKEN, UNAVAILABLE, OTHER_ERROR
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.white.backend.authentication.service;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.dto.response.TokenResponseDto;
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.shared.audit.AuditLog;
+import com.white.backend.shared.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires bursts of identical refreshes and user lookups at once and checks that each burst reaches the database once.
+ */
+class SingleFlightLookupTests {
+
+    private static final int BURST = 16;
+
+    private final ExecutorService clients = Executors.newFixedThreadPool(BURST);
+
+    private final CountDownLatch burstStarted = new CountDownLatch(BURST);
+
+    private UserRepository userRepository;
+
+    private UserLookupService userLookupService;
+
+    private JwtService jwtService;
+
+    private UserAccountDto user;
+
+    @BeforeEach
+    void setUp() {
+        user = UserAccountDto.builder().username("alice").name("Alice").email("alice@example.com").role(Role.USER).build();
+
+        userRepository = mock(UserRepository.class);
+        // Hold the query until every client of the burst has called in, like a slow database under load
+        when(userRepository.findAccountByUsername("alice")).thenAnswer(invocation -> {
+            burstStarted.await(5, TimeUnit.SECONDS);
+            Thread.sleep(200);
+            return Optional.of(user);
+        });
+
+        userLookupService = new UserLookupService(userRepository);
+        jwtService = new JwtService(userLookupService, new SimpleMeterRegistry(), mock(AuditLog.class));
+        ReflectionTestUtils.setField(jwtService, "signerKey", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void burstOfLookupsRunsOneQuery() throws Exception {
+        List<Optional<UserAccountDto>> results = burst(() -> userLookupService.findByUsername("alice"));
+
+        assertThat(results).allSatisfy(result -> assertThat(result).containsSame(user));
+        verify(userRepository, times(1)).findAccountByUsername("alice");
+        assertThat(userLookupService.getCoalescedLookups()).isEqualTo(BURST - 1);
+    }
+
+    @Test
+    void burstOfRefreshesWithOneTokenRunsOneQueryAndSharesTheNewToken() throws Exception {
+        String refreshToken = jwtService.generateToken(user, 30, JwtService.TokenType.REFRESH_TOKEN);
+
+        List<TokenResponseDto> results = burst(() -> jwtService.refreshToken(refreshToken));
+
+        assertThat(results).extracting(TokenResponseDto::accessToken).containsOnly(results.get(0).accessToken());
+        verify(userRepository, times(1)).findAccountByUsername("alice");
+    }
+
+    @Test
+    void callsAfterABurstQueryAgain() throws Exception {
+        burst(() -> userLookupService.findByUsername("alice"));
+
+        userLookupService.findByUsername("alice");
+
+        verify(userRepository, times(2)).findAccountByUsername("alice");
+    }
+
+    private <T> List<T> burst(Supplier<T> call) throws Exception {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < BURST; i++) {
+            futures.add(clients.submit(() -> {
+                burstStarted.countDown();
+                return call.get();
+            }));
+        }
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+}
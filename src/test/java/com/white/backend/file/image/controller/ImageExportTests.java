@@ -0,0 +1,137 @@
+package com.white.backend.file.image.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.error.FileError;
+import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.file.image.service.ImageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.rate-limit.enabled=false")
+class ImageExportTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @SpyBean
+    private ImageRepository imageRepository;
+
+    @SpyBean
+    private ImageService imageService;
+
+    private String accessToken;
+
+    @BeforeEach
+    void signIn() throws Exception {
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user\",\"password\":\"password\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        accessToken = objectMapper.readTree(login.body()).get("accessToken").asText();
+        imageRepository.saveAll(List.of(image("export-1", "plain.png"), image("export-2", "with, comma \"and\" quotes.png")));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        imageRepository.deleteAllInBatch();
+    }
+
+    private HttpResponse<String> export(String format) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/file/image/export?format=" + format))
+                .header("Authorization", "Bearer " + accessToken)
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void exportsNdjson() throws Exception {
+        HttpResponse<String> response = export("ndjson");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+        List<JsonNode> rows = response.body().lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }).toList();
+        assertThat(rows).extracting(row -> row.get("publicId").asText()).containsExactlyInAnyOrder("export-1", "export-2");
+    }
+
+    @Test
+    void exportsCsv() throws Exception {
+        HttpResponse<String> response = export("csv");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        List<String> lines = response.body().lines().toList();
+        assertThat(lines.get(0)).isEqualTo("publicId,name,url,size,extension,createdAt,updatedAt,deletedAt,isDeleted");
+        assertThat(lines).hasSize(3)
+                .anySatisfy(line -> assertThat(line).startsWith("export-1,plain.png,"))
+                .anySatisfy(line -> assertThat(line).startsWith("export-2,\"with, comma \"\"and\"\" quotes.png\","));
+    }
+
+    @Test
+    void abortsTheResponseWhenWritingFailsAfterItWasCommitted() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream body = invocation.getArgument(0);
+            body.write("{\"publicId\":\"export-1\"}\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            throw FileError.HAVE_ERROR_WHILE_EXPORTING_FILE.exception();
+        }).when(imageService).exportImages(any(), any());
+
+        // Rather than a complete 200 response with the error body appended
+        assertThatThrownBy(() -> export("ndjson")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void abortsTheResponseWhenTheCursorFailsAfterItWasCommitted() {
+        // Enough rows to fill and flush the response buffer before the cursor fails
+        doAnswer(invocation -> Stream.concat(
+                IntStream.range(0, 5_000).mapToObj(i -> image("generated-" + i, "generated.png")),
+                Stream.<Image>generate(() -> {
+                    throw new DataAccessResourceFailureException("Connection lost");
+                })))
+                .when(imageRepository).streamAll();
+
+        assertThatThrownBy(() -> export("ndjson")).isInstanceOf(IOException.class);
+    }
+
+    private static Image image(String publicId, String name) {
+        return Image.builder()
+                .publicId(publicId)
+                .name(name)
+                .url("https://res.cloudinary.com/demo/image/upload/" + publicId)
+                .size(1024L)
+                .extension("png")
+                .build();
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.white.backend.file.image.service;
+
+import com.cloudinary.Cloudinary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.file.image.dto.ImageResponseDto;
+import com.white.backend.file.image.dto.ImageUploadConfirmRequestDto;
+import com.white.backend.file.image.dto.ImageUploadSignatureResponseDto;
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.error.FileError;
+import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.shared.exception.HttpResponseException;
+import com.white.backend.support.StorageStandIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs signed direct uploads against a local Cloudinary stand-in: the client uploads with the signed parameters,
+ * then the backend verifies the stand-in's response signature before recording the image.
+ */
+class ImageDirectUploadServiceTests {
+
+    private static final String FILE = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8/5+hHgAHggJ/PchI7wAAAABJRU5ErkJggg==";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StorageStandIn storage;
+
+    private ImageRepository imageRepository;
+
+    private Cloudinary cloudinary;
+
+    private ImageDirectUploadService imageDirectUploadService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new StorageStandIn("demo", "secret");
+
+        cloudinary = new Cloudinary(Map.of(
+                "cloud_name", "demo",
+                "api_key", "key",
+                "api_secret", "secret",
+                "upload_prefix", storage.uploadPrefix()));
+
+        imageRepository = mock(ImageRepository.class);
+
+        imageDirectUploadService = new ImageDirectUploadService(cloudinary, imageRepository, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    void signedUploadIsAcceptedByStorageAndRecordedOnConfirm() throws Exception {
+        ImageUploadSignatureResponseDto signed = imageDirectUploadService.signUpload("alice");
+
+        HttpResponse<String> uploaded = upload(signed, signed.publicId());
+        assertThat(uploaded.statusCode()).isEqualTo(200);
+
+        ImageResponseDto image = imageDirectUploadService.confirmUpload("alice",
+                objectMapper.readValue(uploaded.body(), ImageUploadConfirmRequestDto.class));
+
+        ArgumentCaptor<Image> saved = ArgumentCaptor.forClass(Image.class);
+        verify(imageRepository).save(saved.capture());
+        assertThat(saved.getValue().getPublicId()).isEqualTo(signed.publicId());
+        assertThat(saved.getValue().getExtension()).isEqualTo("png");
+        assertThat(image.url()).contains(signed.publicId());
+    }
+
+    @Test
+    void storageRejectsParametersThatWereNotSigned() throws Exception {
+        ImageUploadSignatureResponseDto signed = imageDirectUploadService.signUpload("alice");
+
+        assertThat(upload(signed, "someone-elses-image").statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void confirmRejectsForgedResponses() throws Exception {
+        ImageUploadSignatureResponseDto signed = imageDirectUploadService.signUpload("alice");
+
+        ImageUploadConfirmRequestDto forged = new ImageUploadConfirmRequestDto(signed.publicId(), "1", "forged", "png", 1L, "file");
+
+        assertThatThrownBy(() -> imageDirectUploadService.confirmUpload("alice", forged))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getMessage()).isEqualTo(FileError.INVALID_UPLOAD_SIGNATURE.getMessage()));
+        verify(imageRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadIsConfirmedOnceAndOnlyByTheUserItWasSignedFor() throws Exception {
+        ImageUploadSignatureResponseDto signed = imageDirectUploadService.signUpload("alice");
+        ImageUploadConfirmRequestDto response = objectMapper.readValue(upload(signed, signed.publicId()).body(),
+                ImageUploadConfirmRequestDto.class);
+
+        assertThatThrownBy(() -> imageDirectUploadService.confirmUpload("mallory", response))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getMessage()).isEqualTo(FileError.UPLOAD_NOT_PENDING.getMessage()));
+
+        imageDirectUploadService.confirmUpload("alice", response);
+
+        // The second save is the one the unique index on the public ID rejects
+        when(imageRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate public ID"));
+        assertThatThrownBy(() -> imageDirectUploadService.confirmUpload("alice", response))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getMessage()).isEqualTo(FileError.UPLOAD_ALREADY_CONFIRMED.getMessage()));
+    }
+
+    @Test
+    void uploadSignedByOneReplicaIsConfirmedByAnother() throws Exception {
+        ImageUploadSignatureResponseDto signed = imageDirectUploadService.signUpload("alice");
+        ImageUploadConfirmRequestDto response = objectMapper.readValue(upload(signed, signed.publicId()).body(),
+                ImageUploadConfirmRequestDto.class);
+
+        ImageDirectUploadService otherReplica = new ImageDirectUploadService(cloudinary, imageRepository, Duration.ofMinutes(10));
+
+        assertThat(otherReplica.confirmUpload("alice", response).publicId()).isEqualTo(signed.publicId());
+    }
+
+    @Test
+    void expiredUploadIsNotConfirmed() throws Exception {
+        ImageDirectUploadService expiring = new ImageDirectUploadService(cloudinary, imageRepository, Duration.ofSeconds(-1));
+        ImageUploadSignatureResponseDto signed = expiring.signUpload("alice");
+        ImageUploadConfirmRequestDto response = objectMapper.readValue(upload(signed, signed.publicId()).body(),
+                ImageUploadConfirmRequestDto.class);
+
+        assertThatThrownBy(() -> expiring.confirmUpload("alice", response))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getMessage()).isEqualTo(FileError.UPLOAD_NOT_PENDING.getMessage()));
+        verify(imageRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadStoredBeforeItExpiredIsConfirmedAfterwards() throws Exception {
+        ImageDirectUploadService expiring = new ImageDirectUploadService(cloudinary, imageRepository, Duration.ofSeconds(1));
+        ImageUploadSignatureResponseDto signed = expiring.signUpload("alice");
+        ImageUploadConfirmRequestDto response = objectMapper.readValue(upload(signed, signed.publicId()).body(),
+                ImageUploadConfirmRequestDto.class);
+
+        Thread.sleep(Duration.between(Instant.now(), signed.expiresAt().plusSeconds(1)).toMillis());
+
+        assertThat(expiring.confirmUpload("alice", response).publicId()).isEqualTo(signed.publicId());
+    }
+
+    private HttpResponse<String> upload(ImageUploadSignatureResponseDto signed, String publicId) throws Exception {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("file", FILE);
+        form.put("api_key", signed.apiKey());
+        form.put("public_id", publicId);
+        form.put("timestamp", String.valueOf(signed.timestamp()));
+        form.put("allowed_formats", signed.allowedFormats());
+        form.put("signature", signed.signature());
+
+        String body = form.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        return client.send(HttpRequest.newBuilder(URI.create(signed.uploadUrl()))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.white.backend.file.image.service;
+
+import com.cloudinary.Cloudinary;
+import com.white.backend.admin.dto.CacheStatsResponseDto;
+import com.white.backend.admin.service.AdminService;
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.shared.cache.CacheRegions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ImageServiceCacheTests {
+
+    private static final String PUBLIC_ID = "cached-image";
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @SpyBean
+    private ImageRepository imageRepository;
+
+    @MockBean(answer = Answers.RETURNS_DEEP_STUBS)
+    private Cloudinary cloudinary;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = Objects.requireNonNull(cacheManager.getCache(CacheRegions.IMAGES));
+        cache.clear();
+        imageRepository.save(Image.builder()
+                .publicId(PUBLIC_ID)
+                .name("cached.png")
+                .url("https://res.cloudinary.com/demo/image/upload/" + PUBLIC_ID)
+                .size(1024L)
+                .extension("png")
+                .build());
+        clearInvocations(imageRepository);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        imageRepository.deleteAllInBatch();
+        cache.clear();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromTheCacheAndCountsThem() {
+        CacheStatsResponseDto before = imagesStats();
+
+        imageService.getImage(PUBLIC_ID);
+        imageService.getImage(PUBLIC_ID);
+
+        verify(imageRepository, times(1)).findByPublicId(PUBLIC_ID);
+        CacheStatsResponseDto after = imagesStats();
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1);
+        assertThat(after.missCount() - before.missCount()).isEqualTo(1);
+        assertThat(after.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsOnDeleteOnlyOnceTheTransactionCommits() throws Exception {
+        when(cloudinary.uploader().destroy(eq(PUBLIC_ID), any(Map.class)).get("result")).thenReturn("ok");
+        imageService.getImage(PUBLIC_ID);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            imageService.deleteImageFile(PUBLIC_ID);
+
+            // A read racing the commit must not find the entry gone and re-cache the row being deleted
+            assertThat(cache.get(PUBLIC_ID)).isNotNull();
+        });
+
+        assertThat(cache.get(PUBLIC_ID)).isNull();
+        assertThat(imageRepository.findByPublicId(PUBLIC_ID)).isEmpty();
+    }
+
+    private CacheStatsResponseDto imagesStats() {
+        return adminService.getCacheStats().stream()
+                .filter(stats -> stats.region().equals(CacheRegions.IMAGES))
+                .findFirst()
+                .orElseThrow();
+    }
+
+}
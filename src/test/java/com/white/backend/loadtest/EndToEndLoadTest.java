@@ -0,0 +1,240 @@
+package com.white.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.support.GoogleStandIn;
+import com.white.backend.support.LoadGenerator;
+import com.white.backend.support.StorageStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the full stack against local stand-ins for Google and Cloudinary, so no credentials or network are needed.
+ * Drives login, refresh, OAuth2 callback, upload, list and delete in turn and reports throughput and latency
+ * percentiles for each, printed and written to {@code build/reports/loadtest/end-to-end.csv}.
+ * <p>
+ * Tune with {@code ./gradlew loadTest -Ploadtest.concurrency=64 -Ploadtest.duration=PT20S
+ * -Ploadtest.latency=PT0.05S -Ploadtest.error-rate=0.02}; latency and error rate apply to both stand-ins.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.security=WARN",
+        // Measures the application itself, so nothing may be throttled or shed
+        "app.rate-limit.enabled=false",
+        "app.concurrency-limit.enabled=false",
+        "spring.security.oauth2.client.registration.google.client-id=load-test",
+        "spring.security.oauth2.client.registration.google.client-secret=load-test",
+        "spring.security.oauth2.client.registration.google.redirect-uri=http://localhost/callback",
+        "cloud.cloudinary.cloud-name=" + EndToEndLoadTest.CLOUD_NAME,
+        "cloud.cloudinary.api-key=load-test",
+        "cloud.cloudinary.api-secret=" + EndToEndLoadTest.API_SECRET
+})
+class EndToEndLoadTest {
+
+    static final String CLOUD_NAME = "load-test";
+
+    static final String API_SECRET = "load-test-secret";
+
+    // Below the 20-call bulkheads around Google and Cloudinary; above that, calls are shed with 503 by design
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT10S"));
+
+    private static final Duration LATENCY = Duration.parse(System.getProperty("loadtest.latency", "PT0.02S"));
+
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.error-rate", "0"));
+
+    private static final GoogleStandIn GOOGLE = start(() -> new GoogleStandIn(LATENCY, 1_000));
+
+    private static final StorageStandIn STORAGE = start(() -> new StorageStandIn(CLOUD_NAME, API_SECRET));
+
+    // A 1x1 transparent PNG
+    private static final byte[] IMAGE = HexFormat.of().parseHex("89504e470d0a1a0a0000000d4948445200000001000000010806000000"
+            + "1f15c4890000000a49444154789c63000100000500010d0a2db40000000049454e44ae426082");
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    @DynamicPropertySource
+    static void standIns(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.client.provider.google.token-uri", GOOGLE::tokenUri);
+        registry.add("spring.security.oauth2.client.provider.google.user-info-uri", GOOGLE::userInfoUri);
+        registry.add("cloud.cloudinary.upload-prefix", STORAGE::uploadPrefix);
+    }
+
+    @AfterAll
+    static void stopStandIns() {
+        GOOGLE.close();
+        STORAGE.close();
+    }
+
+    @BeforeEach
+    void signIn() throws Exception {
+        JsonNode tokens = objectMapper.readTree(send(login()).body());
+        accessToken = tokens.get("accessToken").asText();
+        refreshToken = tokens.get("refreshToken").asText();
+
+        // Faults start once the suite is signed in, so set-up calls are not the ones that fail
+        GOOGLE.faults().errorRate(ERROR_RATE);
+        STORAGE.faults().latency(LATENCY).errorRate(ERROR_RATE);
+    }
+
+    @Test
+    void endToEnd() throws Exception {
+        new LoadGenerator(CONCURRENCY, Duration.ofSeconds(3)).run("warm-up", this::list);
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        AtomicInteger oauthCodes = new AtomicInteger();
+
+        results.add(run("login", this::login));
+        results.add(run("refresh", () -> request("/api/v1/auth/refresh")
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString(refreshToken))
+                .build()));
+        results.add(run("oauth2 callback", () -> request("/api/v1/auth/login/oauth2/callback?code=code-" + oauthCodes.incrementAndGet())
+                .GET()
+                .build()));
+        results.add(run("upload", this::upload));
+        results.add(run("list", this::list));
+
+        // Deletes run through what the uploads created and stop when none are left
+        Queue<String> uploaded = uploadedIds();
+        results.add(run("delete", () -> {
+            String publicId = uploaded.poll();
+            return publicId == null ? null : authorized("/api/v1/file/image/" + publicId).DELETE().build();
+        }));
+
+        report(results);
+
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.requests()).isPositive();
+            if (ERROR_RATE == 0 && CONCURRENCY <= 20) {
+                assertThat(result.errors()).as(result.name()).isZero();
+            }
+        });
+    }
+
+    private LoadGenerator.Result run(String name, Supplier<HttpRequest> requests) throws Exception {
+        return new LoadGenerator(CONCURRENCY, DURATION).run(name, requests);
+    }
+
+    private HttpRequest login() {
+        return request("/api/v1/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user\",\"password\":\"password\"}"))
+                .build();
+    }
+
+    private HttpRequest list() {
+        return authorized("/api/v1/file/image?page=0&size=20").GET().build();
+    }
+
+    private HttpRequest upload() {
+        String boundary = "load-test-boundary";
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"pixel.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(IMAGE);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return authorized("/api/v1/file/image")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private Queue<String> uploadedIds() throws Exception {
+        Queue<String> ids = new ConcurrentLinkedQueue<>();
+        for (int page = 0; ; page++) {
+            JsonNode content = objectMapper.readTree(send(authorized("/api/v1/file/image?size=1000&page=" + page).GET().build()).body())
+                    .get("content");
+            if (content == null || content.isEmpty()) {
+                return ids;
+            }
+            content.forEach(image -> ids.add(image.get("publicId").asText()));
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + accessToken);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(request.uri().toString()).isEqualTo(200);
+        return response;
+    }
+
+    private static void report(List<LoadGenerator.Result> results) throws IOException {
+        System.out.printf("%nEnd-to-end load: %d clients, %s per scenario, stand-in latency %s, error rate %.3f%n",
+                CONCURRENCY, DURATION, LATENCY, ERROR_RATE);
+        results.forEach(System.out::println);
+        System.out.printf("Injected errors: google %d, storage %d%n", GOOGLE.faults().injectedErrors(), STORAGE.faults().injectedErrors());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("scenario,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms");
+        results.forEach(result -> lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                result.name(), result.requests(), result.errors(), result.throughput(), result.p50(), result.p99(), result.p999())));
+        Path csv = Path.of("build", "reports", "loadtest", "end-to-end.csv");
+        Files.createDirectories(csv.getParent());
+        Files.write(csv, lines);
+    }
+
+    private static <T> T start(StandInFactory<T> factory) {
+        try {
+            return factory.create();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface StandInFactory<T> {
+
+        T create() throws IOException;
+
+    }
+
+}
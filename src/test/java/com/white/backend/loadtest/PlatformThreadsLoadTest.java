@@ -0,0 +1,4 @@
+package com.white.backend.loadtest;
+
+class PlatformThreadsLoadTest extends ServletThreadingLoadTest {
+}
@@ -0,0 +1,76 @@
+package com.white.backend.loadtest;
+
+import com.white.backend.support.GoogleStandIn;
+import com.white.backend.support.LoadGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the Google OAuth2 callback, which blocks on two remote calls, with more concurrent clients than
+ * Tomcat has platform threads. {@link PlatformThreadsLoadTest} and {@link VirtualThreadsLoadTest} run the
+ * same scenario in each execution mode; compare their output with {@code ./gradlew loadTest -PvirtualThreads}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.security=WARN",
+        // Compares raw threading capacity, so nothing may be shed
+        "app.concurrency-limit.enabled=false"
+})
+abstract class ServletThreadingLoadTest {
+
+    private static final int CONCURRENCY = 400;
+
+    private static final GoogleStandIn GOOGLE = startGoogle();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void googleEndpoints(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.client.provider.google.token-uri", GOOGLE::tokenUri);
+        registry.add("spring.security.oauth2.client.provider.google.user-info-uri", GOOGLE::userInfoUri);
+    }
+
+    @AfterAll
+    static void stopGoogle() {
+        GOOGLE.close();
+    }
+
+    @Test
+    void oauth2CallbackWithSlowGoogle() throws Exception {
+        URI callback = URI.create("http://localhost:" + port + "/api/v1/auth/login/oauth2/callback?code=load-test");
+
+        new LoadGenerator(50, Duration.ofSeconds(3)).run("warm-up", () -> HttpRequest.newBuilder(callback).build());
+
+        LoadGenerator.Result result = new LoadGenerator(CONCURRENCY, Duration.ofSeconds(15))
+                .run(getClass().getSimpleName(), () -> HttpRequest.newBuilder(callback).build());
+
+        System.out.println(result);
+
+        assertThat(result.requests()).isPositive();
+    }
+
+    private static GoogleStandIn startGoogle() {
+        try {
+            return new GoogleStandIn(Duration.ofMillis(100), 1_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
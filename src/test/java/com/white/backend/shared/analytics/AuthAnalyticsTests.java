@@ -0,0 +1,151 @@
+package com.white.backend.shared.analytics;
+
+import com.white.backend.shared.audit.AuditEventType;
+import com.white.backend.shared.audit.AuditRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class AuthAnalyticsTests {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+
+    private static final AnalyticsProperties PROPERTIES = new AnalyticsProperties(14, 4, 1024, 5, 35, 13);
+
+    private static AuditRecord record(Instant timestamp, AuditEventType type, boolean success, String subject) {
+        return new AuditRecord(timestamp, 0, type, success, subject, "");
+    }
+
+    private static AuthAnalytics analytics() {
+        return new AuthAnalytics(PROPERTIES, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void estimatesDistinctCountsWithinTheStandardError() {
+        HyperLogLog first = new HyperLogLog(14);
+        HyperLogLog second = new HyperLogLog(14);
+        for (int i = 0; i < 100_000; i++) {
+            first.add(Hashing.hash64("user" + i));
+            // Half of the second counter's users are also in the first
+            second.add(Hashing.hash64("user" + (i + 50_000)));
+        }
+
+        assertThat(first.estimate()).isCloseTo(100_000, within(3 * 812L));
+
+        first.merge(second);
+
+        assertThat(first.estimate()).isCloseTo(150_000, within(3 * 1218L));
+    }
+
+    @Test
+    void findsTheMostFrequentKeysAmongNoise() {
+        HeavyHitters heavyHitters = new HeavyHitters(5, 4, 1024);
+        for (int i = 0; i < 20_000; i++) {
+            heavyHitters.add("noise" + i);
+            if (i % 100 == 0) {
+                heavyHitters.add("mallory");
+            }
+            if (i % 200 == 0) {
+                heavyHitters.add("eve");
+            }
+        }
+
+        List<HeavyHitters.Entry> top = heavyHitters.top(2);
+
+        assertThat(top).extracting(HeavyHitters.Entry::key).containsExactly("mallory", "eve");
+        assertThat(top.get(0).estimate()).isBetween(200L, 200L + (long) Math.ceil(Math.E / 1024 * heavyHitters.total()));
+    }
+
+    @Test
+    void reportsActiveUsersLoginsAndFailingUsernames() {
+        AuthAnalytics analytics = analytics();
+        Instant yesterday = NOW.minusSeconds(86_400);
+        analytics.onRecord(record(yesterday, AuditEventType.LOGIN, true, "alice"));
+        analytics.onRecord(record(NOW, AuditEventType.LOGIN, true, "alice"));
+        analytics.onRecord(record(NOW, AuditEventType.OAUTH2_CALLBACK, true, "bob@example.com"));
+        analytics.onRecord(record(NOW, AuditEventType.TOKEN_REFRESH, true, "carol"));
+        analytics.onRecord(record(NOW, AuditEventType.LOGIN, false, "mallory"));
+        analytics.onRecord(record(NOW, AuditEventType.LOGIN, false, "mallory"));
+        analytics.onRecord(record(NOW, AuditEventType.TOKEN_REFRESH, false, ""));
+
+        AuthAnalytics.Report report = analytics.report(2, 1, 3, List.of());
+
+        assertThat(report.days()).containsExactly(
+                new AuthAnalytics.DailyActivity(LocalDate.of(2026, 3, 9), 1, Map.of(AuthAnalytics.Provider.PASSWORD, 1L, AuthAnalytics.Provider.GOOGLE, 0L)),
+                new AuthAnalytics.DailyActivity(LocalDate.of(2026, 3, 10), 3, Map.of(AuthAnalytics.Provider.PASSWORD, 1L, AuthAnalytics.Provider.GOOGLE, 1L)));
+        assertThat(report.activeUsers()).isEqualTo(3);
+        assertThat(report.months()).containsExactly(new AuthAnalytics.MonthlyActivity(YearMonth.of(2026, 3), 3));
+        assertThat(report.failingUsernames()).containsExactly(new HeavyHitters.Entry("mallory", 2));
+        assertThat(report.nodes()).isEqualTo(1);
+    }
+
+    @Test
+    void mergesExportsOfOtherNodes() {
+        AuthAnalytics local = analytics();
+        AuthAnalytics peer = analytics();
+        local.onRecord(record(NOW, AuditEventType.LOGIN, true, "alice"));
+        local.onRecord(record(NOW, AuditEventType.LOGIN, false, "mallory"));
+        peer.onRecord(record(NOW, AuditEventType.LOGIN, true, "alice"));
+        peer.onRecord(record(NOW, AuditEventType.OAUTH2_CALLBACK, true, "bob@example.com"));
+        peer.onRecord(record(NOW, AuditEventType.LOGIN, false, "mallory"));
+
+        AuthAnalytics.Report report = local.report(1, 1, 3, List.of(peer.export()));
+
+        assertThat(report.activeUsers()).isEqualTo(2);
+        assertThat(report.days().get(0).logins()).containsEntry(AuthAnalytics.Provider.PASSWORD, 2L).containsEntry(AuthAnalytics.Provider.GOOGLE, 1L);
+        assertThat(report.failingUsernames()).containsExactly(new HeavyHitters.Entry("mallory", 2));
+        assertThat(report.nodes()).isEqualTo(2);
+        // Merging leaves the node's own counts untouched
+        assertThat(local.report(1, 1, 3, List.of()).activeUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCorruptOrIncompatibleExports() {
+        AuthAnalytics other = new AuthAnalytics(new AnalyticsProperties(12, 4, 1024, 5, 35, 13), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> analytics().report(1, 1, 3, List.of(other.export())));
+        assertThatIllegalArgumentException().isThrownBy(() -> analytics().report(1, 1, 3, List.of(new byte[]{1, 2, 3})));
+    }
+
+    @Test
+    void rejectsExportsRetainingMoreThanThisNode() {
+        AuthAnalytics longer = new AuthAnalytics(new AnalyticsProperties(14, 4, 1024, 5, 100, 13), Clock.fixed(NOW, ZoneOffset.UTC));
+        longer.onRecord(record(NOW.minus(Duration.ofDays(50)), AuditEventType.LOGIN, true, "alice"));
+        longer.onRecord(record(NOW, AuditEventType.LOGIN, true, "bob"));
+
+        // Days this node no longer retains are skipped rather than rejected
+        assertThat(analytics().report(35, 1, 3, List.of(longer.export())).activeUsers()).isEqualTo(1);
+
+        for (int i = 0; i < 40; i++) {
+            longer.onRecord(record(NOW.minus(Duration.ofDays(i)), AuditEventType.LOGIN, true, "alice"));
+        }
+        assertThatIllegalArgumentException().isThrownBy(() -> analytics().report(1, 1, 3, List.of(longer.export())));
+    }
+
+    @Test
+    void rejectsExportsInflatingPastTheRetainedSketches() {
+        AuthAnalytics peer = analytics();
+        for (int day = 0; day < 35; day++) {
+            for (int i = 0; i < 5; i++) {
+                peer.onRecord(record(NOW.minus(Duration.ofDays(day)), AuditEventType.LOGIN, false, i + "x".repeat(60_000)));
+            }
+        }
+
+        byte[] export = peer.export();
+
+        assertThat(export.length).isLessThan(1 << 20);
+        assertThatIllegalArgumentException().isThrownBy(() -> analytics().report(1, 1, 3, List.of(export)));
+    }
+
+}
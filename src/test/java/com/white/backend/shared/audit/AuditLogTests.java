@@ -0,0 +1,234 @@
+package com.white.backend.shared.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private List<AuditRecord> readAll(AuditLogReader reader, AuditLogReader.Query query) throws IOException {
+        try (Stream<AuditRecord> records = reader.query(query)) {
+            return records.toList();
+        }
+    }
+
+    @Test
+    void writtenRecordsAreReadBackAndQueried() throws Exception {
+        AuditLog auditLog = new AuditLog(new AuditProperties(directory, DataSize.ofMegabytes(1), Duration.ofDays(1), Duration.ofDays(400), 64,
+                Duration.ofMillis(10)), Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(auditLog.record(AuditEventType.LOGIN, true, "alice", null)).isTrue();
+        assertThat(auditLog.record(AuditEventType.LOGIN, false, "bob", "UNAUTHORIZED")).isTrue();
+        assertThat(auditLog.record(AuditEventType.TOKEN_REFRESH, true, "alice", null)).isTrue();
+        auditLog.destroy();
+
+        assertThat(auditLog.getWritten()).isEqualTo(3);
+        AuditLogReader reader = new AuditLogReader(directory);
+        assertThat(readAll(reader, AuditLogReader.Query.ALL)).containsExactly(
+                new AuditRecord(NOW, 0, AuditEventType.LOGIN, true, "alice", ""),
+                new AuditRecord(NOW, 1, AuditEventType.LOGIN, false, "bob", "UNAUTHORIZED"),
+                new AuditRecord(NOW, 2, AuditEventType.TOKEN_REFRESH, true, "alice", ""));
+        assertThat(readAll(reader, new AuditLogReader.Query(null, null, AuditEventType.LOGIN, false, null)))
+                .extracting(AuditRecord::subject).containsExactly("bob");
+        assertThat(readAll(reader, new AuditLogReader.Query(NOW.plusSeconds(1), null, null, null, null))).isEmpty();
+        assertThat(reader.getCorruptRecords()).isZero();
+    }
+
+    @Test
+    void passesWrittenRecordsToListeners() throws Exception {
+        List<AuditRecord> received = new ArrayList<>();
+        AuditLog auditLog = new AuditLog(new AuditProperties(directory, DataSize.ofMegabytes(1), Duration.ofDays(1), Duration.ofDays(400), 64,
+                Duration.ofMillis(10)), Clock.fixed(NOW, ZoneOffset.UTC), List.of(received::add, record -> {
+            throw new IllegalStateException("listener failure");
+        }));
+        auditLog.record(AuditEventType.OAUTH2_CALLBACK, true, "alice@example.com", "google");
+        auditLog.record(AuditEventType.LOGIN, true, "bob", null);
+        auditLog.destroy();
+
+        assertThat(received).extracting(AuditRecord::subject).containsExactly("alice@example.com", "bob");
+        assertThat(auditLog.getWritten()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsWritingOnceTheDirectoryIsWritableAgain() throws Exception {
+        Path segments = Files.createDirectory(directory.resolve("audit"));
+        Path aside = directory.resolve("aside");
+        // One record per segment, so every record opens a new file, and flushes far enough apart that one follows the failure
+        AuditLog auditLog = new AuditLog(new AuditProperties(segments, DataSize.ofBytes(2 * AuditRecord.BYTES), Duration.ofDays(1), Duration.ofDays(400), 64,
+                Duration.ofMillis(50)), Clock.fixed(NOW, ZoneOffset.UTC));
+        auditLog.record(AuditEventType.LOGIN, true, "before", null);
+        await(() -> auditLog.getWritten() == 1);
+
+        // A file in place of the directory fails the next segment's open, even for root
+        Files.move(segments, aside);
+        Files.createFile(segments);
+        auditLog.record(AuditEventType.LOGIN, true, "lost", null);
+        await(() -> auditLog.getFailed() == 1);
+        Thread.sleep(100);
+        Files.delete(segments);
+        Files.move(aside, segments);
+
+        auditLog.record(AuditEventType.LOGIN, true, "after", null);
+        await(() -> auditLog.getWritten() == 2);
+        auditLog.destroy();
+
+        assertThat(auditLog.getFailed()).isEqualTo(1);
+        assertThat(readAll(new AuditLogReader(segments), AuditLogReader.Query.ALL)).extracting(AuditRecord::subject).containsExactly("before", "after");
+    }
+
+    @Test
+    void dropsRecordsWhileTheRingIsFull() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(1, AuditEventType.LOGIN, true, "user" + i, null)).isTrue();
+        }
+
+        assertThat(ring.offer(1, AuditEventType.LOGIN, true, "user4", null)).isFalse();
+        assertThat(ring.getDropped()).isEqualTo(1);
+        assertThat(ring.getQueued()).isEqualTo(4);
+
+        List<String> subjects = new ArrayList<>();
+        assertThat(ring.drain((slots, offset) -> {
+            AuditRecord.seal(slots, offset);
+            subjects.add(AuditRecord.decode(slots, offset).subject());
+        })).isEqualTo(4);
+        assertThat(subjects).containsExactly("user0", "user1", "user2", "user3");
+        assertThat(ring.offer(1, AuditEventType.LOGIN, true, "user5", null)).isTrue();
+    }
+
+    @Test
+    void truncatesLongSubjectsAtCharacterBoundaries() {
+        ByteBuffer buffer = ByteBuffer.allocate(AuditRecord.BYTES);
+        String subject = "é".repeat(AuditRecord.SUBJECT_BYTES);
+        AuditRecord.encode(buffer, 0, 1, 0, AuditEventType.OAUTH2_CALLBACK, true, subject, "😀".repeat(20));
+        AuditRecord.seal(buffer, 0);
+
+        AuditRecord record = AuditRecord.decode(buffer, 0);
+
+        assertThat(record.subject()).isEqualTo("é".repeat(AuditRecord.SUBJECT_BYTES / 2));
+        assertThat(record.detail()).isEqualTo("😀".repeat(AuditRecord.DETAIL_BYTES / 4));
+    }
+
+    @Test
+    void rollsBySizeAndAge() throws IOException {
+        MutableClock clock = new MutableClock(NOW);
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4 * AuditRecord.BYTES, Duration.ofHours(1), Duration.ofDays(1), clock)) {
+            // A segment holds its header and three records
+            for (int i = 0; i < 4; i++) {
+                writer.append(slot(clock.millis(), i), 0);
+            }
+            assertThat(segments()).hasSize(2);
+
+            clock.advance(Duration.ofHours(1));
+            writer.append(slot(clock.millis(), 4), 0);
+            assertThat(segments()).hasSize(3);
+        }
+
+        assertThat(readAll(new AuditLogReader(directory), AuditLogReader.Query.ALL)).extracting(AuditRecord::sequence).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void deletesSegmentsPastTheirRetentionOnRoll() throws IOException {
+        Path expired = Files.createFile(directory.resolve(AuditSegmentWriter.PREFIX + "20250101T000000000Z-0000" + AuditSegmentWriter.SUFFIX));
+        Files.setLastModifiedTime(expired, FileTime.from(NOW.minus(Duration.ofDays(2))));
+        Path kept = Files.createFile(directory.resolve(AuditSegmentWriter.PREFIX + "20251231T120000000Z-0000" + AuditSegmentWriter.SUFFIX));
+        Files.setLastModifiedTime(kept, FileTime.from(NOW.minus(Duration.ofHours(12))));
+
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4 * AuditRecord.BYTES, Duration.ofHours(1), Duration.ofDays(1), new MutableClock(NOW))) {
+            writer.append(slot(NOW.toEpochMilli(), 0), 0);
+        }
+
+        assertThat(expired).doesNotExist();
+        assertThat(kept).exists();
+    }
+
+    @Test
+    void skipsAndCountsCorruptRecords() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 8 * AuditRecord.BYTES, Duration.ofHours(1), Duration.ofDays(1), new MutableClock(NOW))) {
+            for (int i = 0; i < 3; i++) {
+                writer.append(slot(NOW.toEpochMilli(), i), 0);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            // Flips a byte of the second record's subject
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 2L * AuditRecord.BYTES + 24);
+        }
+
+        AuditLogReader reader = new AuditLogReader(directory);
+
+        assertThat(readAll(reader, AuditLogReader.Query.ALL)).extracting(AuditRecord::sequence).containsExactly(0L, 2L);
+        assertThat(reader.getCorruptRecords()).isEqualTo(1);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private List<Path> segments() throws IOException {
+        return new AuditLogReader(directory).segments();
+    }
+
+    private static ByteBuffer slot(long timestamp, long sequence) {
+        ByteBuffer slot = ByteBuffer.allocate(AuditRecord.BYTES);
+        AuditRecord.encode(slot, 0, timestamp, sequence, AuditEventType.LOGIN, true, "user" + sequence, null);
+        return slot;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.white.backend.shared.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.net.DatagramSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTests {
+
+    private final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (CacheInvalidationBus bus : buses) {
+            bus.destroy();
+        }
+    }
+
+    private CacheInvalidationBus bus(InvalidationTransport transport, List<CacheInvalidation> received) throws Exception {
+        // Flushed by hand, so every test controls when a batch leaves
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, Duration.ofHours(1), 1000, 1400);
+        bus.subscribe(received::add);
+        buses.add(bus);
+        return bus;
+    }
+
+    @Test
+    void deliversToTheOtherNodesOnly() throws Exception {
+        List<CacheInvalidation> sender = new CopyOnWriteArrayList<>();
+        List<CacheInvalidation> other = new CopyOnWriteArrayList<>();
+        CacheInvalidationBus bus = bus(new LoopbackTransport(), sender);
+        bus(new LoopbackTransport(), other);
+
+        bus.publish("images", "a");
+        bus.flush();
+
+        assertThat(other).containsExactly(new CacheInvalidation("images", "a"));
+        assertThat(sender).isEmpty();
+    }
+
+    @Test
+    void coalescesRepeatedKeysAndKeysOfAClearedRegion() throws Exception {
+        List<CacheInvalidation> other = new CopyOnWriteArrayList<>();
+        CacheInvalidationBus bus = bus(new LoopbackTransport(), new ArrayList<>());
+        bus(new LoopbackTransport(), other);
+
+        bus.publish("images", "a");
+        bus.publish("images", "a");
+        bus.publish("users", "b");
+        bus.publish("users", null);
+        bus.publish("users", "c");
+        bus.flush();
+
+        assertThat(other).containsExactly(new CacheInvalidation("images", "a"), new CacheInvalidation("users", null));
+        assertThat(bus.getPublished()).isEqualTo(5);
+        assertThat(bus.getCoalesced()).isEqualTo(3);
+        assertThat(bus.getSentMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void waitsForTheTransactionToCommit() throws Exception {
+        List<CacheInvalidation> other = new CopyOnWriteArrayList<>();
+        CacheInvalidationBus bus = bus(new LoopbackTransport(), new ArrayList<>());
+        bus(new LoopbackTransport(), other);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish("images", "a");
+            bus.flush();
+            assertThat(other).isEmpty();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bus.flush();
+
+        assertThat(other).containsExactly(new CacheInvalidation("images", "a"));
+    }
+
+    @Test
+    void splitsBatchesThatExceedTheMessageSize() throws Exception {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            invalidations.add(new CacheInvalidation("images", UUID.randomUUID().toString()));
+        }
+        invalidations.add(new CacheInvalidation("images", "é中"));
+
+        List<byte[]> messages = InvalidationCodec.encode(UUID.randomUUID(), invalidations, 1400);
+
+        assertThat(messages).hasSizeGreaterThan(1).allSatisfy(message -> assertThat(message.length).isLessThanOrEqualTo(1400));
+        List<CacheInvalidation> decoded = new ArrayList<>();
+        for (byte[] message : messages) {
+            decoded.addAll(InvalidationCodec.decode(message).invalidations());
+        }
+        assertThat(decoded).isEqualTo(invalidations);
+    }
+
+    @Test
+    void multicastReachesAnotherNodeOnTheSameHost() throws Exception {
+        int port;
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<CacheInvalidation> other = new CopyOnWriteArrayList<>();
+        CacheInvalidationBus bus = bus(new MulticastTransport("239.255.42.98", port, null, 0), new ArrayList<>());
+        bus(new MulticastTransport("239.255.42.98", port, null, 0), other);
+
+        bus.publish("images", "a");
+        bus.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (other.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(other).containsExactly(new CacheInvalidation("images", "a"));
+    }
+
+}
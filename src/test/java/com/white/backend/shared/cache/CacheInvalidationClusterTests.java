@@ -0,0 +1,79 @@
+package com.white.backend.shared.cache;
+
+import com.white.backend.BackendApplication;
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.repository.ImageRepository;
+import com.white.backend.file.image.service.ImageService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts in one JVM, joined by the loopback transport: an image evicted on this node after a
+ * committed write disappears from the cache of the other node.
+ */
+@SpringBootTest(properties = {CacheInvalidationClusterTests.ENABLED, CacheInvalidationClusterTests.LOOPBACK})
+class CacheInvalidationClusterTests {
+
+    static final String ENABLED = "app.cache.invalidation.enabled=true";
+
+    static final String LOOPBACK = "app.cache.invalidation.transport=loopback";
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void startOtherNode() {
+        // Command line arguments, since default properties would lose against application.yaml
+        otherNode = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--" + ENABLED, "--" + LOOPBACK, "--server.port=0", "--management.server.port=0", "--app.seed.enabled=false");
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @Test
+    void evictionAfterCommitReachesTheOtherNode() throws Exception {
+        Image image = Image.builder().publicId("cluster-1").name("cluster-1.jpg").url("https://example.com/cluster-1").size(1L).extension("jpg").build();
+        otherNode.getBean(ImageRepository.class).save(image);
+        otherNode.getBean(ImageService.class).getImage("cluster-1");
+        Cache otherImages = Objects.requireNonNull(otherNode.getBean(CacheManager.class).getCache(CacheRegions.IMAGES));
+        assertThat(otherImages.get("cluster-1")).isNotNull();
+
+        imageRepository.save(Image.builder().publicId("cluster-1").name("cluster-1.jpg").url("https://example.com/cluster-1").size(1L).extension("jpg").build());
+        transactionTemplate.executeWithoutResult(status -> {
+            imageRepository.deleteByPublicId("cluster-1");
+            Objects.requireNonNull(cacheManager.getCache(CacheRegions.IMAGES)).evict("cluster-1");
+            assertThat(otherImages.get("cluster-1")).isNotNull();
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (otherImages.get("cluster-1") != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(otherImages.get("cluster-1")).isNull();
+    }
+
+}
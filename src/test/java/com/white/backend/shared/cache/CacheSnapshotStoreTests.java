@@ -0,0 +1,159 @@
+package com.white.backend.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.white.backend.file.image.config.ImageCacheSnapshotCodec;
+import com.white.backend.file.image.dto.ImageResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheSnapshotStoreTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private final List<CacheSnapshotStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (CacheSnapshotStore store : stores) {
+            store.destroy();
+        }
+    }
+
+    private CacheSnapshotStore store(Instant now) {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory.resolve("cache.snapshot"), Duration.ofHours(1), Duration.ofMinutes(10),
+                List.of(new StringCodec(), new ImageCacheSnapshotCodec()), Clock.fixed(now, ZoneOffset.UTC));
+        stores.add(store);
+        return store;
+    }
+
+    private static Cache<Object, Object> cache(CacheSnapshotStore store, String region, Object... entries) {
+        Cache<Object, Object> cache = Caffeine.newBuilder().build();
+        for (int i = 0; i < entries.length; i += 2) {
+            cache.put(entries[i], entries[i + 1]);
+        }
+        store.track(region, cache);
+        return cache;
+    }
+
+    @Test
+    void servesEachEntryOnceFromTheNextRunsMapping() {
+        CacheSnapshotStore previous = store(NOW);
+        cache(previous, "words", "a", "alpha", "b", "beta", 42, "not a string key");
+        previous.write();
+
+        CacheSnapshotStore next = store(NOW.plusSeconds(60));
+
+        assertThat(next.getLoaded()).isEqualTo(2);
+        assertThat(next.load("words", "a")).isEqualTo("alpha");
+        assertThat(next.load("words", "a")).isNull();
+        assertThat(next.load("words", "missing")).isNull();
+        assertThat(next.getServed()).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsInvalidatedKeys() {
+        CacheSnapshotStore previous = store(NOW);
+        cache(previous, "words", "a", "alpha", "b", "beta");
+        previous.write();
+
+        CacheSnapshotStore next = store(NOW);
+        next.forget("words", "a");
+        assertThat(next.load("words", "a")).isNull();
+        assertThat(next.load("words", "b")).isEqualTo("beta");
+
+        next.forget("words", null);
+        assertThat(next.load("words", "b")).isNull();
+    }
+
+    @Test
+    void ignoresSnapshotsOlderThanTheMaximumAge() {
+        CacheSnapshotStore previous = store(NOW);
+        cache(previous, "words", "a", "alpha");
+        previous.write();
+
+        CacheSnapshotStore next = store(NOW.plus(Duration.ofMinutes(11)));
+
+        assertThat(next.getLoaded()).isZero();
+        assertThat(next.load("words", "a")).isNull();
+    }
+
+    @Test
+    void ignoresAnUnreadableFile() throws IOException {
+        Files.write(directory.resolve("cache.snapshot"), new byte[]{0x42, 0x4B, 0x43, 0x53, 1, 0, 0});
+
+        assertThat(store(NOW).getLoaded()).isZero();
+    }
+
+    @Test
+    void writesSnapshotsLargerThanOneMappedWindow() throws IOException {
+        CacheSnapshotStore previous = store(NOW);
+        Cache<Object, Object> words = cache(previous, "words");
+        for (int i = 0; i < 60; i++) {
+            words.put("k" + i, String.valueOf((char) ('a' + i % 26)).repeat(30_000));
+        }
+        previous.write();
+
+        // The region's entry count sits in the first window and is filled in after the last entry
+        assertThat(Files.size(directory.resolve("cache.snapshot"))).isGreaterThan(1 << 20).isLessThan(2 << 20);
+        CacheSnapshotStore next = store(NOW);
+        assertThat(next.getLoaded()).isEqualTo(60);
+        assertThat(next.load("words", "k59")).isEqualTo("h".repeat(30_000));
+    }
+
+    @Test
+    void roundTripsImageMetadata() {
+        Timestamp createdAt = Timestamp.from(NOW.plusNanos(123_456_789));
+        ImageResponseDto image = ImageResponseDto.builder().publicId("p-1").name("photo.jpg").url("https://example.com/p-1")
+                .size(1_024L).extension("jpg").createdAt(createdAt).isDeleted(false).build();
+        CacheSnapshotStore previous = store(NOW);
+        cache(previous, CacheRegions.IMAGES, "p-1", image);
+        previous.write();
+
+        assertThat(store(NOW).load(CacheRegions.IMAGES, "p-1")).isEqualTo(image);
+    }
+
+    private static final class StringCodec implements CacheSnapshotCodec<String> {
+
+        @Override
+        public String region() {
+            return "words";
+        }
+
+        @Override
+        public Class<String> type() {
+            return String.class;
+        }
+
+        @Override
+        public void write(String value, DataOutput out) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.white.backend.shared.concurrency;
+
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs requests through a group limited to one request at a time.
+ */
+class AdaptiveConcurrencyFilterTests {
+
+    private AdaptiveConcurrencyFilter filter;
+
+    private GradientConcurrencyLimit limit;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, 0.2, 2.0, 100,
+                Map.of("image", new ConcurrencyLimitProperties.Group(List.of("/api/v1/file/image"), 1, 1, 1)));
+
+        filter = new AdaptiveConcurrencyFilter(properties, new ErrorMetrics(new SimpleMeterRegistry()));
+        limit = filter.getLimits().get("image");
+    }
+
+    @Test
+    void releasesThePermitWhenASynchronousRequestReturns() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void holdsThePermitOfAnAsynchronousRequestUntilItCompletes() throws Exception {
+        MockHttpServletRequest streaming = request();
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(request(), shed, new MockFilterChain());
+        assertThat(shed.getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) streaming.getAsyncContext()).complete();
+
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/file/image/export");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+}
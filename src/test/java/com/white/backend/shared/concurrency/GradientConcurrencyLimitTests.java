@@ -0,0 +1,61 @@
+package com.white.backend.shared.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feeds simulated latencies into the limit, with the limit saturated so every sample counts.
+ */
+class GradientConcurrencyLimitTests {
+
+    @Test
+    void shedsRequestsBeyondTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 0.2, 2.0, 100);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isZero();
+        assertThat(limit.getShedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenQueueingBuilds() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 0.2, 2.0, 100);
+
+        saturate(limit, 200, 20);
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        saturate(limit, 50, 200);
+        assertThat(limit.getLimit()).isLessThan(grown / 2);
+
+        // Latency recovers: the long-term average follows it down and the limit grows again
+        int shrunk = limit.getLimit();
+        saturate(limit, 500, 20);
+        assertThat(limit.getLimit()).isGreaterThan(shrunk);
+    }
+
+    @Test
+    void ignoresLatencyWhenFarBelowTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 0.2, 2.0, 100);
+
+        for (int i = 0; i < 100; i++) {
+            int inFlight = limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(i == 0 ? 20 : 500), inFlight);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    private static void saturate(GradientConcurrencyLimit limit, int requests, long latencyMillis) {
+        for (int i = 0; i < requests; i++) {
+            limit.tryAcquire();
+            // Report the request as admitted with the limit full
+            limit.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis), limit.getLimit());
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.white.backend.shared.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.white.backend.authentication.config.JwtAuthenticationEntryPoint;
+import com.white.backend.authentication.error.AuthError;
+import com.white.backend.file.image.error.FileError;
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the cheap rejection path still produces the same wire format as serializing an {@link ErrorResponse}.
+ */
+class ErrorBodiesTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodesEachConstantOnceAsAnErrorResponse() throws Exception {
+        byte[] body = ErrorBodies.of(FileError.IMAGE_NOT_FOUND);
+
+        assertThat(body).isSameAs(ErrorBodies.of(FileError.IMAGE_NOT_FOUND));
+        assertThat(objectMapper.readValue(body, ErrorResponse.class))
+                .isEqualTo(new ErrorResponse(FileError.IMAGE_NOT_FOUND.getCode(), FileError.IMAGE_NOT_FOUND.getMessage()));
+    }
+
+    @Test
+    void domainExceptionsCarryNoStackTrace() {
+        HttpResponseException exception = AuthError.INVALID_TOKEN.exception();
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getMessage()).isEqualTo(AuthError.INVALID_TOKEN.getMessage());
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void entryPointWritesThePreEncodedBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new JwtAuthenticationEntryPoint(new ErrorMetrics(new SimpleMeterRegistry()))
+                .commence(new MockHttpServletRequest(), response, new BadCredentialsException("bad token"));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class))
+                .isEqualTo(new ErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.white.backend.shared.idempotency;
+
+import com.white.backend.shared.exception.HttpResponseException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTests {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(100, Duration.ofMinutes(1), Duration.ofMillis(200));
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequestAndShareItsResult() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(clients.submit(() -> idempotencyService.execute("upload", "alice", "key-1", "same", () -> {
+                release.await();
+                return "result-" + calls.incrementAndGet();
+            })));
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+        }
+        assertThat(calls).hasValue(1);
+        clients.shutdown();
+    }
+
+    @Test
+    void duplicatesGiveUpWaitingForAFirstRequestThatDoesNotFinish() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService clients = Executors.newSingleThreadExecutor();
+        Future<String> first = clients.submit(() -> idempotencyService.execute("upload", "alice", "key-1", "same", () -> {
+            started.countDown();
+            release.await();
+            return "first";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> idempotencyService.execute("upload", "alice", "key-1", "same", () -> "duplicate"))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(IdempotencyError.IDEMPOTENT_REQUEST_IN_PROGRESS.getCode()));
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        clients.shutdown();
+    }
+
+    @Test
+    void fingerprintsAreKeyedPerInstance() {
+        byte[] password = "secret".getBytes();
+
+        assertThat(idempotencyService.fingerprint(password)).isEqualTo(idempotencyService.fingerprint(password));
+        assertThat(new IdempotencyService(100, Duration.ofMinutes(1), Duration.ofSeconds(1)).fingerprint(password))
+                .isNotEqualTo(idempotencyService.fingerprint(password));
+    }
+
+    @Test
+    void failuresAreNotStored() {
+        assertThatThrownBy(() -> idempotencyService.execute("upload", "alice", "key-1", "same", () -> {
+            throw new IllegalStateException("storage down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(idempotencyService.execute("upload", "alice", "key-1", "same", () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void keysAreScopedByCallerAndBoundToTheFirstRequest() {
+        idempotencyService.execute("upload", "alice", "key-1", "first", () -> "alice's");
+
+        assertThat(idempotencyService.execute("upload", "bob", "key-1", "first", () -> "bob's")).isEqualTo("bob's");
+
+        assertThatThrownBy(() -> idempotencyService.execute("upload", "alice", "key-1", "second", () -> "other"))
+                .isInstanceOfSatisfying(HttpResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(IdempotencyError.IDEMPOTENCY_KEY_REUSED.getCode()));
+    }
+
+}
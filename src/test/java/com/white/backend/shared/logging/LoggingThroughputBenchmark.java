@@ -0,0 +1,168 @@
+package com.white.backend.shared.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.dto.request.UserLoginRequestDto;
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.authentication.service.AuthService;
+import com.white.backend.authentication.service.JwtService;
+import com.white.backend.authentication.service.UserLookupService;
+import com.white.backend.shared.audit.AuditLog;
+import com.white.backend.shared.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares login and refresh throughput with the authentication loggers writing synchronously to a file against
+ * writing through {@link RingBufferAppender}. The password check is a plain comparison, so the numbers show the
+ * logging cost rather than BCrypt's. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class LoggingThroughputBenchmark {
+
+    private static final int WARMUP = 20_000;
+
+    private static final int REQUESTS = 200_000;
+
+    private static final int THREADS = 4;
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} route=%X{route:-none} : %structuredMessage%n";
+
+    @Test
+    void loginAndRefresh(@TempDir Path directory) throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger authLogger = context.getLogger("com.white.backend.authentication");
+        authLogger.setLevel(Level.INFO);
+        authLogger.setAdditive(false);
+
+        AuthService authService = authService();
+        String refreshToken = authService.authenticated(new UserLoginRequestDto("alice", "secret")).refreshToken();
+
+        try {
+            FileAppender<ILoggingEvent> syncFile = fileAppender(context, directory.resolve("sync.log"));
+            authLogger.addAppender(syncFile);
+            run("synchronous file", authService, refreshToken);
+            authLogger.detachAndStopAllAppenders();
+
+            RingBufferAppender ringBuffer = new RingBufferAppender();
+            ringBuffer.setContext(context);
+            ringBuffer.setName("benchmark");
+            ringBuffer.addAppender(fileAppender(context, directory.resolve("async.log")));
+            ringBuffer.start();
+            authLogger.addAppender(ringBuffer);
+            run("ring buffer -> file", authService, refreshToken);
+            authLogger.detachAndStopAllAppenders();
+            System.out.printf("%-24s appended %,d, dropped %,d%n", "ring buffer -> file",
+                    ringBuffer.getAppended(), ringBuffer.getDroppedInfoOrLower() + ringBuffer.getDroppedWarnOrHigher());
+        } finally {
+            authLogger.detachAndStopAllAppenders();
+            authLogger.setAdditive(true);
+            authLogger.setLevel(null);
+        }
+    }
+
+    private static void run(String name, AuthService authService, String refreshToken) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request(authService, refreshToken, i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < REQUESTS / THREADS; i++) {
+                    request(authService, refreshToken, i);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        System.out.printf("%-24s %,10.0f requests/s  %,8d ns/request%n", name, REQUESTS * 1e9 / elapsed, elapsed / REQUESTS);
+    }
+
+    // Alternates logins and refreshes; each logs two INFO lines with structured fields
+    private static void request(AuthService authService, String refreshToken, int i) {
+        if (i % 2 == 0) {
+            authService.authenticated(new UserLoginRequestDto("alice", "secret"));
+        } else {
+            authService.refreshToken(refreshToken);
+        }
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context, Path file) {
+        PatternLayout layout = new PatternLayout();
+        layout.getInstanceConverterMap().put("structuredMessage", StructuredMessageConverter.class.getName());
+        layout.setContext(context);
+        layout.setPattern(PATTERN);
+        layout.start();
+
+        LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(file.getFileName().toString());
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.start();
+        return appender;
+    }
+
+    private static AuthService authService() {
+        UserAccountDto user = UserAccountDto.builder().username("alice").name("Alice").email("alice@example.com").password("secret").role(Role.USER).build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAccountByUsername(anyString())).thenReturn(Optional.of(user));
+
+        UserLookupService userLookupService = new UserLookupService(userRepository);
+        JwtService jwtService = new JwtService(userLookupService, new SimpleMeterRegistry(), mock(AuditLog.class));
+        ReflectionTestUtils.setField(jwtService, "signerKey", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+
+        return new AuthService(userLookupService, new PlainPasswordEncoder(), jwtService, mock(AuditLog.class));
+    }
+
+    private static class PlainPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+    }
+
+}
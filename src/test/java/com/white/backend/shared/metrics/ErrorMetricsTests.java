@@ -0,0 +1,37 @@
+package com.white.backend.shared.metrics;
+
+import com.white.backend.admin.error.AdminError;
+import com.white.backend.authentication.error.AuthError;
+import com.white.backend.shared.ratelimit.RateLimitError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ErrorMetrics errorMetrics = new ErrorMetrics(registry);
+
+    @Test
+    void reportsErrorsThatNeverHappenedAsZero() {
+        assertThat(registry.get("app.errors").tag("domain", "RateLimitError").tag("error", RateLimitError.TOO_MANY_REQUESTS.name())
+                .counter().count()).isZero();
+        assertThat(registry.get("app.errors").tag("domain", "AdminError").tag("error", AdminError.INVALID_ANALYTICS_EXPORT.name())
+                .counter().count()).isZero();
+    }
+
+    @Test
+    void countsErrorsByDomainNameAndStatus() {
+        errorMetrics.record(AuthError.UNAUTHORIZED);
+        errorMetrics.record(AuthError.UNAUTHORIZED);
+
+        assertThat(registry.get("app.errors")
+                .tag("domain", "AuthError")
+                .tag("error", "UNAUTHORIZED")
+                .tag("status", Integer.toString(AuthError.UNAUTHORIZED.getCode().value()))
+                .counter().count()).isEqualTo(2);
+    }
+
+}
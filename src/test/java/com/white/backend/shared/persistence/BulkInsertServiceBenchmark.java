@@ -0,0 +1,86 @@
+package com.white.backend.shared.persistence;
+
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.repository.ImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares single-row saves, as done by the upload path, with {@link BulkInsertService}.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=off"})
+@Import(BulkInsertService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkInsertServiceBenchmark {
+
+    private static final int SINGLE_ROW_COUNT = 20_000;
+
+    private static final int BULK_COUNT = 200_000;
+
+    @Autowired
+    private BulkInsertService bulkInsertService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void cleanUp() {
+        imageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleRowSaves() {
+        long startedAt = System.nanoTime();
+
+        IntStream.range(0, SINGLE_ROW_COUNT).forEach(i -> imageRepository.save(image("single-" + i)));
+
+        report("repository.save per row", SINGLE_ROW_COUNT, System.nanoTime() - startedAt);
+        assertThat(imageRepository.count()).isEqualTo(SINGLE_ROW_COUNT);
+    }
+
+    @Test
+    void batchedBulkInsert() {
+        Iterator<Image> images = IntStream.range(0, BULK_COUNT).mapToObj(i -> image("bulk-" + i)).iterator();
+
+        long startedAt = System.nanoTime();
+
+        long inserted = bulkInsertService.insertAll(images);
+
+        report("BulkInsertService.insertAll", inserted, System.nanoTime() - startedAt);
+        assertThat(imageRepository.count()).isEqualTo(BULK_COUNT);
+    }
+
+    private static Image image(String publicId) {
+        return Image.builder()
+                .publicId(publicId)
+                .name(publicId + ".png")
+                .url("https://res.cloudinary.com/demo/image/upload/" + publicId)
+                .size(1024L)
+                .extension("png")
+                .build();
+    }
+
+    private static void report(String name, long rows, long elapsedNanos) {
+        System.out.printf("%-30s %,10d rows in %,8d ms -> %,12.0f rows/s%n",
+                name, rows, elapsedNanos / 1_000_000, rows * 1e9 / elapsedNanos);
+    }
+
+}
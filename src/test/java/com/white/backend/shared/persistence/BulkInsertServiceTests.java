@@ -0,0 +1,81 @@
+package com.white.backend.shared.persistence;
+
+import com.white.backend.file.image.entity.Image;
+import com.white.backend.file.image.repository.ImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=10")
+@Import(BulkInsertService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkInsertServiceTests {
+
+    @Autowired
+    private BulkInsertService bulkInsertService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void cleanUp() {
+        imageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void insertsEveryRow() {
+        long inserted = bulkInsertService.insertAll(IntStream.range(0, 25).mapToObj(i -> image("image-" + i)).iterator());
+
+        assertThat(inserted).isEqualTo(25);
+        assertThat(imageRepository.count()).isEqualTo(25);
+    }
+
+    @Test
+    void keepsNothingWhenALaterBatchViolatesAUniqueIndex() {
+        // The duplicate is in the third batch, after two batches have been flushed
+        List<Image> images = Stream.concat(IntStream.range(0, 25).mapToObj(i -> image("image-" + i)), Stream.of(image("image-0"))).toList();
+
+        assertThatThrownBy(() -> bulkInsertService.insertAll(images.iterator())).isInstanceOf(DuplicateKeyException.class);
+        assertThat(imageRepository.count()).isZero();
+    }
+
+    @Test
+    void reportsAMissingRequiredColumnApartFromDuplicates() {
+        Image unnamed = image("image-unnamed");
+        unnamed.setName(null);
+
+        assertThatThrownBy(() -> bulkInsertService.insertAll(List.of(image("image-0"), unnamed).iterator()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(DuplicateKeyException.class);
+        assertThat(imageRepository.count()).isZero();
+    }
+
+    private static Image image(String publicId) {
+        return Image.builder()
+                .publicId(publicId)
+                .name(publicId + ".png")
+                .url("https://res.cloudinary.com/demo/image/upload/" + publicId)
+                .size(1024L)
+                .extension("png")
+                .build();
+    }
+
+}
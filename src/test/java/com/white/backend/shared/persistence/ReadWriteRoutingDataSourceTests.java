@@ -0,0 +1,131 @@
+package com.white.backend.shared.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against two embedded databases, each holding a marker row naming itself.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private final EmbeddedDatabase primary = database("primary");
+
+    private final EmbeddedDatabase replica = database("replica");
+
+    @AfterEach
+    void shutdown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndOthersUsePrimary() {
+        Routing routing = new Routing(Duration.ZERO);
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+        assertThat(routing.read(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnPrimaryDuringReadYourWritesWindow() {
+        Routing routing = new Routing(Duration.ofMinutes(1));
+        signIn("alice");
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+
+        routing.write();
+
+        assertThat(routing.read(true)).isEqualTo("primary");
+
+        signIn("bob");
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void anonymousWritesDoNotPinAnonymousReads() {
+        Routing routing = new Routing(Duration.ofMinutes(1));
+
+        routing.write();
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new AnonymousAuthenticationToken("key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        routing.write();
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsReturnToReplicaOnceWindowHasPassed() throws InterruptedException {
+        Routing routing = new Routing(Duration.ofMillis(50));
+        signIn("alice");
+
+        routing.write();
+
+        Thread.sleep(100);
+
+        assertThat(routing.read(true)).isEqualTo("replica");
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+
+        new JdbcTemplate(database).execute("create table marker (name varchar(32))");
+        new JdbcTemplate(database).update("insert into marker values (?)", name);
+
+        return database;
+    }
+
+    private class Routing {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final DataSourceTransactionManager transactionManager;
+
+        Routing(Duration readYourWritesWindow) {
+            var dataSource = new LazyConnectionDataSourceProxy(
+                    new ReadWriteRoutingDataSource(primary, List.of(replica), readYourWritesWindow));
+
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        String read(boolean readOnly) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(readOnly);
+
+            return transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject("select name from marker", String.class));
+        }
+
+        void write() {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.update("update marker set name = name"));
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.white.backend.shared.profiling;
+
+import com.white.backend.authentication.dto.UserAccountDto;
+import com.white.backend.authentication.repository.UserRepository;
+import com.white.backend.authentication.service.JwtService;
+import com.white.backend.authentication.service.UserLookupService;
+import com.white.backend.shared.audit.AuditLog;
+import com.white.backend.shared.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Records token mints and verifications under the shipped profile and reads the events back from the recording file.
+ */
+class TokenEventTests {
+
+    private JwtService jwtService;
+
+    private UserAccountDto user;
+
+    @BeforeEach
+    void setUp() {
+        user = UserAccountDto.builder().username("alice").name("Alice").email("alice@example.com").role(Role.USER).build();
+
+        jwtService = new JwtService(new UserLookupService(mock(UserRepository.class)), new SimpleMeterRegistry(), mock(AuditLog.class));
+        ReflectionTestUtils.setField(jwtService, "signerKey", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+    }
+
+    @Test
+    void shippedProfileRecordsMintAndVerify(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("tokens.jfr");
+
+        try (Recording recording = new Recording(shippedProfile())) {
+            recording.start();
+
+            String token = jwtService.generateToken(user, 1, JwtService.TokenType.REFRESH_TOKEN);
+            jwtService.decodeJwt(token, MacAlgorithm.HS512);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.white.backend.Token"))
+                .toList();
+
+        assertThat(events).extracting(event -> event.getString("operation")).containsExactly("mint", "verify");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getString("algorithm")).isEqualTo("HS512");
+            assertThat(event.getString("tokenType")).isEqualTo("REFRESH_TOKEN");
+            assertThat(event.getString("outcome")).isEqualTo("success");
+            assertThat(event.getLong("tokenSize")).isPositive();
+        });
+    }
+
+    @Test
+    void eventsStayOffWithoutTheProfile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("default.jfr");
+
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+
+            jwtService.generateToken(user, 1, JwtService.TokenType.ACCESS_TOKEN);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertThat(RecordingFile.readAllEvents(file))
+                .noneMatch(event -> event.getEventType().getName().startsWith("com.white.backend."));
+    }
+
+    private static Configuration shippedProfile() throws Exception {
+        try (InputStream stream = TokenEventTests.class.getResourceAsStream("/jfr/backend.jfc")) {
+            return Configuration.create(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.white.backend.shared.ratelimit;
+
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what {@link RateLimitFilter} itself costs per request, with a chain that does nothing.
+ * Limits are set high enough that no request is rejected. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RateLimitFilterBenchmark {
+
+    private static final int WARMUP = 200_000;
+
+    private static final int REQUESTS = 2_000_000;
+
+    private static final int THREADS = 4;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final RateLimitProperties properties = new RateLimitProperties(true, 100_000, Duration.ofMinutes(10), List.of(
+            new RateLimitProperties.Route("login", "/api/v1/auth/login", Set.of("POST"),
+                    new RateLimitProperties.Limit(Integer.MAX_VALUE, Duration.ofSeconds(1)), null),
+            new RateLimitProperties.Route("upload", "/api/v1/file/image", Set.of("POST"),
+                    new RateLimitProperties.Limit(Integer.MAX_VALUE, Duration.ofSeconds(1)), null)));
+
+    @Test
+    void unmatchedRoute() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties), properties, new ErrorMetrics(new SimpleMeterRegistry()));
+
+        run("unmatched route", filter, i -> request("GET", "/api/v1/file/image", "10.0.0.1"), 1);
+    }
+
+    @Test
+    void oneClientOnOneBucket() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties), properties, new ErrorMetrics(new SimpleMeterRegistry()));
+
+        run("one bucket, 1 thread", filter, i -> request("POST", "/api/v1/auth/login", "10.0.0.1"), 1);
+        run("one bucket, " + THREADS + " threads", filter, i -> request("POST", "/api/v1/auth/login", "10.0.0.1"), THREADS);
+    }
+
+    @Test
+    void manyClientsOnManyBuckets() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties), properties, new ErrorMetrics(new SimpleMeterRegistry()));
+
+        run("10k buckets, " + THREADS + " threads", filter,
+                i -> request("POST", "/api/v1/auth/login", "10.0." + (i % 10_000) / 256 + "." + (i % 256)), THREADS);
+    }
+
+    private static void run(String name, RateLimitFilter filter, RequestFactory requests, int threads) throws Exception {
+        // Requests are built up front and reused, so only the filter is timed. doFilterInternal skips
+        // OncePerRequestFilter's already-filtered marker, which would otherwise bypass every reused request.
+        List<MockHttpServletRequest> prepared = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            prepared.add(requests.create(i));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        for (int i = 0; i < WARMUP; i++) {
+            filter.doFilterInternal(prepared.get(i % prepared.size()), response, NO_OP_CHAIN);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(executor.submit(() -> {
+                MockHttpServletResponse workerResponse = new MockHttpServletResponse();
+                for (int i = 0; i < REQUESTS / threads; i++) {
+                    filter.doFilterInternal(prepared.get((i + offset) % prepared.size()), workerResponse, NO_OP_CHAIN);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        System.out.printf("%-30s %,10d requests in %,6d ms -> %,8.0f ns/request, %,12.0f requests/s%n",
+                name, REQUESTS, elapsedNanos / 1_000_000, (double) elapsedNanos / REQUESTS, REQUESTS * 1e9 / elapsedNanos);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+
+        MockHttpServletRequest create(int i);
+
+    }
+
+}
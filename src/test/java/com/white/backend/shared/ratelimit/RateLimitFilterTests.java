@@ -0,0 +1,124 @@
+package com.white.backend.shared.ratelimit;
+
+import com.white.backend.shared.metrics.ErrorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    private final RateLimitProperties properties = new RateLimitProperties(true, 1000, Duration.ofMinutes(10), List.of(
+            new RateLimitProperties.Route("login", "/api/v1/auth/login", Set.of("POST"),
+                    new RateLimitProperties.Limit(3, Duration.ofMinutes(1)), null),
+            new RateLimitProperties.Route("upload", "/api/v1/file/image", Set.of("POST"),
+                    null, new RateLimitProperties.Limit(2, Duration.ofMinutes(1)))));
+
+    private final RateLimitFilter filter = filter(properties);
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsOverTheIpLimitWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = send("POST", "/api/v1/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 20L);
+        assertThat(send("POST", "/api/v1/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void limitsAuthenticatedRequestsPerUser() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+
+        assertThat(send("POST", "/api/v1/file/image", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/v1/file/image", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/v1/file/image", "10.0.0.3").getStatus()).isEqualTo(429);
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_USER"));
+        assertThat(send("POST", "/api/v1/file/image", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void spendsNoTokenOfARequestAnotherLimitRejects() throws Exception {
+        RateLimitProperties both = new RateLimitProperties(true, 1000, Duration.ofMinutes(10), List.of(
+                new RateLimitProperties.Route("upload", "/api/v1/file/image", Set.of("POST"),
+                        new RateLimitProperties.Limit(2, Duration.ofMinutes(1)), new RateLimitProperties.Limit(1, Duration.ofMinutes(1)))));
+        RateLimiter rateLimiter = new RateLimiter(both);
+        RateLimitFilter limited = new RateLimitFilter(rateLimiter, both, new ErrorMetrics(new SimpleMeterRegistry()));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+        assertThat(send(limited, "10.0.0.1").getStatus()).isEqualTo(200);
+        // Rejected by alice's own limit, so the shared IP keeps its token
+        assertThat(send(limited, "10.0.0.1").getStatus()).isEqualTo(429);
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_USER"));
+        assertThat(send(limited, "10.0.0.1").getStatus()).isEqualTo(200);
+        // Both of bob's limits are exhausted now; the request counts as one rejection
+        assertThat(send(limited, "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(rateLimiter.getRejectedRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresOtherMethodsAndRoutes() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("GET", "/api/v1/file/image", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send("POST", "/api/v1/auth/refresh", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void passesEverythingWhenDisabled() throws Exception {
+        RateLimitFilter disabled = filter(new RateLimitProperties(false, 1000, Duration.ofMinutes(10), properties.routes()));
+
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            disabled.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.1"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, remoteAddr), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/v1/file/image", remoteAddr), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static RateLimitFilter filter(RateLimitProperties properties) {
+        try {
+            return new RateLimitFilter(new RateLimiter(properties), properties, new ErrorMetrics(new SimpleMeterRegistry()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
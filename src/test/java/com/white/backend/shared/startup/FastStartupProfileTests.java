@@ -0,0 +1,49 @@
+package com.white.backend.shared.startup;
+
+import com.white.backend.authentication.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots with the {@code fast-startup} profile: the documentation beans wait for their first use, and no demo
+ * account is seeded.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTests {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void documentationBeansAreCreatedOnFirstUse() throws Exception {
+        assertThat(context.getBeanFactory().containsSingleton("openApiConfig")).isFalse();
+        assertThat(context.getBeanFactory().getBeanDefinition("customOpenAPI").isLazyInit()).isTrue();
+
+        mockMvc.perform(get("/v3/api-docs")).andExpect(status().isOk());
+
+        assertThat(context.getBeanFactory().containsSingleton("openApiConfig")).isTrue();
+    }
+
+    @Test
+    void skipsTheDemoAccount() {
+        assertThat(userRepository.existsByUsername("user")).isFalse();
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.white.backend.shared.startup;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the packaged application as a separate JVM, once as a default boot and once with the {@code fast-startup}
+ * profile, the AppCDS archive and, when built with {@code -PfastStartup}, AOT-processed bean definitions.
+ * Reports the median time from process launch to the first successful request and the resident set size after it.
+ * Run with {@code ./gradlew startupBenchmark [-PfastStartup]}, which builds the archive first.
+ */
+@Tag("startup")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void defaultVersusFastStartup() throws Exception {
+        assumeTrue(System.getProperty("startup.jar") != null, "run through the startupBenchmark task");
+
+        boolean aot = Boolean.getBoolean("startup.aot");
+        List<String> fastJvmArgs = new ArrayList<>(List.of("-XX:SharedArchiveFile=" + System.getProperty("startup.cds-archive")));
+        if (aot) {
+            fastJvmArgs.add("-Dspring.aot.enabled=true");
+        }
+
+        Sample baseline = measure(List.of(), List.of());
+        Sample fast = measure(fastJvmArgs, List.of("--spring.profiles.active=fast-startup"));
+
+        System.out.printf("%n%-36s %12s %10s%n", "Start-up (median of " + RUNS + ")", "first req", "RSS");
+        System.out.printf("%-36s %,9d ms %,7d MB%n", "default", baseline.firstRequestMillis(), baseline.rssMegabytes());
+        System.out.printf("%-36s %,9d ms %,7d MB%n", "fast-startup + AppCDS" + (aot ? " + AOT" : ""),
+                fast.firstRequestMillis(), fast.rssMegabytes());
+
+        assertThat(fast.firstRequestMillis()).isPositive();
+    }
+
+    private Sample measure(List<String> jvmArgs, List<String> appArgs) throws Exception {
+        long[] firstRequest = new long[RUNS];
+        long[] rss = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            Sample sample = start(jvmArgs, appArgs);
+            firstRequest[i] = sample.firstRequestMillis();
+            rss[i] = sample.rssMegabytes();
+        }
+        Arrays.sort(firstRequest);
+        Arrays.sort(rss);
+        return new Sample(firstRequest[RUNS / 2], rss[RUNS / 2]);
+    }
+
+    private Sample start(List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("startup.java"));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", System.getProperty("startup.jar"), "--server.port=" + port, "--management.server.port=" + port));
+        command.addAll(Arrays.asList(System.getProperty("startup.args").split(" ")));
+        command.addAll(appArgs);
+
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+            while (true) {
+                assertThat(process.isAlive()).as("application exited during start-up").isTrue();
+                assertThat(System.nanoTime() - launchedAt).as("start-up time").isLessThan(START_TIMEOUT.toNanos());
+                try {
+                    if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            long firstRequestMillis = (System.nanoTime() - launchedAt) / 1_000_000;
+            return new Sample(firstRequestMillis, residentSetMegabytes(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long residentSetMegabytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024)
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Sample(long firstRequestMillis, long rssMegabytes) {
+    }
+
+}
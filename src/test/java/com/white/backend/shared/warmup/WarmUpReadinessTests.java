@@ -0,0 +1,52 @@
+package com.white.backend.shared.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the real warm-up tasks against the application and waits for the readiness probe to report ready.
+ */
+// MockMvc only reaches actuator when it shares the application's port
+@SpringBootTest(properties = {"app.warm-up.enabled=true", "app.warm-up.max-duration=30s", "app.warm-up.min-rounds=5",
+        "management.server.port="})
+@AutoConfigureMockMvc
+class WarmUpReadinessTests {
+
+    @Autowired
+    private WarmUpRunner warmUp;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readinessWaitsForTheWarmUp() throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (isRunning(warmUp.getState()) && System.nanoTime() < deadline) {
+            int readiness = mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus();
+            if (isRunning(warmUp.getState())) {
+                assertThat(readiness).isEqualTo(503);
+            }
+            Thread.sleep(100);
+        }
+
+        assertThat(warmUp.getState()).isIn(WarmUpRunner.State.SETTLED, WarmUpRunner.State.TIMED_OUT);
+        mockMvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+        assertThat(warmUp.getRounds()).isGreaterThanOrEqualTo(5);
+        assertThat(warmUp.health().getDetails()).doesNotContainKey("failedTasks");
+    }
+
+    private static boolean isRunning(WarmUpRunner.State state) {
+        return state == WarmUpRunner.State.PENDING || state == WarmUpRunner.State.RUNNING;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.white.backend.shared.warmup;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmUpRunnerTests {
+
+    private static WarmUpProperties properties(boolean enabled, Duration maxDuration) {
+        return new WarmUpProperties(enabled, maxDuration, 3, 2, 1.0);
+    }
+
+    @Test
+    void isOutOfServiceUntilTheRoundsSettle() {
+        AtomicInteger calls = new AtomicInteger();
+        WarmUpRunner runner = new WarmUpRunner(properties(true, Duration.ofMinutes(1)), Map.of("task", calls::incrementAndGet));
+
+        assertThat(runner.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        runner.run();
+
+        Health health = runner.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("state", WarmUpRunner.State.SETTLED).containsKeys("firstRound", "settledRound");
+        assertThat(runner.getRounds()).isEqualTo(4);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void keepsGoingWhileTheRoundsGetFaster() {
+        AtomicInteger calls = new AtomicInteger();
+        WarmUpProperties properties = new WarmUpProperties(true, Duration.ofMinutes(1), 1, 2, 0.1);
+        WarmUpRunner runner = new WarmUpRunner(properties, Map.of("task", () -> Thread.sleep(Math.max(2, 60 - 10 * calls.getAndIncrement()))));
+
+        runner.run();
+
+        assertThat(runner.getState()).isEqualTo(WarmUpRunner.State.SETTLED);
+        assertThat(runner.getRounds()).isGreaterThanOrEqualTo(8);
+        assertThat(runner.getSettledRoundNanos()).isLessThan(runner.getFirstRoundNanos());
+    }
+
+    @Test
+    void stopsAtTheMaximumDuration() {
+        WarmUpProperties properties = new WarmUpProperties(true, Duration.ofMillis(50), Integer.MAX_VALUE, 2, 1.0);
+        WarmUpRunner runner = new WarmUpRunner(properties, Map.of("task", () -> Thread.sleep(5)));
+
+        runner.run();
+
+        assertThat(runner.getState()).isEqualTo(WarmUpRunner.State.TIMED_OUT);
+        assertThat(runner.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(runner.getDurationNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void dropsAFailingTaskAndKeepsTheOthers() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, WarmUpTask> tasks = new LinkedHashMap<>();
+        tasks.put("broken", () -> { throw new IllegalStateException("boom"); });
+        tasks.put("working", calls::incrementAndGet);
+        WarmUpRunner runner = new WarmUpRunner(properties(true, Duration.ofMinutes(1)), tasks);
+
+        runner.run();
+
+        assertThat(calls).hasValue(4);
+        assertThat(runner.health().getDetails().get("failedTasks")).asInstanceOf(InstanceOfAssertFactories.MAP).containsOnlyKeys("broken");
+    }
+
+    @Test
+    void reportsUpWhenDisabled() {
+        WarmUpRunner runner = new WarmUpRunner(properties(false, Duration.ofMinutes(1)), Map.of());
+
+        assertThat(runner.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(runner.health().getDetails()).containsEntry("state", WarmUpRunner.State.DISABLED);
+    }
+
+}
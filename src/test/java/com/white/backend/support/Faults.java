@@ -0,0 +1,69 @@
+package com.white.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and error injection shared by the HTTP stand-ins. Every call is delayed by the latency; a random
+ * {@code errorRate} fraction of calls is then answered with {@code errorStatus} instead of the real response.
+ * Settings can change while a test runs.
+ */
+public class Faults {
+
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+
+    private volatile Duration latency;
+
+    private volatile double errorRate;
+
+    private volatile int errorStatus = 503;
+
+    public Faults(Duration latency) {
+        this.latency = latency;
+    }
+
+    public Faults latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public Faults errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public Faults errorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public int injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * Sleeps for the configured latency, then answers with an injected error if this call was picked for one.
+     *
+     * @return whether an error was sent, in which case the caller must not respond again
+     */
+    boolean apply(HttpExchange exchange) throws IOException, InterruptedException {
+        Thread.sleep(latency.toMillis());
+
+        if (errorRate <= 0 || ThreadLocalRandom.current().nextDouble() >= errorRate) {
+            return false;
+        }
+
+        injectedErrors.incrementAndGet();
+        byte[] body = "{\"error\":{\"message\":\"Injected failure\"}}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(errorStatus, body.length);
+        exchange.getResponseBody().write(body);
+        return true;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.white.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Google's OAuth2 token and user info endpoints, answering every call after the latency of its
+ * {@link Faults}, which can also inject errors. Each token exchange hands out one of {@code userCount} accounts in turn.
+ */
+public class GoogleStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger nextUser = new AtomicInteger();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final int userCount;
+
+    private final Faults faults;
+
+    public GoogleStandIn(Duration latency, int userCount) throws IOException {
+
+        this.faults = new Faults(latency);
+        this.userCount = userCount;
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.createContext("/token", exchange -> respond(exchange,
+                "{\"access_token\":\"user-" + Math.floorMod(nextUser.getAndIncrement(), userCount)
+                        + "\",\"expires_in\":\"3599\",\"token_type\":\"Bearer\"}"));
+        this.server.createContext("/userinfo", exchange -> {
+            String user = exchange.getRequestHeaders().getFirst("Authorization").substring("Bearer ".length());
+            respond(exchange, "{\"id\":\"" + user + "\",\"email\":\"" + user + "@example.com\",\"name\":\"" + user
+                    + "\",\"picture\":\"https://example.com/" + user + ".png\"}");
+        });
+        this.server.setExecutor(executor);
+        this.server.start();
+
+    }
+
+    public void setLatency(Duration latency) {
+        faults.latency(latency);
+    }
+
+    public Faults faults() {
+        return faults;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public String tokenUri() {
+        return baseUri() + "/token";
+    }
+
+    public String userInfoUri() {
+        return baseUri() + "/userinfo";
+    }
+
+    private String baseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requestCount.incrementAndGet();
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.readAllBytes();
+            if (faults.apply(exchange)) {
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
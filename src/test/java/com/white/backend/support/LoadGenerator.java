@@ -0,0 +1,103 @@
+package com.white.backend.support;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load: a fixed number of clients each send one request after the other for a given duration.
+ * A client stops early once the request supplier returns {@code null}, for scenarios with a finite set of requests.
+ */
+public class LoadGenerator {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int concurrency;
+
+    private final Duration duration;
+
+    public LoadGenerator(int concurrency, Duration duration) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+    }
+
+    public Result run(String name, Supplier<HttpRequest> requests) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.get();
+                    if (request == null) {
+                        break;
+                    }
+                    long sentAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - sentAt;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            long[] merged = Arrays.copyOf(all, all.length + latencies.length);
+            System.arraycopy(latencies, 0, merged, all.length, latencies.length);
+            all = merged;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        clients.shutdown();
+
+        Arrays.sort(all);
+        return new Result(name, all.length, errors.get(), all.length * 1e9 / elapsed,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    public record Result(String name, long requests, long errors, double throughput, double p50, double p99, double p999) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %,8d req %,6d err %,10.1f req/s  p50 %,8.1f ms  p99 %,8.1f ms  p999 %,8.1f ms",
+                    name, requests, errors, throughput, p50, p99, p999);
+        }
+
+    }
+
+}
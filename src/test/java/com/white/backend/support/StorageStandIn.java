@@ -0,0 +1,185 @@
+package com.white.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for Cloudinary's upload and destroy API. It accepts form-encoded uploads from browsers and the
+ * multipart calls of the server-side SDK, checks the request signature the way Cloudinary does, and answers like
+ * Cloudinary. File content is not stored. Latency and errors can be injected through {@link #faults()}.
+ */
+public class StorageStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final Faults faults = new Faults(Duration.ZERO);
+
+    private final String apiSecret;
+
+    public StorageStandIn(String cloudName, String apiSecret) throws IOException {
+
+        this.apiSecret = apiSecret;
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.createContext("/v1_1/" + cloudName + "/image/upload", this::upload);
+        this.server.createContext("/v1_1/" + cloudName + "/image/destroy", this::destroy);
+        this.server.setExecutor(executor);
+        this.server.start();
+
+    }
+
+    public String uploadPrefix() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Faults faults() {
+        return faults;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Signs parameters the way Cloudinary does: sorted {@code key=value} pairs joined by {@code &}, followed by
+     * the API secret, hashed with SHA-1.
+     */
+    public String sign(Map<String, String> params) {
+        String toSign = new TreeMap<>(params).entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest((toSign + apiSecret).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void upload(HttpExchange exchange) throws IOException {
+        handle(exchange, form -> {
+            String file = form.remove("file");
+            if (file == null) {
+                return null;
+            }
+            String publicId = form.get("public_id");
+            // Cloudinary versions an upload with the time it was stored
+            String version = String.valueOf(Instant.now().getEpochSecond());
+            return "{\"public_id\":\"" + publicId + "\",\"version\":" + version
+                    + ",\"signature\":\"" + sign(Map.of("public_id", publicId, "version", version))
+                    + "\",\"format\":\"png\",\"bytes\":" + file.length() + ",\"original_filename\":\"file\"}";
+        });
+    }
+
+    private void destroy(HttpExchange exchange) throws IOException {
+        handle(exchange, form -> form.containsKey("public_id") ? "{\"result\":\"ok\"}" : null);
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requestCount.incrementAndGet();
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            byte[] body = requestBody.readAllBytes();
+            if (faults.apply(exchange)) {
+                return;
+            }
+
+            String contentType = String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+            Map<String, String> form = contentType.startsWith("multipart/form-data") ? multipart(body, contentType) : urlEncoded(body);
+
+            form.remove("api_key");
+            String signature = form.remove("signature");
+            String file = form.get("file");
+            form.remove("file");
+            if (signature == null || !signature.equals(sign(form))) {
+                respond(exchange, 401, "{\"error\":{\"message\":\"Invalid Signature\"}}");
+                return;
+            }
+            if (file != null) {
+                form.put("file", file);
+            }
+
+            String response = handler.handle(form);
+            if (response == null) {
+                respond(exchange, 400, "{\"error\":{\"message\":\"Missing required parameter\"}}");
+            } else {
+                respond(exchange, 200, response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> urlEncoded(byte[] body) {
+        Map<String, String> form = new TreeMap<>();
+        for (String pair : new String(body, StandardCharsets.UTF_8).split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            form.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+                    keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return form;
+    }
+
+    // Binary parts are kept as ISO-8859-1 text, which maps every byte to one char, so their length stays the byte count
+    private static Map<String, String> multipart(byte[] body, String contentType) {
+        String boundary = "--" + contentType.substring(contentType.indexOf("boundary=") + "boundary=".length()).split(";")[0].trim();
+        String content = new String(body, StandardCharsets.ISO_8859_1);
+
+        Map<String, String> form = new TreeMap<>();
+        for (String part : content.split(Pattern.quote(boundary))) {
+            int headersEnd = part.indexOf("\r\n\r\n");
+            int nameStart = part.indexOf("name=\"");
+            if (headersEnd < 0 || nameStart < 0 || nameStart > headersEnd) {
+                continue;
+            }
+            String name = part.substring(nameStart + 6, part.indexOf('"', nameStart + 6));
+            String value = part.substring(headersEnd + 4, part.length() - 2);
+            boolean binary = part.substring(0, headersEnd).contains("filename=");
+            form.put(name, binary ? value : new String(value.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Handler {
+
+        String handle(Map<String, String> form);
+
+    }
+
+}